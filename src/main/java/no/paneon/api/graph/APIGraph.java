@@ -33,7 +33,6 @@ import no.paneon.api.logging.AspectLogger.LogLevel;
 
 import org.apache.logging.log4j.Logger;
 import org.jgrapht.Graph;
-import org.jgrapht.graph.AsSubgraph;
 import org.apache.logging.log4j.LogManager;
 import org.jgrapht.alg.cycle.CycleDetector;
 
@@ -318,7 +317,7 @@ public class APIGraph extends CoreAPIGraph {
 	Node getLastElementOfPath(Node from, Node to, Node exclude, List<Node> seen) {
 	    Node res = null;
 	    
-		LOG.debug("getLastElementOfPath: from=" + from + " to=" + to + " exclude=" + exclude + " seen=" + seen);
+		LOG.debug("getLastElementOfPath: from={} to={} exclude={} seen={}", from, to, exclude, seen);
 
 	    if(to.equals(exclude) || to.equals(from) || seen.contains(from)) return res;
 	    seen.add(from);
@@ -414,7 +413,7 @@ public class APIGraph extends CoreAPIGraph {
 	    	res = inbound.size()==1 && outbound.isEmpty();
 	    } else if(!res && inbound.size()==1 && outbound.size()==1) {
 	    	Node next=outbound.iterator().next(); 
-		    LOG.trace("isLinearPath: node=" + toNode + " next=" + next);
+		    LOG.trace("isLinearPath: node={} next={}", toNode, next);
 
 	    	res = isLinearPath(next,maxLength-1);
 	    }
@@ -582,7 +581,7 @@ public class APIGraph extends CoreAPIGraph {
 		
 		Set<Node> intermediate = Utils.intersection(fromA, fromC);
 		
-	    LOG.trace("getIntermediate: nodeA=" + nodeA + " nodeC=" + nodeC + " intermediate=" + intermediate);
+	    LOG.trace("getIntermediate: nodeA={} nodeC={} intermediate={}", nodeA, nodeC, intermediate);
 		
 		return intermediate;
 	}
@@ -603,7 +602,7 @@ public class APIGraph extends CoreAPIGraph {
 									.filter(this::isCommonLeafNode)
 									.findFirst();
 				
-	    LOG.debug("isSimple: cand=" + cand);
+	    LOG.debug("isSimple: cand={}", cand);
 
 		return cand.isPresent();
 	}
@@ -683,7 +682,7 @@ public class APIGraph extends CoreAPIGraph {
 	int pathLength(String node, Set<String> exclude) {
 		Optional<Integer> pathLength = Optional.empty();
 		
-	    LOG.debug("pathLength: node=" + node);
+	    LOG.debug("pathLength: node={}", node);
 
 	    if(this.getInboundNeighbours(node).size()==1) {
 			exclude.add(node);
@@ -1023,13 +1022,13 @@ public class APIGraph extends CoreAPIGraph {
 									.filter(node -> !node.isSimpleType() || node.getName().contentEquals(this.resource) || node.isEnumNode() )
 									.collect(toSet());
 		
-		LOG.debug("filterSimpleTypes: nonSimpleNodes=" + nonSimpleNodes);
+		LOG.debug("filterSimpleTypes: nonSimpleNodes={}", nonSimpleNodes);
 		
-		Graph<Node,Edge> subGraph = new AsSubgraph<>(this.graph, nonSimpleNodes);
+		Graph<Node,Edge> subGraph = new IndexedSubgraph(this.graph, nonSimpleNodes);
 		
-		LOG.debug("filterSimpleTypes: subGraph=" + subGraph.vertexSet());
+		LOG.debug("filterSimpleTypes: subGraph={}", subGraph.vertexSet());
 
-		LOG.debug("filterSimpleTypes: baseTypes=" + baseTypes);
+		LOG.debug("filterSimpleTypes: baseTypes={}", baseTypes);
 
 		if(Config.getSimplifyRefOrValue()) {
 			Set<Node> refOrValueNodes = subGraph.vertexSet().stream()
@@ -1142,7 +1141,7 @@ public class APIGraph extends CoreAPIGraph {
 
 		Set<Node> common = Utils.intersection(allNeighours,  neighbourA);
 		
-		LOG.debug("existsCommonNeighbours: nodeA=" + nodeA + " nodeB=" + nodeB + " all=" + allNeighours + " common="+ common);
+		LOG.debug("existsCommonNeighbours: nodeA={} nodeB={} all={} common={}", nodeA, nodeB, allNeighours, common);
 		
 		return common.size()>=2;
 
@@ -17,7 +17,6 @@ import static java.util.stream.Collectors.toSet;
 
 import org.apache.logging.log4j.Logger;
 import org.jgrapht.Graph;
-import org.jgrapht.graph.AsSubgraph;
 import org.jgrapht.graph.EdgeReversedGraph;
 import org.jgrapht.graph.builder.GraphTypeBuilder;
 import org.jgrapht.traverse.BreadthFirstIterator;
@@ -47,6 +46,8 @@ public class CoreAPIGraph {
 
     static final String INCLUDE_INHERITED = "includeInherited"; 
     
+    static final String PRUNE_UNREACHABLE_DEFINITIONS = "pruneUnreachableDefinitions"; 
+    
     static final String INCLUDE_DISCRIMINATOR_MAPPING = "includeDiscriminatorMapping";
     static final String SET_DISCRIMINATOR_DEFAULT = "setDiscriminatorDefault";
     static final String DESCRIPTION = "description";
@@ -112,9 +113,9 @@ public class CoreAPIGraph {
 			});
 		}
 
-		LOG.debug("CoreAPIGraph:: final edges={}", completeGraph.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
+		if(LOG.isDebugEnabled()) LOG.debug("CoreAPIGraph:: final edges={}", completeGraph.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
 
-		LOG.debug("CoreAPIGraph:: edges={}", completeGraph.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
+		if(LOG.isDebugEnabled()) LOG.debug("CoreAPIGraph:: edges={}", completeGraph.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
 
 		updateNodeInheritance();
 		
@@ -130,7 +131,7 @@ public class CoreAPIGraph {
 		
 		LOG.debug("CoreAPIGraph:: #2 edges={}", completeGraph.edgeSet());
 		
-		LOG.debug("CoreAPIGraph:: final edges={}", completeGraph.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
+		if(LOG.isDebugEnabled()) LOG.debug("CoreAPIGraph:: final edges={}", completeGraph.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
 
 	}
 	
@@ -174,9 +175,7 @@ public class CoreAPIGraph {
 	private void updateCardinalityFromFactoryObjects() {
 		Set<Node> nodes = this.completeGraph.vertexSet().stream().filter(n-> !n.getName().endsWith("_FVO")).collect(toSet());
 		nodes.forEach(node -> {
-			Optional<Node> fvoNode = this.completeGraph.vertexSet().stream()
-										.filter(fvo -> fvo.getName().contentEquals(node.getName()+"_FVO"))
-										.findFirst();
+			Optional<Node> fvoNode = CoreAPIGraph.getNodeByName(this.completeGraph, node.getName()+"_FVO");
 			
 			if(fvoNode.isPresent()) {
 				Set<Edge> edges = this.completeGraph.edgesOf(fvoNode.get());
@@ -244,7 +243,7 @@ public class CoreAPIGraph {
 	private void updateDiscriminators() {
 		Set<Node> nodes = this.completeGraph.vertexSet();
 		
-		LOG.debug("updateDiscriminators: nodes={} set-default={}", nodes, Config.getBoolean(SET_DISCRIMINATOR_DEFAULT));
+		if(LOG.isDebugEnabled()) LOG.debug("updateDiscriminators: nodes={} set-default={}", nodes, Config.getBoolean(SET_DISCRIMINATOR_DEFAULT));
 
 		nodes.forEach(Node::updateDiscriminatorMapping);
 		
@@ -314,11 +313,9 @@ public class CoreAPIGraph {
 	@LogMethod(level=LogLevel.DEBUG)
 	private Graph<Node,Edge> generateGraph() {
 
-		Graph<Node,Edge> g = GraphTypeBuilder
-								.<Node,Edge> directed().allowingMultipleEdges(true).allowingSelfLoops(true)
-								.edgeClass(Edge.class).buildGraph();
+		Graph<Node,Edge> g = new IndexedGraph();
 
-		LOG.debug("generateGraph: g=" + g);
+		LOG.debug("generateGraph: g={}", g);
 
 		addNodesAndEnums(g);
 		
@@ -330,17 +327,17 @@ public class CoreAPIGraph {
 			addedAsync.forEach(node -> this.getOrAddNode(g,node));
 		}
 		
-		LOG.debug("generateGraph: g=\n...{}", g.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n... ")));
+		if(LOG.isDebugEnabled()) LOG.debug("generateGraph: g=\n...{}", g.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n... ")));
 
-		LOG.debug("CoreAPIGraph:: nodes={}", g.vertexSet().stream().map(Node::toString).collect(Collectors.joining("\n")) );
+		if(LOG.isDebugEnabled()) LOG.debug("CoreAPIGraph:: nodes={}", g.vertexSet().stream().map(Node::toString).collect(Collectors.joining("\n")) );
 
 		addProperties(g);
 
-		LOG.debug("generateGraph: g=" + g);
+		LOG.debug("generateGraph: g={}", g);
 		
-		LOG.debug("CoreAPIGraph:: final edges={}", g.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
+		if(LOG.isDebugEnabled()) LOG.debug("CoreAPIGraph:: final edges={}", g.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n")) );
 
-		LOG.debug("CoreAPIGraph:: inline nodes={}", g.vertexSet().stream().filter(n->!n.getInline().isEmpty()).map(Node::getName).collect(Collectors.joining("\n")) );
+		if(LOG.isDebugEnabled()) LOG.debug("CoreAPIGraph:: inline nodes={}", g.vertexSet().stream().filter(n->!n.getInline().isEmpty()).map(Node::getName).collect(Collectors.joining("\n")) );
 
 		Predicate<Node> hasInlineDescription = n -> !n.getInline().isEmpty() && !n.getInline().contentEquals("object"); // was !n
 		
@@ -353,13 +350,13 @@ public class CoreAPIGraph {
 
 		Set<Edge> outgoingFromInline = inlineNodes.stream().map(g::outgoingEdgesOf).flatMap(Set::stream).collect(toSet());
 		
-		LOG.debug("generateGraph: outgoingFromInline=\n...{}", outgoingFromInline.stream().map(Edge::toString).collect(Collectors.joining("\n... ")));
+		if(LOG.isDebugEnabled()) LOG.debug("generateGraph: outgoingFromInline=\n...{}", outgoingFromInline.stream().map(Edge::toString).collect(Collectors.joining("\n... ")));
 
 		g.removeAllEdges(outgoingFromInline);
 		
-		LOG.debug("generateGraph: edges=" + g.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
+		if(LOG.isDebugEnabled()) LOG.debug("generateGraph: edges={}", g.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
 
-		LOG.debug("generateGraph: g=\n...{}", g.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n... ")));
+		if(LOG.isDebugEnabled()) LOG.debug("generateGraph: g=\n...{}", g.edgeSet().stream().map(Edge::toString).collect(Collectors.joining("\n... ")));
 
 		return g;
 			
@@ -370,19 +367,23 @@ public class CoreAPIGraph {
 		
 		LOG.debug("addNodesAndEnums: g.nodes={}", g.vertexSet());
 
+		// adding the nodes may add definitions, these are added in the next iteration
+		List<String> definitions = getGraphDefinitions();
+		
 		boolean run = true;
 		while(run) {
 			run = false;
 			
-			APIModel.getAllDefinitions().forEach(node -> getOrAddNode(g,node));
+			definitions.forEach(node -> getOrAddNode(g,node));
 			
-			if(APIModel.getAllDefinitions().size()!=g.vertexSet().size()) {
+			definitions = getGraphDefinitions();
+			if(definitions.size()!=g.vertexSet().size()) {
 	
 				final Set<String> graphNodes = g.vertexSet().stream().map(Node::getName).collect(Collectors.toSet());
-				Set<String> newNodes = APIModel.getAllDefinitions().stream().filter(n -> !graphNodes.contains(n)).collect(Collectors.toSet());
+				Set<String> newNodes = definitions.stream().filter(n -> !graphNodes.contains(n)).collect(Collectors.toSet());
 						
-				LOG.debug("addNodesAndEnums: NEW graphNodes={} definitions={}", graphNodes, APIModel.getAllDefinitions());
-				LOG.debug("addNodesAndEnums: NEW definitions={} graph={}", APIModel.getAllDefinitions().size(), g.vertexSet().size());
+				if(LOG.isDebugEnabled()) LOG.debug("addNodesAndEnums: NEW graphNodes={} definitions={}", graphNodes, definitions);
+				if(LOG.isDebugEnabled()) LOG.debug("addNodesAndEnums: NEW definitions={} graph={}", definitions.size(), g.vertexSet().size());
 	
 				LOG.debug("addNodesAndEnums: newNodes={}", newNodes);
 
@@ -393,6 +394,23 @@ public class CoreAPIGraph {
 		LOG.debug("addNodesAndEnums: nodes={}", g.vertexSet());
 	}
 	
+	//
+	// with pruneUnreachableDefinitions only the definitions reachable by references from the resources
+	// of the graph are added (the nodes referenced by these are added as before)
+	//
+	private List<String> getGraphDefinitions() {
+		List<String> definitions = APIModel.getAllDefinitions();
+		
+		if(!Config.getBoolean(PRUNE_UNREACHABLE_DEFINITIONS) || this.allResources.isEmpty()) return definitions;
+		
+		Set<String> reachable = APIModel.getReachableDefinitions(this.allResources);
+		List<String> res = definitions.stream().filter(reachable::contains).collect(toList());
+		
+		LOG.debug("getGraphDefinitions: definitions={} reachable={}", definitions.size(), res.size());
+
+		return res;
+	}
+	
 	@LogMethod(level=LogLevel.DEBUG)
 	private Node getOrAddNode(Graph<Node, Edge> g, String definition) {		
 		Node node;
@@ -404,7 +422,7 @@ public class CoreAPIGraph {
 
 		if(candidate.isPresent()) return candidate.get();
 		
-		LOG.debug("getOrAddNode::isEnumType={}", APIModel.isEnumType(definition));
+		if(LOG.isDebugEnabled()) LOG.debug("getOrAddNode::isEnumType={}", APIModel.isEnumType(definition));
 
 		node = APIModel.isEnumType(definition) ? new EnumNode(coreDefinition) : new Node(coreDefinition);
 		
@@ -419,7 +437,7 @@ public class CoreAPIGraph {
 				node.additional_edges.forEach(propName -> {
 					Property prop = node.getPropertyByName(propName);
 					String propType = prop.getType();
-					JSONObject propDef = APIModel.getDefinition(propType);
+					JSONObject propDef = APIModel.getDefinitionView(propType);
 					
 					boolean earlierCreatedNode = g.vertexSet().stream().map(Node::getName).anyMatch(n -> n.contentEquals(propType));
 					
@@ -465,7 +483,7 @@ public class CoreAPIGraph {
 		
 		LOG.debug("addNode:: adding node={}", definition);
 				
-		if(node.getName().contentEquals("String")) LOG.debug("getOrAddNode:: node={} edges={}", node, g.edgesOf(node).stream().map(Edge::toString).collect(Collectors.joining("\n")) );
+		if(LOG.isDebugEnabled() && node.getName().contentEquals("String")) LOG.debug("getOrAddNode:: node={} edges={}", node, g.edgesOf(node).stream().map(Edge::toString).collect(Collectors.joining("\n")) );
 
 		return node;
 		
@@ -473,7 +491,7 @@ public class CoreAPIGraph {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	private void addProperties(Graph<Node, Edge> g) {
-		for(String definition : APIModel.getAllDefinitions() ) {
+		for(String definition : getGraphDefinitions() ) {
 			LOG.debug("addProperties:: definition={}", definition);
 
 			addProperties(g,definition);
@@ -543,7 +561,7 @@ public class CoreAPIGraph {
 			}
 		});
 			
-		LOG.debug("addProperties:: node={} getProperties={}", node, node.getPropertyNames());
+		if(LOG.isDebugEnabled()) LOG.debug("addProperties:: node={} getProperties={}", node, node.getPropertyNames());
 
 		addEdgesForInheritedEnums(g, node);
 		
@@ -797,7 +815,7 @@ public class CoreAPIGraph {
 			
 			node.addAllOfObject(obj, Property.VISIBLE_INHERITED);
 			
-			LOG.debug("processAllOfReference:: node={} properties={}", node, node.getPropertyNames());	
+			if(LOG.isDebugEnabled()) LOG.debug("processAllOfReference:: node={} properties={}", node, node.getPropertyNames());	
 
 			addEnumsToGraph(g, node, propertiesBefore);			
 							
@@ -846,13 +864,13 @@ public class CoreAPIGraph {
 			if(includeInherited) {
 				JSONObject obj = APIModel.getDefinitionBySchemaObject(allOfObject);							
 				
-				LOG.debug("processAllOfReference:: flattenInheritance type={} node={} obj={}", type, node, obj.toString(2));
+				if(LOG.isDebugEnabled()) LOG.debug("processAllOfReference:: flattenInheritance type={} node={} obj={}", type, node, obj.toString(2));
 				
 				Set<Property> propertiesBefore = new HashSet<>(node.getProperties());
 				
 				node.addAllOfObject(obj, Property.VISIBLE_INHERITED);
 				
-				LOG.debug("processAllOfReference:: node={} properties={}", node, node.getPropertyNames());	
+				if(LOG.isDebugEnabled()) LOG.debug("processAllOfReference:: node={} properties={}", node, node.getPropertyNames());	
 
 				addEnumsToGraph(g, node, propertiesBefore);			
 			
@@ -881,7 +899,7 @@ public class CoreAPIGraph {
 			
 		}
 		
-		LOG.debug("processAllOfReference:: node={} properties={}", node, node.getPropertyNames());	
+		if(LOG.isDebugEnabled()) LOG.debug("processAllOfReference:: node={} properties={}", node, node.getPropertyNames());	
 		LOG.debug("processAllOfReference:: node={} inheritnace={}", node, node.getInheritance());	
 
 		
@@ -1014,7 +1032,7 @@ public class CoreAPIGraph {
 
 			if(coreType.contains("_")) {
 				LOG.debug("addProperties: from={} propertyName={} type={} coreType={} property={}", from, propertyName, type, coreType, property);
-				LOG.debug("addProperties: from={} propertyName={} type={} isSimpleType={}", from, propertyName, type, APIModel.isSimpleType(type));
+				if(LOG.isDebugEnabled()) LOG.debug("addProperties: from={} propertyName={} type={} isSimpleType={}", from, propertyName, type, APIModel.isSimpleType(type));
 			}
 			
 			boolean isArrayType=false;
@@ -1074,12 +1092,12 @@ public class CoreAPIGraph {
 				if(property.has(REF) && APIModel.isArrayType(type)) {
 					LOG.debug("addProperties: isArrayType from={} propertyName={} type={} coreType={} property={}", from, propertyName, type, coreType, property);
 					
-					property = APIModel.getDefinition(type);
+					property = APIModel.getDefinitionView(type);
 	
 					type = APIModel.getTypeName(property, propertyName);
 					coreType = APIModel.removePrefix(type);
 	
-					LOG.debug("addProperties: isArrayType #2 type={} coreType={} property={} isSimpleType={}", type, coreType, property, APIModel.isSimpleType(type));
+					if(LOG.isDebugEnabled()) LOG.debug("addProperties: isArrayType #2 type={} coreType={} property={} isSimpleType={}", type, coreType, property, APIModel.isSimpleType(type));
 					isArrayType=true;
 					
 				} 
@@ -1180,9 +1198,9 @@ public class CoreAPIGraph {
 		
 		Set<Edge> edgesOfFromNode = graph.edgesOf(from);
 				
-		LOG.debug("addProperties: #1 from={} edgesOfFromNode={}", from, edgesOfFromNode.stream().filter(e -> graph.getEdgeSource(e).equals(from)).map(graph::getEdgeTarget).toList());
+		if(LOG.isDebugEnabled()) LOG.debug("addProperties: #1 from={} edgesOfFromNode={}", from, edgesOfFromNode.stream().filter(e -> graph.getEdgeSource(e).equals(from)).map(graph::getEdgeTarget).toList());
 
-		LOG.debug("## addProperties: typeName={} node.properties={}", typeName, from.properties.stream().map(Property::getName).collect(Collectors.toList()));
+		if(LOG.isDebugEnabled()) LOG.debug("## addProperties: typeName={} node.properties={}", typeName, from.properties.stream().map(Property::getName).collect(Collectors.toList()));
 
 	}
 	
@@ -1297,8 +1315,8 @@ public class CoreAPIGraph {
 		
 		LOG.debug("getNodesOfSubGraph:: node={} #0 res={}", node, res);
 		
-		LOG.debug("getNodesOfSubGraph:: node={} enums={}", node, res.stream().filter(Node::isEnumNode).collect(toSet()));
-		LOG.debug("getNodesOfSubGraph:: node={} allEnums={}", node, graph.vertexSet().stream().filter(Node::isEnumNode).collect(toSet()));
+		if(LOG.isDebugEnabled()) LOG.debug("getNodesOfSubGraph:: node={} enums={}", node, res.stream().filter(Node::isEnumNode).collect(toSet()));
+		if(LOG.isDebugEnabled()) LOG.debug("getNodesOfSubGraph:: node={} allEnums={}", node, graph.vertexSet().stream().filter(Node::isEnumNode).collect(toSet()));
 
 		Set<Node> discriminators = res.stream().map(graph::edgesOf).flatMap(Set::stream).filter(Edge::isDiscriminator).map(graph::getEdgeTarget).collect(toSet());
 
@@ -1318,16 +1336,16 @@ public class CoreAPIGraph {
 	@LogMethod(level=LogLevel.DEBUG)
 	public static Graph<Node,Edge> getSubGraphWithInheritance(Collection<String> allResources, Graph<Node,Edge> origGraph, Node node, Node resource) {
 						
-		LOG.debug("getSubGraphWithInheritance: #000 node={} origGraph isDiscriminator=\n{}",  node, origGraph.edgeSet().stream().filter(Edge::isDiscriminator).map(Object::toString).collect(Collectors.joining("\n")));
+		if(LOG.isDebugEnabled()) LOG.debug("getSubGraphWithInheritance: #000 node={} origGraph isDiscriminator=\n{}",  node, origGraph.edgeSet().stream().filter(Edge::isDiscriminator).map(Object::toString).collect(Collectors.joining("\n")));
 
 		LOG.debug("getSubGraphWithInheritance:: node={} resource={} complete edgeSet={}", node, resource, origGraph.edgeSet());
 		LOG.debug("getSubGraphWithInheritance:: node={} resource={}", node, resource);
 
 		Set<Node> nodes = getNodesOfSubGraph(origGraph, node);
 		
-		Graph<Node,Edge> graph = new AsSubgraph<Node, Edge>(origGraph);
+		Graph<Node,Edge> graph = new IndexedSubgraph(origGraph);
 
-		LOG.debug("getSubGraphWithInheritance: #111 node={} graph isDiscriminator=\n{}",  node, graph.edgeSet().stream().filter(Edge::isDiscriminator).map(Object::toString).collect(Collectors.joining("\n")));
+		if(LOG.isDebugEnabled()) LOG.debug("getSubGraphWithInheritance: #111 node={} graph isDiscriminator=\n{}",  node, graph.edgeSet().stream().filter(Edge::isDiscriminator).map(Object::toString).collect(Collectors.joining("\n")));
 
 		LOG.debug("getSubGraphWithInheritance:: node={} nodes={} ", node, nodes);
 
@@ -1436,7 +1454,7 @@ public class CoreAPIGraph {
 		}
 		
 		
-		LOG.debug("getSubGraphWithInheritance:: node={} #1 subGraph={}", node, graph.edgeSet().stream().filter(Edge::isDiscriminator).collect(toSet()));
+		if(LOG.isDebugEnabled()) LOG.debug("getSubGraphWithInheritance:: node={} #1 subGraph={}", node, graph.edgeSet().stream().filter(Edge::isDiscriminator).collect(toSet()));
 
 		Predicate<Node> notEnumNode = n -> !n.isEnumNode();
 	 	
@@ -1520,9 +1538,9 @@ public class CoreAPIGraph {
 
 		LOG.debug("getSubGraphWithInheritance:: node={} nodes={}", node, nodes);
 
-		Graph<Node,Edge> subGraph = new AsSubgraph<>(graph, nodes);
+		Graph<Node,Edge> subGraph = new IndexedSubgraph(graph, nodes);
 		
-		LOG.debug("getSubGraphWithInheritance:: node={} subGraph edges={}", node, subGraph.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
+		if(LOG.isDebugEnabled()) LOG.debug("getSubGraphWithInheritance:: node={} subGraph edges={}", node, subGraph.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
 
 		Set<Node> excludedNodes = new HashSet<>();
 		excludedNodes.add(node);
@@ -1530,7 +1548,7 @@ public class CoreAPIGraph {
 		// removeOutboundFromDiscriminatorMappingNodes(subGraph,excludedNodes);
 
 		LOG.debug("getSubGraphWithInheritance:: node={} subGraph edges={}", node, subGraph.edgeSet());
-		LOG.debug("getSubGraphWithInheritance:: after remove outbound edges={}", subGraph.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
+		if(LOG.isDebugEnabled()) LOG.debug("getSubGraphWithInheritance:: after remove outbound edges={}", subGraph.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
 
 		Predicate<Node> noNeighbours = n -> CoreAPIGraph.getNeighbours(subGraph, n).isEmpty();		
 		Predicate<Node> noInboundNeighbours = n -> CoreAPIGraph.getInboundNeighbours(subGraph, n).isEmpty();
@@ -1541,7 +1559,7 @@ public class CoreAPIGraph {
 		LOG.debug("getSubGraphWithInheritance:: node={} orphans={}", node, orphans);
 		LOG.debug("getSubGraphWithInheritance:: node={} subGraph={}", node, subGraph);
 		
-		LOG.debug("## getSubGraphWithInheritance:: node={} subGraph={}", node, 
+		if(LOG.isDebugEnabled()) LOG.debug("## getSubGraphWithInheritance:: node={} subGraph={}", node, 
 				subGraph.vertexSet().stream().filter(n -> n.getName().contains("ProductRef")).collect(toSet()));
 
 		LOG.debug("## getSubGraphWithInheritance:: node={} before remove subGraph={}", node, subGraph.vertexSet());
@@ -1605,7 +1623,11 @@ public class CoreAPIGraph {
 		if(!seen.contains(node)) {		
 			
 			Set<String> mapped = node.getAllDiscriminatorMapping();
-			Set<Node> mappedNodes = graph.vertexSet().stream().filter(n -> mapped.contains(n.getName())).collect(toSet());
+			Set<Node> mappedNodes = mapped.stream()
+										.map(n -> getNodeByName(graph,n))
+										.filter(Optional::isPresent)
+										.map(Optional::get)
+										.collect(toSet());
 			
 			Set<Node> neighbours =  graph.outgoingEdgesOf(node).stream().map(Edge::getRelated).collect(toSet()); // CoreAPIGraph.getOutboundNeighbours(graph, node);
 			
@@ -1778,7 +1800,7 @@ public class CoreAPIGraph {
 			
 		for(Node neighbour : neighbours) {
 			Set<Node> sub = getNodesOfSubGraph(graph, neighbour);
-			Graph<Node,Edge> subGraph = new AsSubgraph<>(graph, sub);
+			Graph<Node,Edge> subGraph = new IndexedSubgraph(graph, sub);
 			res.put(node,  subGraph);
 		}
 		
@@ -1807,6 +1829,9 @@ public class CoreAPIGraph {
 	
 	@LogMethod(level=LogLevel.DEBUG)
 	public static Optional<Node> getNodeByName(Graph<Node,Edge> graph, String name) {
+		if(graph instanceof NodeIndexedGraph) {
+			return Optional.ofNullable( ((NodeIndexedGraph) graph).getIndexedNode(name) );
+		}
 		return graph.vertexSet().stream().filter(gn -> gn.getName().contentEquals(name)).findFirst();
 	}
 
@@ -2094,7 +2119,7 @@ public class CoreAPIGraph {
 										.filter(isNotResource)
 										.collect(Collectors.toSet());
 				
-		LOG.debug("cleanExplicitResources:: ALL disriminatorEdges={}", 
+		if(LOG.isDebugEnabled()) LOG.debug("cleanExplicitResources:: ALL disriminatorEdges={}", 
 				graph.edgeSet().stream()
 				.filter(Edge::isDiscriminator).collect(Collectors.toSet()));
 
@@ -2134,7 +2159,7 @@ public class CoreAPIGraph {
 					// .filter(isNotResourceNode)
 					.collect(Collectors.toSet());
 			
-			LOG.debug("cleanDiscriminatorEdges:: resource={} node={} edges={}", resource, node, graph.edgesOf(node));
+			if(LOG.isDebugEnabled()) LOG.debug("cleanDiscriminatorEdges:: resource={} node={} edges={}", resource, node, graph.edgesOf(node));
 
 			discriminatorEdges.addAll( edges );
 		}
@@ -1,7 +1,6 @@
 package no.paneon.api.graph;
 
 import java.util.List;
-import java.util.function.Predicate;
 
 import org.apache.logging.log4j.Logger;
 import org.json.JSONObject;
@@ -76,7 +75,7 @@ public class Edge {
 	private boolean isPlaced(List<Object> processed) {
 		boolean res = processed.contains(this);
 		
-		LOG.debug("isPlaced: edge=" + this + " res=" + res );
+		LOG.debug("isPlaced: edge={} res={}", this, res);
 
 		return res;
 	}
@@ -119,8 +118,7 @@ public class Edge {
 	}
 
 	public boolean isInheritance() {
-		boolean isInheritance = isOneOf() || isAllOf() || isDiscriminator();
-		return isInheritance && !flattenedInheritance();
+		return !isRegularEdgeCore() && !flattenedInheritance();
 	}
 
 	public boolean isOneOf() {
@@ -142,22 +140,20 @@ public class Edge {
 		return allOf;
 	}
 
+	// configuration version (shifted) and flattened status, in one field as edges are shared between threads
+	private volatile long flattened = -1;
+	
 	private boolean flattenedInheritance() {
-		List<String> flatten = Config.getFlattenInheritance();
-		boolean res = flatten.contains(this.related.getName());
-		
-//		LOG.debug("flattenedInheritance: name={} flatten={}", this.related.getName(), flatten);
-		
-		if(res) return res;
+		long version = Config.getVersion();
+		long state = this.flattened;
 		
-		List<String> flattenPattern = Config.getFlattenInheritanceRegexp();
-		
-//		LOG.debug("flattenedInheritance: name={} pattern={}", this.related.getName(), flattenPattern);
-		res = flattenPattern.stream().anyMatch(pattern -> this.related.getName().matches(pattern));
-
-//		LOG.debug("flattenedInheritance: name={} pattern={} res={}", this.related.getName(), flattenPattern, res);
+		if((state>>1)!=version) {
+			boolean res = Config.isFlattenInheritance(this.related.getName());
+			state = (version<<1) | (res ? 1 : 0);
+			this.flattened = state;
+		}
 
-		return res;
+		return (state & 1)==1;
 	}
 	
 	public void setMarked(boolean value) {
@@ -76,7 +76,7 @@ public class EnumNode extends Node {
 		
 	    if(!APIModel.isEnumType(type)) return;
 	    	  
-	    JSONObject definition = APIModel.getDefinition(type);
+	    JSONObject definition = APIModel.getDefinitionView(type);
 
 	    List<Object> elements = Config.getListAsObject(definition, ENUM);
 	    	    	    
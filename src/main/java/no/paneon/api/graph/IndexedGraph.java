@@ -0,0 +1,40 @@
+package no.paneon.api.graph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jgrapht.graph.DirectedPseudograph;
+
+/*
+ * Directed graph (multiple edges and self loops allowed) with a name index of the nodes.
+ */
+public class IndexedGraph extends DirectedPseudograph<Node,Edge> implements NodeIndexedGraph {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<String,Node> nodesByName = new HashMap<>();
+
+	public IndexedGraph() {
+		super(Edge.class);
+	}
+
+	@Override
+	public boolean addVertex(Node node) {
+		boolean res = super.addVertex(node);
+		if(res) this.nodesByName.put(node.getName(), node);
+		return res;
+	}
+
+	@Override
+	public boolean removeVertex(Node node) {
+		boolean res = super.removeVertex(node);
+		if(res) this.nodesByName.remove(node.getName());
+		return res;
+	}
+
+	@Override
+	public Node getIndexedNode(String name) {
+		return this.nodesByName.get(name);
+	}
+
+}
@@ -0,0 +1,53 @@
+package no.paneon.api.graph;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.jgrapht.Graph;
+import org.jgrapht.graph.AsSubgraph;
+
+/*
+ * Subgraph view with a name index of the nodes in the view.
+ * The index follows the vertex set of the view, i.e. vertices added to or removed from this subgraph.
+ */
+public class IndexedSubgraph extends AsSubgraph<Node,Edge> implements NodeIndexedGraph {
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<String,Node> nodesByName = new HashMap<>();
+
+	public IndexedSubgraph(Graph<Node,Edge> base) {
+		super(base);
+		index();
+	}
+
+	public IndexedSubgraph(Graph<Node,Edge> base, Set<? extends Node> nodes) {
+		super(base, nodes);
+		index();
+	}
+
+	private void index() {
+		this.vertexSet.forEach(node -> this.nodesByName.put(node.getName(), node));
+	}
+
+	@Override
+	public boolean addVertex(Node node) {
+		boolean res = super.addVertex(node);
+		if(res) this.nodesByName.put(node.getName(), node);
+		return res;
+	}
+
+	@Override
+	public boolean removeVertex(Node node) {
+		boolean res = super.removeVertex(node);
+		if(res) this.nodesByName.remove(node.getName());
+		return res;
+	}
+
+	@Override
+	public Node getIndexedNode(String name) {
+		return this.nodesByName.get(name);
+	}
+
+}
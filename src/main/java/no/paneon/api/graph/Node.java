@@ -35,7 +35,9 @@ public class Node implements Comparable<Object>  {
 
     static final Logger LOG = LogManager.getLogger(Node.class);
 
-    static Map<String,Node> nodeMap = new HashMap<>();
+    static Map<String,Node> nodeMap() {
+    	return APIModel.getContext().getNodeMap();
+    }
     
 	List<Property> properties;
 		
@@ -122,7 +124,7 @@ public class Node implements Comparable<Object>  {
 				
 		LOG.debug("Node resource={}" , resource );
 
-		nodeMap.put(this.resource, this);
+		nodeMap().put(this.resource, this);
 		
 		addDescription();
 		
@@ -142,7 +144,7 @@ public class Node implements Comparable<Object>  {
 
 			this.inline = convertExpanded(optExpanded.get());
 			
-			LOG.debug("Node::getExpandedJSON resource={} optExpanded={}" , resource, optExpanded.get().toString(2) );
+			if(LOG.isDebugEnabled()) LOG.debug("Node::getExpandedJSON resource={} optExpanded={}" , resource, optExpanded.get().toString(2) );
 			if(!this.inline.isEmpty()) LOG.debug("#2 node={} inline='{}'" , this.resource, this.inline );
 
 		} 
@@ -242,7 +244,7 @@ public class Node implements Comparable<Object>  {
 	private String getInlineDefinition() {
 		String res="";
 		
-		JSONObject def = APIModel.getDefinition(this.resource);
+		JSONObject def = APIModel.getDefinitionView(this.resource);
 		
 		if(APIModel.isArrayType(this.resource) && !APIModel.isSimpleType(def)) {
 			res="";
@@ -264,7 +266,7 @@ public class Node implements Comparable<Object>  {
 	
 
 	private Optional<JSONObject> getExpandedJSON() {
-		JSONObject def = APIModel.getDefinition(this.resource);
+		JSONObject def = APIModel.getDefinitionView(this.resource);
 		return getExpandedJSON(def);
 	}
 
@@ -279,7 +281,7 @@ public class Node implements Comparable<Object>  {
 //				LOG.debug("Node::getFlatten resource={} def={}" , resource, obj.toString(2) );
 //			}
 			
-		LOG.debug("Node::getFlatten resource={} def={}" , resource, obj.toString(2) );
+		if(LOG.isDebugEnabled()) LOG.debug("Node::getFlatten resource={} def={}" , resource, obj.toString(2) );
 		
 		if(obj.has(ENUM) || obj.has(PROPERTIES) || obj.has(DISCRIMINATOR) ) return res;
 		// if(obj.has(ENUM) ) return res;
@@ -343,7 +345,7 @@ public class Node implements Comparable<Object>  {
 	private Optional<JSONObject> getExpandedJSON(JSONArray array) {
 		Optional<JSONObject> res = Optional.empty();
 		
-		LOG.debug("getExpandedJSON:: array={}",  array.toString(2));
+		if(LOG.isDebugEnabled()) LOG.debug("getExpandedJSON:: array={}",  array.toString(2));
 
 		JSONObject clone = new JSONObject();
 		
@@ -600,9 +602,9 @@ public class Node implements Comparable<Object>  {
 	@LogMethod(level=LogLevel.DEBUG)
 	private void addPropertyDetails(JSONObject propObj, Property.Visibility visibility, JSONObject definition) {
 			
-		if(definition!=null) LOG.debug("addPropertyDetails: node={} definition={}" , this, definition.toString(2) );
+		if(LOG.isDebugEnabled() && definition!=null) LOG.debug("addPropertyDetails: node={} definition={}" , this, definition.toString(2) );
 
-		if(APIModel.isArrayType(definition)) LOG.debug("## addPropertyDetails: node={} definition={}" , this, definition.toString(2) );
+		if(LOG.isDebugEnabled() && APIModel.isArrayType(definition)) LOG.debug("## addPropertyDetails: node={} definition={}" , this, definition.toString(2) );
 
 		if(APIModel.isArrayType(definition) && !APIModel.isSimpleType(definition) && !APIModel.isAsyncAPI()) {
 			Out.printAlways("addPropertyDetails: ARRAY handled as relationship definition=" + definition.toString(2) );
@@ -699,12 +701,12 @@ public class Node implements Comparable<Object>  {
 				if(property.has(REF) && APIModel.isArrayType(type)) {
 					LOG.debug("Node::addProperties: isArrayType node={} propertyName={} type={} property={}", this.getName(), propName, type, property);
 					
-					property = APIModel.getDefinition(type);
+					property = APIModel.getDefinitionView(type);
 
 					type = APIModel.getTypeName(property);
 					coreType = APIModel.removePrefix(type);
 					
-					LOG.debug("Node::addProperties: isArrayType #2 type={} coreType={} property={} isSimpleType={}", type, coreType, property, APIModel.isSimpleType(type));						
+					if(LOG.isDebugEnabled()) LOG.debug("Node::addProperties: isArrayType #2 type={} coreType={} property={} isSimpleType={}", type, coreType, property, APIModel.isSimpleType(type));						
 				} 
 
 				// if(propName.contentEquals("itemTotalPrice")) LOG.debug("Node::addProperties: type={} coreType={} property={} isSimpleType={}", type, coreType, property, APIModel.isSimpleType(type));						
@@ -714,7 +716,7 @@ public class Node implements Comparable<Object>  {
 				boolean seen = properties.stream().map(Property::getName).anyMatch(propName::contentEquals);
 				
 				if(isRequired) {
-					LOG.debug("addPropertyDetails: node={} property={} isRequired={} contains={}", 
+					if(LOG.isDebugEnabled()) LOG.debug("addPropertyDetails: node={} property={} isRequired={} contains={}", 
 							this, propName,
 							APIModel.isRequired(this.resource, propName),
 							required.contains(propName));
@@ -798,18 +800,20 @@ public class Node implements Comparable<Object>  {
 
 	}
 
-	Optional<Set<String>> allDiscriminators = Optional.empty();
+	volatile Optional<Set<String>> allDiscriminators = Optional.empty();
 	
 	@LogMethod(level=LogLevel.DEBUG)
 	private Set<String> getAllDiscriminators() {
-		if(this.allDiscriminators.isEmpty()) {
-			// allDiscriminators = Optional.of( new HashSet<>() );
-			this.allDiscriminators = Optional.of( Node.getAllDiscriminatorsHelper(this));
+		Optional<Set<String>> res = this.allDiscriminators;
+		if(res.isEmpty()) {
+			// computed by all concurrent readers, the results are the same
+			res = Optional.of( Node.getAllDiscriminatorsHelper(this));
+			this.allDiscriminators = res;
 		}
 		
-		LOG.debug("getAllDiscriminators: node={} allDiscriminators={}", this, this.allDiscriminators);
+		LOG.debug("getAllDiscriminators: node={} allDiscriminators={}", this, res);
 
-		return this.allDiscriminators.get();
+		return res.get();
 	}
 
 	
@@ -854,7 +858,7 @@ public class Node implements Comparable<Object>  {
 	@LogMethod(level=LogLevel.DEBUG)
 	private void addOneOfs(JSONArray oneOfs, Property.Visibility visibility) {
 		
-		LOG.debug("addOneOfs: node={} addOneOfs={}", this, oneOfs.toString(2));
+		if(LOG.isDebugEnabled()) LOG.debug("addOneOfs: node={} addOneOfs={}", this, oneOfs.toString(2));
 
 		oneOfs.forEach(oneOf -> {
 			if(oneOf instanceof JSONObject) {
@@ -868,7 +872,7 @@ public class Node implements Comparable<Object>  {
 	@LogMethod(level=LogLevel.DEBUG)
 	private void addAllOfs(JSONArray allOfs, Property.Visibility visibility) {
 		
-		LOG.debug("###### addAllOfs: node={} addAllOfs={}", this, allOfs.toString(2));
+		if(LOG.isDebugEnabled()) LOG.debug("###### addAllOfs: node={} addAllOfs={}", this, allOfs.toString(2));
 
 		allOfs.forEach(allOf -> {
 			if(allOf instanceof JSONObject) {
@@ -884,7 +888,7 @@ public class Node implements Comparable<Object>  {
 		
 		LOG.debug("####### addAllOfs: node={} definition={}", this, definition);
 
-		LOG.debug("addAllOfs: node={} EXPAND_ALL_PROPERTIES_FROM_ALLOFS={} EXPAND_INHERITED={} INCLUDE_INHERITED={}", 
+		if(LOG.isDebugEnabled()) LOG.debug("addAllOfs: node={} EXPAND_ALL_PROPERTIES_FROM_ALLOFS={} EXPAND_INHERITED={} INCLUDE_INHERITED={}", 
 				this, 
 				Config.getBoolean(EXPAND_ALL_PROPERTIES_FROM_ALLOFS),
 				Config.getBoolean(EXPAND_INHERITED),
@@ -1045,7 +1049,7 @@ public class Node implements Comparable<Object>  {
 		List<Property> res = new LinkedList<>();
 		List<Node> related = graph.edgesOf(this).stream().filter(Edge::isAllOf).map(e->e.related).toList();
 		
-		LOG.debug("getInheritedProperties:: node={} edges={}", this.getName(), graph.edgesOf(this));
+		if(LOG.isDebugEnabled()) LOG.debug("getInheritedProperties:: node={} edges={}", this.getName(), graph.edgesOf(this));
 		LOG.debug("getInheritedProperties:: node={} related={}", this.getName(), related);
 		
 		related.forEach(n -> {
@@ -1075,7 +1079,7 @@ public class Node implements Comparable<Object>  {
 	
 	public int hashCode() {
 		int res = this.resource.hashCode();
-		LOG.trace("Node::hashCode: node=" + this.toString() + " res=" + res);
+		if(LOG.isTraceEnabled()) LOG.trace("Node::hashCode: node={} res={}", this, res);
 
 		return res;
 	}
@@ -1085,7 +1089,7 @@ public class Node implements Comparable<Object>  {
 		if(obj instanceof Node) {
 			res = ((Node) obj).getName().contentEquals(this.getName());
 		} 
-		LOG.trace("Node::equals: node=" + this.toString() + " obj=" + obj + " res=" + res);
+		if(LOG.isTraceEnabled()) LOG.trace("Node::equals: node={} obj={} res={}", this, obj, res);
 		return res;
 	}
 	
@@ -1126,15 +1130,11 @@ public class Node implements Comparable<Object>  {
 	@LogMethod(level=LogLevel.DEBUG)
 	public boolean isSimpleType(String type) {
 		
-		List<String> simpleEndings = Config.getSimpleEndings();
-				
-		boolean simpleEnding = simpleEndings.stream().anyMatch(type::endsWith);
-		
-		return  simpleEnding 
+		return  Config.hasSimpleEnding(type) 
 				|| APIModel.isSpecialSimpleType(type) 
 				|| APIModel.isSimpleType(type) 
-				|| Config.getSimpleTypes().contains(type) 
-				|| Config.getCustomSimpleTypes().contains(type) 
+				|| Config.isSimpleType(type) 
+				|| Config.isCustomSimpleType(type) 
 				|| APIModel.isEnumType(type);
 		
 	}
@@ -1274,7 +1274,7 @@ public class Node implements Comparable<Object>  {
 	}
 	
 	static private Node getNodeByName(String node) {
-		return nodeMap.get(node);
+		return nodeMap().get(node);
 	}
 
 	public void clearInheritedDiscriminatorMapping() {
@@ -1318,15 +1318,15 @@ public class Node implements Comparable<Object>  {
 	public void updatePropertiesFromFVO() {
 		String fvoName = this.getName() + "_FVO";
 		
-		Set<String> fvoNames = nodeMap.keySet().stream().filter(s -> s.startsWith(fvoName)).collect(toSet());
+		Set<String> fvoNames = nodeMap().keySet().stream().filter(s -> s.startsWith(fvoName)).collect(toSet());
 		
 		if(fvoNames.isEmpty()) return;
 		
 		LOG.debug("updatePropertiesFromFVO: node={} fvoNames={}",  this.getName(), fvoNames );
 
 		fvoNames.forEach(fvo -> {
-			if(!nodeMap.containsKey(fvo)) return;
-			Node fvoNode = nodeMap.get(fvo);
+			if(!nodeMap().containsKey(fvo)) return;
+			Node fvoNode = nodeMap().get(fvo);
 				
 			List<Property> requiredProperties = fvoNode.getProperties().stream().filter(Property::isRequired).toList();
 
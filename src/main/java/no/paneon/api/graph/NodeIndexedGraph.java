@@ -0,0 +1,13 @@
+package no.paneon.api.graph;
+
+import org.jgrapht.Graph;
+
+/*
+ * A graph of nodes which maintains a name -> node index of its vertices.
+ * Used by CoreAPIGraph.getNodeByName to avoid scanning the vertex set.
+ */
+public interface NodeIndexedGraph extends Graph<Node,Edge> {
+
+	Node getIndexedNode(String name);
+
+}
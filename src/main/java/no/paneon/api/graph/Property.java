@@ -108,14 +108,10 @@ public class Property implements Comparable<Property> {
 	@LogMethod(level=LogLevel.DEBUG)
 	public boolean isSimpleType() {
 				
-		List<String> simpleEndings = Config.getSimpleEndings();
-				
-		boolean simpleEnding = simpleEndings.stream().anyMatch(ending -> type.endsWith(ending));
-		
-		return  simpleEnding 
+		return  Config.hasSimpleEnding(type) 
 				|| APIModel.isSpecialSimpleType(type) 
 				|| APIModel.isSimpleType(type) 
-				|| Config.getSimpleTypes().contains(type) 
+				|| Config.isSimpleType(type) 
 				|| APIModel.isEnumType(type);
 		
 	}
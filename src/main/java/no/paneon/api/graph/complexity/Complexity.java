@@ -82,7 +82,7 @@ public class Complexity {
 		
 		int complexityContribution = 0;
 		
-		LOG.debug("computeComplexityContribution: node=" + node );
+		LOG.debug("computeComplexityContribution: node={}", node);
 
 		if(shortest>PATH_LENGTH_THRESHOLD) {
 			Set<Node> subGraph = CoreAPIGraph.getSubGraphNodes(graph, node);
@@ -91,7 +91,7 @@ public class Complexity {
 
 			Set<Node> outboundNonLeafs = outbound.stream().filter(n -> !graph.outgoingEdgesOf(n).isEmpty()).collect(toSet());
 			
-			LOG.debug("computeComplexityContribution: node=" + node + " outboundNonLeafs=" + outboundNonLeafs);
+			LOG.debug("computeComplexityContribution: node={} outboundNonLeafs={}", node, outboundNonLeafs);
 			
 			if(outboundNonLeafs.size()>1) {
 				
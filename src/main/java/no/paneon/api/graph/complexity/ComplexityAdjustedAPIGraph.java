@@ -9,6 +9,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 
 import static java.util.stream.Collectors.toList;
@@ -28,6 +33,7 @@ import no.paneon.api.graph.Edge;
 import no.paneon.api.graph.Node;
 import no.paneon.api.graph.Property;
 import no.paneon.api.model.APIModel;
+import no.paneon.api.model.APIModelContext;
 import no.paneon.api.utils.Config;
 import no.paneon.api.utils.Out;
 import no.paneon.api.utils.Utils;
@@ -66,13 +72,79 @@ public class ComplexityAdjustedAPIGraph {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public void generateSubGraphsForResource(List<String> allResources, String resource) {
-	    LOG.debug("### generateSubGraphsForResource: resource=" + resource);
+	    LOG.debug("### generateSubGraphsForResource: resource={}", resource);
+
+	    Map<String,Graph<Node,Edge>> graphMap = createSubGraphsForResource(allResources, resource);
+	    
+	    if(graphMap==null) return;
+
+	    this.allGraphs = new HashMap<>();
+	    this.allGraphs.put(resource, graphMap);
+	    	    
+	    LOG.debug("### generateSubGraphsForResource: resource={} allGraphs={}", resource, this.allGraphs.keySet());
+	    
+	    for(String node : this.allGraphs.get(resource).keySet()) {
+		    LOG.debug("### generateSubGraphsForResource: resource={} node={} nodes={}", resource, node, this.allGraphs.get(resource).get(node).vertexSet());
+	    }
+
+	}
+	
+	public Map<String, Map<String,Graph<Node,Edge>>> generateSubGraphsForResources(List<String> allResources, Collection<String> resources) {
+		return generateSubGraphsForResources(allResources, resources, ForkJoinPool.commonPool());
+	}
+
+	/*
+	 * Generates the sub-graphs of the resources concurrently, one task per resource on the executor 
+	 * (e.g. a fork-join pool or a virtual thread per task executor). The complete graph and the nodes are 
+	 * only read, and the tasks run with the API model context of the caller.
+	 * 
+	 * Resources not found in the API are not part of the result. 
+	 */
+	@LogMethod(level=LogLevel.DEBUG)
+	public Map<String, Map<String,Graph<Node,Edge>>> generateSubGraphsForResources(List<String> allResources, Collection<String> resources, ExecutorService executor) {
+		
+		APIModelContext context = APIModel.getContext();
+		
+		Map<String, Future<Map<String,Graph<Node,Edge>>>> tasks = new LinkedHashMap<>();
+		for(String resource : resources) {
+			tasks.put(resource, executor.submit(() -> APIModel.withContext(context, () -> createSubGraphsForResource(allResources, resource))));
+		}
+		
+		Map<String, Map<String,Graph<Node,Edge>>> res = new LinkedHashMap<>();
+		
+		for(Entry<String, Future<Map<String,Graph<Node,Edge>>>> task : tasks.entrySet()) {
+			Map<String,Graph<Node,Edge>> graphMap = waitFor(task.getKey(), task.getValue());
+			if(graphMap!=null) res.put(task.getKey(), graphMap);
+		}
+		
+	    LOG.debug("### generateSubGraphsForResources: resources={} allGraphs={}", resources, res.keySet());
+
+		this.allGraphs = res;
+		
+		return res;
+	}
+
+	private Map<String,Graph<Node,Edge>> waitFor(String resource, Future<Map<String,Graph<Node,Edge>>> task) {
+		try {
+			return task.get();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while generating sub-graphs for " + resource, e);
+		} catch(ExecutionException e) {
+			Throwable cause = e.getCause();
+			if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if(cause instanceof Error) throw (Error) cause;
+			throw new IllegalStateException("unable to generate sub-graphs for " + resource, cause);
+		}
+	}
+	
+	private Map<String,Graph<Node,Edge>> createSubGraphsForResource(List<String> allResources, String resource) {
 
 	    Node resourceNode = graph.getNode(resource);
 	    
 	    if(resourceNode==null) {
 	    	Out.printAlways("# ... specified resource '" + resource + "' not found in API - no further processing");
-	    	return;
+	    	return null;
 	    }
 	    
 	    Graph<Node,Edge> resourceGraph = CoreAPIGraph.getSubGraphWithInheritance(allResources, graph.getCompleteGraph(), resourceNode, resourceNode);
@@ -80,7 +152,7 @@ public class ComplexityAdjustedAPIGraph {
 		LOG.debug("###### generateSubGraphsForResource: #0 nodes={}", graph.getCompleteGraph().vertexSet() );
 		LOG.debug("###### generateSubGraphsForResource: #0 edges={}", graph.getCompleteGraph().edgeSet() );
 
-		LOG.debug("###### generateSubGraphsForResource: #0 node={} edgesForResourceNode={}",  resource, resourceGraph.edgesOf(resourceNode));
+		if(LOG.isDebugEnabled()) LOG.debug("###### generateSubGraphsForResource: #0 node={} edgesForResourceNode={}",  resource, resourceGraph.edgesOf(resourceNode));
 
 		LOG.debug("generateSubGraphsForResource:: #1 resource={} resourceGraph={}",  resource, resourceGraph.vertexSet() );
 		
@@ -91,11 +163,11 @@ public class ComplexityAdjustedAPIGraph {
 
 		LOG.debug("generateSubGraphsForResource:: #1 resource={} resourceGraph={}",  resource, resourceGraph.vertexSet() );
 
-		LOG.debug("###### generateSubGraphsForResource: #0 node={} edgesForResourceNode={}",  resource, resourceGraph.edgesOf(resourceNode));
+		if(LOG.isDebugEnabled()) LOG.debug("###### generateSubGraphsForResource: #0 node={} edgesForResourceNode={}",  resource, resourceGraph.edgesOf(resourceNode));
 
 		LOG.debug("generateSubGraphsForResource:: #2 resource={} resourceGraph={}",  resource, resourceGraph.vertexSet() );
 
-		LOG.debug("generateSubGraphsForResource:: resource={} resourceGraph={}",  resource, resourceGraph.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
+		if(LOG.isDebugEnabled()) LOG.debug("generateSubGraphsForResource:: resource={} resourceGraph={}",  resource, resourceGraph.edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n")));
 
 	    LOG.debug("### generateSubGraphsForResource: resource={} complete vertices={}", resource, graph.getCompleteGraph().vertexSet());
 
@@ -107,13 +179,7 @@ public class ComplexityAdjustedAPIGraph {
 	    if(graphMap.containsKey(resource))
 	    	LOG.debug("### generateSubGraphsForResource: resource={} graphMap={}", resource, graphMap.get(resource).vertexSet());
 
-	    this.allGraphs = adjustSubGraphs(allResources, resourceNode, resourceGraph, graphMap);
-	    	    
-	    LOG.debug("### generateSubGraphsForResource: resource={} allGraphs={}", resource, this.allGraphs.keySet());
-	    
-	    for(String node : this.allGraphs.get(resource).keySet()) {
-		    LOG.debug("### generateSubGraphsForResource: resource={} node={} nodes={}", resource, node, this.allGraphs.get(resource).get(node).vertexSet());
-	    }
+	    return adjustSubGraphs(allResources, resourceNode, resourceGraph, graphMap).get(resource);
 
 	}
 	
@@ -125,7 +191,7 @@ public class ComplexityAdjustedAPIGraph {
 		LOG.debug("createSubGraphsGraphFromComplexity: #0 node={} resourceGraph={}",  resource, resourceGraph.vertexSet());
 		LOG.debug("createSubGraphsGraphFromComplexity: #0 node={} resourceGraph={}",  resource, resourceGraph.vertexSet().size());
 
-		LOG.debug("###### createSubGraphsGraphFromComplexity: #0 node={} edgesForResourceNode={}",  resource, resourceGraph.edgesOf(resourceNode));
+		if(LOG.isDebugEnabled()) LOG.debug("###### createSubGraphsGraphFromComplexity: #0 node={} edgesForResourceNode={}",  resource, resourceGraph.edgesOf(resourceNode));
 
 		// remove the other resources in allResources
 		
@@ -917,7 +983,7 @@ public class ComplexityAdjustedAPIGraph {
       		if(!node.equals(pivot) && baseTypes.contains(node)) {
       			Set<Edge> edgesToRemove = graph.outgoingEdgesOf(node);
       			
-      			LOG.debug("complexityAdjustedGraph:: remove edges={}",  edgesToRemove.stream().map(Object::toString).collect(Collectors.joining("\n")));
+      			if(LOG.isDebugEnabled()) LOG.debug("complexityAdjustedGraph:: remove edges={}",  edgesToRemove.stream().map(Object::toString).collect(Collectors.joining("\n")));
       			
       			graph.removeAllEdges(edgesToRemove);
       		}
@@ -1026,7 +1092,7 @@ public class ComplexityAdjustedAPIGraph {
 	}
 
 	public void generateSubGraphsFromConfig(List<String> allResources, String resource, List<String> subGraphsForResource) {
-	    LOG.debug("### generateSubGraphsFromConfig: resource=" + resource);
+	    LOG.debug("### generateSubGraphsFromConfig: resource={}", resource);
 
 	    Node resourceNode = graph.getNode(resource);
 	    
@@ -1073,15 +1139,15 @@ public class ComplexityAdjustedAPIGraph {
 	    	    	    
 	    res.put(resource, graphMap);
 	    
-	    for(String key : graphMap.keySet()) { LOG.debug(" before prune ... {} :: {}", key, graphMap.get(key).vertexSet()); }
+	    if(LOG.isDebugEnabled()) for(String key : graphMap.keySet()) { LOG.debug(" before prune ... {} :: {}", key, graphMap.get(key).vertexSet()); }
 
 	    pruneSubGraphsFromContainingGraphs(resource, graphMap);
 
-	    for(String key : graphMap.keySet()) { LOG.debug(" before remove ... {} :: {}", key, graphMap.get(key).vertexSet()); }
+	    if(LOG.isDebugEnabled()) for(String key : graphMap.keySet()) { LOG.debug(" before remove ... {} :: {}", key, graphMap.get(key).vertexSet()); }
 
 	    removeSubGraphsCoveredByContainingGraph(allResources, resource, graphMap);
 	    
-	    for(String key : graphMap.keySet()) { LOG.debug(" after remove ... {} :: {}", key, graphMap.get(key).edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n...")) ); }
+	    if(LOG.isDebugEnabled()) for(String key : graphMap.keySet()) { LOG.debug(" after remove ... {} :: {}", key, graphMap.get(key).edgeSet().stream().map(Object::toString).collect(Collectors.joining("\n...")) ); }
 	    
 	    removeDisjointSubgraphs(allResources, resource, graphMap);
 
@@ -1093,7 +1159,7 @@ public class ComplexityAdjustedAPIGraph {
     
 	    LOG.debug("adjustSubGraphs: #2 resource={} final graphMap={}", resource, graphMap.keySet());
 	    
-	    for(String key : graphMap.keySet()) { LOG.debug(" ... {} :: \n...{}", key, graphMap.get(key).vertexSet().stream().map(Node::getName).collect(Collectors.joining("\n...")) ); }
+	    if(LOG.isDebugEnabled()) for(String key : graphMap.keySet()) { LOG.debug(" ... {} :: \n...{}", key, graphMap.get(key).vertexSet().stream().map(Node::getName).collect(Collectors.joining("\n...")) ); }
 	    
 	    return res;
 	    
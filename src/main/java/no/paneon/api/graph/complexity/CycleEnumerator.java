@@ -0,0 +1,235 @@
+package no.paneon.api.graph.complexity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.alg.connectivity.BiconnectivityInspector;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleGraph;
+import org.jgrapht.traverse.BreadthFirstIterator;
+
+import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.Node;
+import no.paneon.api.utils.Config;
+import no.paneon.api.utils.Out;
+
+/*
+ * Enumeration of the circles (elementary cycles) in the undirected neighbourhood of a graph.
+ *
+ * Enum nodes, self references and parallel edges are not part of any circle. A circle is contained
+ * in one biconnected component (block), so the search is done block by block. Within a block every circle
+ * is found once (Johnson style): rooted at its lowest ranked node and in one direction only.
+ * Nodes are ranked by breadth first order from the start node.
+ *
+ * Circles with the same set of nodes are considered the same circle. The length (number of nodes) and
+ * the number of circles are bounded by the configuration properties maxCycleLength and maxCycleCount
+ * (0 is unbounded). A warning is printed when a bound leaves out circles.
+ *
+ * Used by GraphAlgorithms.cyclicAllCycles when enumerateAllCycles is configured.
+ */
+public class CycleEnumerator {
+
+	static final Logger LOG = LogManager.getLogger(CycleEnumerator.class);
+
+	static final String MAX_CYCLE_LENGTH = "maxCycleLength";
+	static final String MAX_CYCLE_COUNT = "maxCycleCount";
+
+	static final int DEFAULT_MAX_CYCLE_LENGTH = 12;
+	static final int DEFAULT_MAX_CYCLE_COUNT = 1000;
+
+	private final int maxLength;
+	private final int maxCount;
+
+	private final List<List<Node>> cycles = new ArrayList<>();
+	private final Set<Set<Node>> found = new HashSet<>();
+
+	private boolean truncated = false;
+	private boolean lengthLimited = false;
+
+	public CycleEnumerator() {
+		this(Config.getInteger(MAX_CYCLE_LENGTH, DEFAULT_MAX_CYCLE_LENGTH), Config.getInteger(MAX_CYCLE_COUNT, DEFAULT_MAX_CYCLE_COUNT));
+	}
+
+	public CycleEnumerator(int maxLength, int maxCount) {
+		this.maxLength = maxLength>0 ? maxLength : Integer.MAX_VALUE;
+		this.maxCount = maxCount>0 ? maxCount : Integer.MAX_VALUE;
+	}
+
+	/*
+	 * true if circles are left out by one of the bounds
+	 */
+	public boolean isTruncated() {
+		return this.truncated || this.lengthLimited;
+	}
+
+	/*
+	 * Returns the circles sorted by size, each as a closed path (first node repeated at the end)
+	 */
+	public List<List<Node>> enumerate(Graph<Node,Edge> graph, Node startNode) {
+
+		if(!graph.containsVertex(startNode)) {
+			LOG.debug("... cycle identifier: start node {} missing in graph {}",  startNode, graph.vertexSet());
+			return cycles;
+		}
+
+		Map<Node,Integer> rank = rankNodes(graph, startNode);
+
+		Graph<Node,DefaultEdge> undirected = new SimpleGraph<>(DefaultEdge.class);
+		rank.keySet().forEach(undirected::addVertex);
+
+		for(Node node : rank.keySet()) {
+			for(Edge edge : graph.outgoingEdgesOf(node)) {
+				Node target = graph.getEdgeTarget(edge);
+				if(!target.equals(node) && rank.containsKey(target)) undirected.addEdge(node, target);
+			}
+		}
+
+		List<Graph<Node,DefaultEdge>> blocks = new ArrayList<>(new BiconnectivityInspector<>(undirected).getBlocks());
+		blocks.removeIf(block -> block.vertexSet().size()<3);
+		blocks.sort(Comparator.comparing(block -> block.vertexSet().stream().mapToInt(rank::get).min().orElse(0)));
+
+		for(Graph<Node,DefaultEdge> block : blocks) {
+			if(this.truncated) break;
+			enumerateBlock(block, rank);
+		}
+
+		if(this.truncated) {
+			Out.printOnce("... number of circles limited to {} (start node {}, see {})", this.maxCount, startNode, MAX_CYCLE_COUNT);
+		}
+		if(this.lengthLimited) {
+			Out.printOnce("... circles with more than {} nodes not included (start node {}, see {})", this.maxLength, startNode, MAX_CYCLE_LENGTH);
+		}
+
+		this.cycles.sort(GraphAlgorithms::compareBySize);
+
+		return this.cycles;
+	}
+
+	/*
+	 * Breadth first order from the start node (following the edge direction), extended with the
+	 * remaining (non enum) nodes connected in the undirected neighbourhood
+	 */
+	private Map<Node,Integer> rankNodes(Graph<Node,Edge> graph, Node startNode) {
+		Set<Node> order = new LinkedHashSet<>();
+
+		BreadthFirstIterator<Node,Edge> iterator = new BreadthFirstIterator<>(graph, startNode);
+		while(iterator.hasNext()) order.add(iterator.next());
+
+		Deque<Node> queue = new ArrayDeque<>(order);
+		while(!queue.isEmpty()) {
+			Node node = queue.poll();
+			for(Node neighbour : Graphs.neighborSetOf(graph, node)) {
+				if(!neighbour.isEnumNode() && order.add(neighbour)) queue.add(neighbour);
+			}
+		}
+
+		Map<Node,Integer> rank = new HashMap<>();
+		for(Node node : order) {
+			if(!node.isEnumNode()) rank.put(node, rank.size());
+		}
+
+		return rank;
+	}
+
+	private void enumerateBlock(Graph<Node,DefaultEdge> block, Map<Node,Integer> rank) {
+
+		Node[] nodes = block.vertexSet().toArray(new Node[0]);
+		Arrays.sort(nodes, Comparator.comparing(rank::get));
+
+		Map<Node,Integer> index = new HashMap<>();
+		for(int i=0; i<nodes.length; i++) index.put(nodes[i], i);
+
+		int[][] adjacent = new int[nodes.length][];
+		for(int i=0; i<nodes.length; i++) {
+			adjacent[i] = Graphs.neighborListOf(block, nodes[i]).stream().mapToInt(index::get).sorted().toArray();
+		}
+
+		int[] path = new int[nodes.length];
+		boolean[] onPath = new boolean[nodes.length];
+		int[] distance = new int[nodes.length];
+
+		for(int root=0; root<nodes.length-2 && !this.truncated; root++) {
+			distancesToRoot(adjacent, root, distance);
+
+			path[0] = root;
+			onPath[root] = true;
+			search(nodes, adjacent, distance, path, 1, onPath);
+			onPath[root] = false;
+		}
+	}
+
+	/*
+	 * Unit weight distances to the root, using only the nodes ranked after the root
+	 */
+	private void distancesToRoot(int[][] adjacent, int root, int[] distance) {
+		Arrays.fill(distance, Integer.MAX_VALUE);
+		distance[root] = 0;
+
+		int[] queue = new int[adjacent.length];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = root;
+
+		while(head<tail) {
+			int node = queue[head++];
+			for(int neighbour : adjacent[node]) {
+				if(neighbour>root && distance[neighbour]==Integer.MAX_VALUE) {
+					distance[neighbour] = distance[node]+1;
+					queue[tail++] = neighbour;
+				}
+			}
+		}
+	}
+
+	private void search(Node[] nodes, int[][] adjacent, int[] distance, int[] path, int length, boolean[] onPath) {
+		int root = path[0];
+		int last = path[length-1];
+
+		for(int next : adjacent[last]) {
+			if(this.truncated) return;
+
+			if(next==root) {
+				// each circle in one direction only: the second node ranked before the last node
+				if(length>=3 && path[1]<last) addCycle(nodes, path, length);
+
+			} else if(next>root && !onPath[next] && distance[next]!=Integer.MAX_VALUE) {
+				if(length + distance[next] > this.maxLength) {
+					this.lengthLimited = true;
+					continue;
+				}
+				path[length] = next;
+				onPath[next] = true;
+				search(nodes, adjacent, distance, path, length+1, onPath);
+				onPath[next] = false;
+			}
+		}
+	}
+
+	private void addCycle(Node[] nodes, int[] path, int length) {
+		List<Node> cycle = new ArrayList<>(length+1);
+		for(int i=0; i<length; i++) cycle.add(nodes[path[i]]);
+
+		if(this.found.add(new HashSet<>(cycle))) {
+			cycle.add(nodes[path[0]]);
+			this.cycles.add(cycle);
+
+			LOG.debug("CycleEnumerator: cycle={}", cycle);
+
+			if(this.cycles.size()>=this.maxCount) this.truncated = true;
+		}
+	}
+
+}
@@ -2,28 +2,26 @@ package no.paneon.api.graph.complexity;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 import java.util.stream.Collectors;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
 import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.IndexedSubgraph;
 import no.paneon.api.graph.Node;
 import no.paneon.api.logging.LogMethod;
+import no.paneon.api.utils.Config;
 import no.paneon.api.utils.Out;
 import no.paneon.api.logging.AspectLogger.LogLevel;
 
 import org.apache.logging.log4j.Logger;
 import org.jgrapht.Graph;
-import org.jgrapht.graph.AsSubgraph;
 import org.jgrapht.traverse.BreadthFirstIterator;
 import org.jgrapht.traverse.GraphIterator;
 import org.apache.logging.log4j.LogManager;
@@ -32,10 +30,7 @@ public class GraphAlgorithms {
 
     static final Logger LOG = LogManager.getLogger(GraphAlgorithms.class);
 
-	Set<Node> settledNodes;
-	Set<Node> unSettledNodes;
-
-	Map<Node,Node> predecessors;
+    static final String ENUMERATE_ALL_CYCLES = "enumerateAllCycles";
 
 	Graph<Node,Edge> graph;
 	Node resource;
@@ -45,122 +40,16 @@ public class GraphAlgorithms {
 		this.graph = graph;
 		this.resource = resource;
 		
-		this.settledNodes = new HashSet<>();
-		this.unSettledNodes = new HashSet<>();
-
-		this.predecessors = new HashMap<>();
-
 	}
 
 	@LogMethod(level=LogLevel.DEBUG)
 	Map<Node,Integer> computeShortestPath() {
-
-		Map<Node,Integer> distance = new HashMap<>();
-
-		for(Node node : graph.vertexSet() ) {
-			distance.put(node,  Integer.MAX_VALUE);
-		}
-		
-		unSettledNodes.add(resource); 
-		distance.put(resource,  0);
-
-		while (!unSettledNodes.isEmpty() ) {
-			Node pivot = getNodeWithShortestDistance(distance, unSettledNodes);
-
-			unSettledNodes.remove(pivot); 
-			settledNodes.add(pivot); 
-
-			evaluatedNeighbors(distance, pivot);
-		}
-
-		return distance;
-
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	private void evaluatedNeighbors(Map<Node,Integer> distance, Node pivot) {
-		Set<Node> neighbours = getOutboundNeighbours(pivot);
-		neighbours.removeAll(settledNodes);
-
-		for(Node candidate : neighbours) {
-			int candidateDistance = distance.get(pivot) + getDistance(pivot, candidate);
-			if(!distance.containsKey(candidate) || (candidateDistance < distance.get(candidate)) ) {
-				distance.put(candidate, candidateDistance);
-				predecessors.put(candidate, pivot);
-				unSettledNodes.add(candidate);
-			}  
-
-		}
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	private Integer getDistance(Node pivot, Node neighbour) {
-		Set<Node> neighbours = getOutboundNeighbours(pivot);
-		if(neighbours.contains(neighbour))
-			return 1;
-		else
-			return Integer.MAX_VALUE;
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	private Node getNodeWithShortestDistance(Map<Node,Integer> distance, Set<Node> nodes) {
-		Node res = null;
-		for (Node node : nodes) {
-			if (res == null) {
-				res = node;
-			} else if (distance.get(node) < distance.get(res)) {
-				res = node;
-			}
-		}
-		return res;
+		return PathAlgorithms.shortestPathLengths(this.graph, this.resource);
 	}
 
-
 	@LogMethod(level=LogLevel.DEBUG)
 	Map<Node,Integer> computeLongestPath() {
-		return computeLongestPath(resource, new HashSet<>());
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	Map<Node,Integer> computeLongestPath(Node pivot, Set<Node> visited) {
-
-		Set<Node> subGraph = getNodesOfSubGraph(this.graph, pivot);
-
-		Map<Node,Integer> distance = new HashMap<>();
-
-		for(Node node : subGraph) distance.put(node, Integer.MIN_VALUE);
-		distance.put(pivot,0);
-
-		Set<Node> neighbours = getOutboundNeighbours(pivot);
-
-		neighbours.retainAll(visited);
-
-		for(Node node : neighbours) {
-			distance.put(node, distance.get(node) + 1);
-		}
-
-		neighbours = getOutboundNeighbours(pivot);
-		neighbours.removeAll(visited);
-
-		for(Node node : neighbours) {
-
-			visited.add(node);
-
-			Map<Node,Integer> longestPathsFromNeighbour = computeLongestPath(node, visited); 
-			for(Entry<Node, Integer> entry : longestPathsFromNeighbour.entrySet()) {
-
-				Node seen = entry.getKey();
-				Integer candidateLongest = entry.getValue();
-
-				if(!distance.containsKey(seen) || candidateLongest > distance.get(seen)) {
-					distance.put(seen, candidateLongest + 1);
-				}
-			}
-
-		}
-
-		return distance;
-
+		return PathAlgorithms.longestPathLengths(this.graph, this.resource);
 	}
 
 //	@LogMethod(level=LogLevel.DEBUG)
@@ -237,7 +126,7 @@ public class GraphAlgorithms {
 	public static Graph<Node,Edge> getSubGraph(Graph<Node,Edge> graph, Node node) {
 		Set<Node> nodes = getNodesOfSubGraph(graph, node);		
 		
-		return new AsSubgraph<>(graph, nodes);
+		return new IndexedSubgraph(graph, nodes);
 	}
 	
 	@LogMethod(level=LogLevel.DEBUG)
@@ -248,7 +137,7 @@ public class GraphAlgorithms {
 			
 		for(Node neighbour : neighbours) {
 			Set<Node> sub = getNodesOfSubGraph(graph, neighbour);
-			Graph<Node,Edge> subGraph = new AsSubgraph<>(graph, sub);
+			Graph<Node,Edge> subGraph = new IndexedSubgraph(graph, sub);
 			res.put(node,  subGraph);
 		}
 		
@@ -346,7 +235,7 @@ public class GraphAlgorithms {
 					path.remove(neighbour);
 	            } else if (path.get(0).equals(neighbour) && !neighbour.equals(parent)) {
 					path.add(neighbour);
-	                LOG.debug("cycleUtil: found cycle node=" + node + " path=" + path + " neighbour=" + neighbour + " parent=" + parent);
+	                LOG.debug("cycleUtil: found cycle node={} path={} neighbour={} parent={}", node, path, neighbour, parent);
 	                return path; 
 	            }
 	        } 
@@ -354,115 +243,87 @@ public class GraphAlgorithms {
         return new LinkedList<>(); 
     } 
   
+	/*
+	 * The circles found by a depth first search from each node (in breadth first order from the start node).
+	 * With the configuration property enumerateAllCycles all circles are enumerated by CycleEnumerator.
+	 */
 	@LogMethod(level=LogLevel.DEBUG)
     public static List<List<Node>>  cyclicAllCycles(Graph<Node,Edge> graph, Node startNode) 
     { 
+		if(Config.getBoolean(ENUMERATE_ALL_CYCLES)) {
+			return new CycleEnumerator().enumerate(graph, startNode);
+		}
+
 		List<List<Node>> cycles = new ArrayList<>();
-		List<Node> path = new ArrayList<>();		
-		Set<Node> visited = new HashSet<>();		
+		Set<Set<Node>> found = new HashSet<>();
+		List<Node> path = new ArrayList<>();
+		Set<Node> onPath = new HashSet<>();
+		Set<Node> visited = new HashSet<>();
 
-		boolean startNodeInGraph = graph.vertexSet().contains(startNode);
-		
-		if(!startNodeInGraph) {
+		if(!graph.containsVertex(startNode)) {
 			LOG.debug("... cycle identifier: start node {} missing in graph {}",  startNode, graph.vertexSet());
 			return cycles;
 		}
-		
+
 		BreadthFirstIterator<Node,Edge> iterator = new BreadthFirstIterator<>(graph, startNode);
-		
+
 		while(iterator.hasNext()) {
 			Node node = iterator.next();
-			
-			// TBD
-			// if(visited.contains(node)) continue;
+
 			visited.clear();
-			
-			path.add(node);
-			cyclicUtilAllCycles(graph, node, path, node, cycles, visited);
-			path.remove(node);
 
+			path.add(node);
+			onPath.add(node);
+			cyclicUtilAllCycles(graph, node, path, onPath, node, cycles, found, visited);
+			onPath.remove(node);
+			path.remove(path.size()-1);
 		}
-		
-		cycles.sort(GraphAlgorithms::compareBySize); 
-		
-		return cycles; 
+
+		cycles.sort(GraphAlgorithms::compareBySize);
+
+		return cycles;
     } 
-	
-	
-	public static int compareBySize(Collection<?> coll1, Collection<?> coll2) { 
-		return coll1.size() - coll2.size();
-	}
-	
-	@LogMethod(level=LogLevel.DEBUG)
-    private static List<List<Node>> cyclicUtilAllCycles(Graph<Node,Edge> graph, Node node, List<Node> path, Node parent, List<List<Node>> foundCycles, Set<Node> visited) 
+
+	/*
+	 * Circles with the same set of nodes are the same circle, only the first one found is kept
+	 */
+    private static void cyclicUtilAllCycles(Graph<Node,Edge> graph, Node node, List<Node> path, Set<Node> onPath, Node parent, 
+    										List<List<Node>> cycles, Set<Set<Node>> found, Set<Node> visited) 
     {   
         Set<Node> neighbours = getNeighbours(graph, node).stream()
         						.filter(n -> !n.equals(node))
         						.collect(toSet());
-        
-        
-        LOG.debug("cyclicUtilAllCycles: node={} neighbours={} #path={}", node, neighbours, path.size());
-        if(!foundCycles.isEmpty()) {
-        	foundCycles.forEach(cycle -> LOG.debug("cyclicUtilAllCycles: node={} cycle={}", node, cycle));
-        }
-        
+
         for(Node neighbour : neighbours) {
-        	
-	        LOG.debug("cyclicUtilAllCycles: node={} neighbour={}", node, neighbour);
 
-        	if(neighbour.isEnumNode() || neighbour.equals(parent) || (true && visited.contains(neighbour))) continue;
+        	if(neighbour.isEnumNode() || neighbour.equals(parent) || visited.contains(neighbour)) continue;
 
         	visited.add(neighbour);
 
-        	if (path.contains(neighbour)) {
-				List<Node> circle = getCircle(path, neighbour);
-				
-		        LOG.debug("cyclicUtilAllCycles: node={} circle={}", node, circle);
-
-				if(!isCycleAlreadyFound(foundCycles,circle)) {
-					
-			        LOG.debug("cyclicUtilAllCycles: node={} NEW circle={}", node, circle);
-
-					foundCycles.add(circle);
-				}
-                // visited.add(neighbour);
-                
-            } else {        	
-	        	path.add(neighbour);
-                // visited.add(neighbour);
-	        	cyclicUtilAllCycles(graph, neighbour, path, node, foundCycles, visited);
-	        	path.remove(neighbour);
-            }
+        	if(onPath.contains(neighbour)) {
+        		List<Node> circle = new ArrayList<>(path.subList(path.lastIndexOf(neighbour), path.size()));
+        		circle.add(neighbour);
+
+        		if(found.add(new HashSet<>(circle))) {
+        			LOG.debug("cyclicUtilAllCycles: node={} circle={}", node, circle);
+        			cycles.add(circle);
+        		}
+
+        	} else {
+        		path.add(neighbour);
+        		onPath.add(neighbour);
+        		cyclicUtilAllCycles(graph, neighbour, path, onPath, node, cycles, found, visited);
+        		onPath.remove(neighbour);
+        		path.remove(path.size()-1);
+        	}
         } 
-        
-        LOG.debug("cyclicUtilAllCycles: node={} foundCycles={}", node, foundCycles);
-
-        return foundCycles; 
     } 
-  
-	private static boolean isCycleAlreadyFound(List<List<Node>> foundCycles, List<Node> circle) {
-		return foundCycles.stream().anyMatch( cycle -> cycle.containsAll(circle) && circle.containsAll(cycle));
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-    private static List<Node> getCircle(List<Node> path, Node start) {
-		List<Node> res = new LinkedList<>();
-
-		if(path.contains(start)) {
-			// iterate from end of path until the 'start' node is found
-			ListIterator<Node> iterator = path.listIterator(path.size());
-			boolean done=false;
-			while(!done && iterator.hasPrevious()) {
-				Node item = iterator.previous();
-				res.add(item);
-				done = item.equals(start);
-			}
-			Collections.reverse(res);
-			res.add(start);			
-		}		
-		return res;
+	
+	
+	public static int compareBySize(Collection<?> coll1, Collection<?> coll2) { 
+		return coll1.size() - coll2.size();
 	}
-
+	
 	public static Map<Integer, List<List<Node>> > getCirclesForNode(List<List<Node>> circles, Node node) {
 		return circles.stream().filter(circle -> circle.contains(node)).collect(Collectors.groupingBy(List::size));
 	}
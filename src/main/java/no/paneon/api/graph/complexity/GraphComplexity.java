@@ -211,7 +211,7 @@ public class GraphComplexity {
 		
 		if(shortest>PATH_LENGTH_THRESHOLD || node.equals(this.resource)) {
 			
-			LOG.debug("computeComplexityContribution: node={} edges={}",  node, graph.edgesOf(node));
+			if(LOG.isDebugEnabled()) LOG.debug("computeComplexityContribution: node={} edges={}",  node, graph.edgesOf(node));
 
 			Set<Node> subGraph = CoreAPIGraph.getNodesOfSubGraph(graph, node);
 			
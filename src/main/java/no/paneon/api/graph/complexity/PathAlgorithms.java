@@ -1,12 +1,14 @@
 package no.paneon.api.graph.complexity;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
-import no.paneon.api.graph.CoreAPIGraph;
 import no.paneon.api.graph.Edge;
 import no.paneon.api.graph.Node;
 import no.paneon.api.logging.LogMethod;
@@ -14,17 +16,16 @@ import no.paneon.api.logging.AspectLogger.LogLevel;
 
 import org.apache.logging.log4j.Logger;
 import org.jgrapht.Graph;
+import org.jgrapht.alg.connectivity.GabowStrongConnectivityInspector;
 import org.apache.logging.log4j.LogManager;
 
+/*
+ * Path lengths from a resource, all edges have unit weight
+ */
 public class PathAlgorithms {
 
     static final Logger LOG = LogManager.getLogger(PathAlgorithms.class);
 
-	Set<Node> settledNodes;
-	Set<Node> unSettledNodes;
-
-	Map<Node,Node> predecessors;
-
 	Graph<Node,Edge> graph;
 	
 	Node resource;
@@ -34,125 +35,115 @@ public class PathAlgorithms {
 		this.graph = graph;
 		this.resource = resource;
 		
-		this.settledNodes = new HashSet<>();
-		this.unSettledNodes = new HashSet<>();
-
-		this.predecessors = new HashMap<>();
-
 	}
 
 	@LogMethod(level=LogLevel.DEBUG)
 	Map<Node,Integer> computeShortestPath() {
+		return shortestPathLengths(this.graph, this.resource);
+	}
+
+	@LogMethod(level=LogLevel.DEBUG)
+	Map<Node,Integer> computeLongestPath() {
+		return longestPathLengths(this.graph, this.resource);
+	}
+
+	/*
+	 * Breadth first distances from the source. Nodes not reachable from the source have distance Integer.MAX_VALUE
+	 */
+	public static Map<Node,Integer> shortestPathLengths(Graph<Node,Edge> graph, Node source) {
 
 		Map<Node,Integer> distance = new HashMap<>();
 
 		for(Node node : graph.vertexSet() ) {
 			distance.put(node,  Integer.MAX_VALUE);
 		}
-		
-		unSettledNodes.add(resource); 
-		distance.put(resource,  0);
 
-		while (!unSettledNodes.isEmpty() ) {
-			Node pivot = getNodeWithShortestDistance(distance, unSettledNodes);
+		if(!graph.containsVertex(source)) return distance;
 
-			unSettledNodes.remove(pivot); 
-			settledNodes.add(pivot); 
+		Deque<Node> queue = new ArrayDeque<>();
+		distance.put(source, 0);
+		queue.add(source);
 
-			evaluatedNeighbors(distance, pivot);
-		}
-
-		return distance;
-
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	private void evaluatedNeighbors(Map<Node,Integer> distance, Node pivot) {
-		Set<Node> neighbours = CoreAPIGraph.getOutboundNeighbours(graph,pivot);
-		neighbours.removeAll(settledNodes);
-
-		for(Node candidate : neighbours) {
-			int candidateDistance = distance.get(pivot) + getDistance(pivot, candidate);
-			if(!distance.containsKey(candidate) || (candidateDistance < distance.get(candidate)) ) {
-				distance.put(candidate, candidateDistance);
-				predecessors.put(candidate, pivot);
-				unSettledNodes.add(candidate);
-			}  
-
-		}
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	private Integer getDistance(Node pivot, Node neighbour) {
-		Set<Node> neighbours = CoreAPIGraph.getOutboundNeighbours(graph,pivot);
-		if(neighbours.contains(neighbour))
-			return 1;
-		else
-			return Integer.MAX_VALUE;
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	private Node getNodeWithShortestDistance(Map<Node,Integer> distance, Set<Node> nodes) {
-		Node res = null;
-		for (Node node : nodes) {
-			if (res == null) {
-				res = node;
-			} else if (distance.get(node) < distance.get(res)) {
-				res = node;
+		while(!queue.isEmpty()) {
+			Node node = queue.poll();
+			int next = distance.get(node) + 1;
+			for(Edge edge : graph.outgoingEdgesOf(node)) {
+				Node target = graph.getEdgeTarget(edge);
+				if(distance.get(target)==Integer.MAX_VALUE) {
+					distance.put(target, next);
+					queue.add(target);
+				}
 			}
 		}
-		return res;
-	}
 
+		return distance;
 
-	@LogMethod(level=LogLevel.DEBUG)
-	Map<Node,Integer> computeLongestPath() {
-		return computeLongestPath(resource, new HashSet<>());
 	}
 
-	@LogMethod(level=LogLevel.DEBUG)
-	Map<Node,Integer> computeLongestPath(Node pivot, Set<Node> visited) {
-
-		Set<Node> subGraph = CoreAPIGraph.getSubGraphNodes(graph, pivot);
+	/*
+	 * Longest path from the source to each reachable node, computed over the condensation of the graph:
+	 * the nodes of a strongly connected component have the same path length, and the components form a
+	 * directed acyclic graph which is processed in topological order.
+	 * Only nodes reachable from the source are included.
+	 */
+	public static Map<Node,Integer> longestPathLengths(Graph<Node,Edge> graph, Node source) {
 
 		Map<Node,Integer> distance = new HashMap<>();
 
-		for(Node node : subGraph) distance.put(node, Integer.MIN_VALUE);
-		distance.put(pivot,0);
-
-		Set<Node> neighbours = CoreAPIGraph.getOutboundNeighbours(graph, pivot);
+		if(!graph.containsVertex(source)) return distance;
 
-		neighbours.retainAll(visited);
+		List<Set<Node>> components = new GabowStrongConnectivityInspector<>(graph).stronglyConnectedSets();
 
-		for(Node node : neighbours) {
-			distance.put(node, distance.get(node) + 1);
+		Map<Node,Integer> componentOf = new HashMap<>();
+		for(int i=0; i<components.size(); i++) {
+			for(Node node : components.get(i)) componentOf.put(node, i);
 		}
 
-		neighbours = CoreAPIGraph.getOutboundNeighbours(graph, pivot);
-		neighbours.removeAll(visited);
-
-		for(Node node : neighbours) {
-
-			visited.add(node);
-
-			Map<Node,Integer> longestPathsFromNeighbour = computeLongestPath(node, visited); 
-			for(Entry<Node, Integer> entry : longestPathsFromNeighbour.entrySet()) {
+		// the components reachable from the source, and the number of inbound component edges
+		int[] inDegree = new int[components.size()];
+		boolean[] reachable = new boolean[components.size()];
+		List<Set<Integer>> successors = new ArrayList<>(components.size());
+		for(int i=0; i<components.size(); i++) successors.add(new HashSet<>());
+
+		Deque<Integer> queue = new ArrayDeque<>();
+		int sourceComponent = componentOf.get(source);
+		reachable[sourceComponent] = true;
+		queue.add(sourceComponent);
+
+		while(!queue.isEmpty()) {
+			int component = queue.poll();
+			for(Node node : components.get(component)) {
+				for(Edge edge : graph.outgoingEdgesOf(node)) {
+					int target = componentOf.get(graph.getEdgeTarget(edge));
+					if(target!=component && successors.get(component).add(target)) {
+						inDegree[target]++;
+						if(!reachable[target]) {
+							reachable[target] = true;
+							queue.add(target);
+						}
+					}
+				}
+			}
+		}
 
-				Node seen = entry.getKey();
-				Integer candidateLongest = entry.getValue();
+		int[] longest = new int[components.size()];
+		queue.add(sourceComponent);
 
-				if(!distance.containsKey(seen) || candidateLongest > distance.get(seen)) {
-					distance.put(seen, candidateLongest + 1);
-				}
+		while(!queue.isEmpty()) {
+			int component = queue.poll();
+			for(int target : successors.get(component)) {
+				longest[target] = Math.max(longest[target], longest[component]+1);
+				if(--inDegree[target]==0) queue.add(target);
 			}
+		}
 
+		for(int i=0; i<components.size(); i++) {
+			if(!reachable[i]) continue;
+			for(Node node : components.get(i)) distance.put(node, longest[i]);
 		}
 
 		return distance;
 
 	}
 
-
 }
-
-
@@ -3,11 +3,15 @@ package no.paneon.api.logging;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -45,40 +49,96 @@ public class AspectLogger {
 
 	private static final int LINESIZE = 120;
 	
-	private static Level globalLevel = AspectLogger.VERBOSE;
+	private static volatile Level globalLevel = AspectLogger.VERBOSE;
 	
+	/* derived from globalLevel - with Level.OFF the disabled path of the advice is a single read of this flag */
+	private static volatile boolean loggingActive = globalLogging(globalLevel);
+	
+	/* level, logger and source resolved once per join point */
+	private static final Map<JoinPoint.StaticPart,JoinPointInfo> joinPoints = new ConcurrentHashMap<>();
 	
 	public static void setGlobalDebugLevel(Level level) {		
 		globalLevel = level;
+		loggingActive = globalLogging(level);
+	}
+	
+	public static Level getGlobalDebugLevel() {		
+		return globalLevel;
+	}
+	
+	/*
+	 * Methods annotated with @LogMethod(level=LogLevel.TRACE) are the small and frequently called helpers
+	 * (Config, Utils, JSONObjectHelper etc). These are only advised when the system property
+	 * no.paneon.api.logging.traceMethods is true, otherwise the woven code reads a constant and skips the advice.
+	 * The enum value in the pointcut must use the binary name (AspectLogger$LogLevel) to match.
+	 */
+	public static final String TRACE_METHODS = "no.paneon.api.logging.traceMethods";
+	
+	private static final boolean traceMethods = Boolean.getBoolean(TRACE_METHODS);
+	
+	@Pointcut("execution(@no.paneon.api.logging.LogMethod(level=no.paneon.api.logging.AspectLogger$LogLevel.TRACE) * *(..))")
+	public void traceMethod() {}
+	
+	@Pointcut("if()")
+	public static boolean traceMethodsIncluded() {
+		return traceMethods;
 	}
 	
-    @Around("execution(* *(..)) && @annotation(LogMethod)")
+	@Pointcut("execution(* *(..)) && @annotation(LogMethod) && (!traceMethod() || traceMethodsIncluded())")
+	public void loggedMethod() {}
+	
+    @Around("loggedMethod()")
     public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
 
-    	Level level = getLevel(joinPoint);
-    	if(activeLogging(level)) {
-    		
-	    	String args = getArgumentsAsString(joinPoint);
+    	if(!loggingActive) return joinPoint.proceed();
+    	
+    	JoinPointInfo info = getJoinPointInfo(joinPoint);
+    	Level level = info.level;
+    	
+    	/* nothing would be logged - avoid building the argument and result strings */
+    	if(!info.active || !isEnabled(info, level)) return joinPoint.proceed();
+    	
+    	String args = getArgumentsAsString(joinPoint);
 
-	    	Logger currentLogger = getActiveLogger(joinPoint);   
-	    		    	
-	    	String logSource = joinPoint.getSignature().getDeclaringTypeName();
-	    	
-	    	long before = logBefore(joinPoint, level, args, currentLogger, logSource);
-	    	
-	        Object result = joinPoint.proceed();
+    	long before = logBefore(joinPoint, level, args, info.logger, info.logSource);
+    	
+        Object result = joinPoint.proceed();
+    
+        logAfter(joinPoint, level, before, result, args, info.logger, info.logSource);
         
-	        logAfter(joinPoint, level, before, result, args, currentLogger, logSource);
-	        
-	        return result;
+        return result;
 		       
-        } else {
-    	
-        	return joinPoint.proceed();
-        	
-        }
     }
 
+	private static final class JoinPointInfo {
+		final Level level;
+		final boolean active;
+		final Logger logger;
+		final String logSource;
+		
+		JoinPointInfo(Level level, Logger logger, String logSource) {
+			this.level = level;
+			this.active = activeLogging(level);
+			this.logger = logger;
+			this.logSource = logSource;
+		}
+	}
+	
+	private boolean isEnabled(JoinPointInfo info, Level level) {
+		Logger logger = info.logger!=null ? info.logger : LOG;
+		return logger.isEnabled(level);
+	}
+	
+	private JoinPointInfo getJoinPointInfo(ProceedingJoinPoint joinPoint) {
+		JoinPoint.StaticPart staticPart = joinPoint.getStaticPart();
+		JoinPointInfo res = joinPoints.get(staticPart);
+		if(res==null) {
+			res = new JoinPointInfo(getLevel(joinPoint), getActiveLogger(joinPoint), joinPoint.getSignature().getDeclaringTypeName());
+			joinPoints.putIfAbsent(staticPart, res);
+		}
+		return res;
+	}
+	
 	private void logAfter(ProceedingJoinPoint joinPoint, Level level, long before, Object result, String args, Logger currentLogger, String logSource) {
         if(level!=Level.OFF) {
         	
@@ -222,9 +282,13 @@ public class AspectLogger {
 		
 	}
 	
-	private boolean activeLogging(Level level) {
+	private static boolean globalLogging(Level level) {
+		return level != Level.OFF;
+	}
+	
+	private static boolean activeLogging(Level level) {
 				
-		boolean res = (globalLevel != AspectLogger.VERBOSE) && (globalLevel != Level.OFF);
+		boolean res = (level != AspectLogger.VERBOSE) && (level != Level.OFF);
 				
 		// could also include filtering based on globalLevel: (level.intLevel()<=globalLevel.intLevel());
 		
@@ -7,6 +7,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
@@ -15,6 +17,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -23,22 +26,26 @@ import java.util.stream.Stream;
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 
+import org.apache.commons.io.IOUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.json.JSONPointer;
 
 import com.jayway.jsonpath.Configuration;
-import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.Option;
-import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
 
 import no.paneon.api.utils.Config;
+import no.paneon.api.utils.ExternalSources;
 import no.paneon.api.utils.JSONObjectOrArray;
 import no.paneon.api.utils.ListExt;
 import no.paneon.api.utils.Out;
@@ -58,14 +65,9 @@ public class APIModel {
 
 	static final Logger LOG = LogManager.getLogger(APIModel.class);
 
-	private static JSONObject swagger = new JSONObject();
-
 	static final Map<String,String> formatToType = new HashMap<>();
 	static final Map<String,String> typeMapping = new HashMap<>();
 
-	private static JSONObject resourceMapping;
-	private static JSONObject reverseMapping;
-
 	public static final List<String> ALL_OPS = List.of("GET", "POST", "DELETE", "PUT", "PATCH");
 
 	private static final String CARDINALITY_REQUIRED_ONE = "cardinalityOne";
@@ -86,10 +88,14 @@ public class APIModel {
 	private static final String ENUM = "enum";
 	private static final String RESPONSES = "responses";
 	private static final String SCHEMA = "schema";
+	private static final String SCHEMA_INPUT = "schema:";
 	private static final String DESCRIPTION = "description";
 	
 	private static final String REQUESTBODY = "requestBody";
 
+	private static final String LAZY_EXPANSION = "lazyExpansion";
+	private static final String PARALLEL_EXPANSION = "parallelExpansion";
+
 	private static final String MIN_ITEMS = "minItems";
 	private static final String MAX_ITEMS = "maxItems";
 
@@ -110,30 +116,14 @@ public class APIModel {
 	private static final String MAPPING = "mapping";
 
 	private static final String NEWLINE = "\n";
-	private static String swaggerSource;
-	
-	private static Map<String, JSONObject> resourcePropertyMap = new HashMap<>();
-
-    private static boolean firstAPImessage=true;
-
-    private static Map<String,Counter> operationCounter = null;
-    
-	private static Map<String,JSONObject> externalDefinitions = new HashMap<>();
-	private static Map<String,JSONObject> externals = new HashMap<>();
-
-	static Map<String,List<String>> pathsForResources = new HashMap<>();
-	static Map<String,JSONObject> flattened = new HashMap<>();
-	static Map<String,JSONObject> resourceMapExpanded = new HashMap<>();
 
-	static Map<String,JSONObject> flattenedSubclasses = new HashMap<>();
 
-	static JSONObject allDefinitions = new JSONObject();
-	static Set<String> seenRefs = new HashSet<>();
-
-	private static Map<String,Boolean> isRequiredSeen = new HashMap<>();
-	private static Map<String,Boolean> isDeprecatedSeen = new HashMap<>();
-
-	private static Set<String> typeWarnings = new HashSet<>();
+	//
+	// all model state is kept in an APIModelContext - the static methods operate on the context bound to 
+	// the current thread, or on the default (shared) context if no context has been bound
+	//
+	private static final APIModelContext defaultContext = new APIModelContext();
+	private static final ThreadLocal<APIModelContext> boundContext = new ThreadLocal<>();
 
 	static final int INCLUDE_ALLOF = 0x01;
 	static final int INCLUDE_ONEOF = 0x02;
@@ -143,15 +133,52 @@ public class APIModel {
 	// final static private Map<String,Set<String>> propertiesForResourceSeen = new HashMap<>();
 
     public static String getSource() {
-    	return swaggerSource;
+    	return context().swaggerSource;
+    }
+    
+    static APIModelContext context() {
+    	APIModelContext ctx = boundContext.get();
+    	return ctx!=null ? ctx : defaultContext;
     }
     
-    final private static APIModelCache cache = new APIModelCache();
+    public static APIModelContext getContext() {
+    	return context();
+    }
+    
+    public static void bindContext(APIModelContext ctx) {
+    	if(ctx==null) {
+    		boundContext.remove();
+    	} else {
+    		boundContext.set(ctx);
+    	}
+    }
     
+    public static void unbindContext() {
+    	boundContext.remove();
+    }
+    
+    public static <T> T withContext(APIModelContext ctx, Supplier<T> action) {
+    	APIModelContext previous = boundContext.get();
+    	bindContext(ctx);
+    	try {
+    		return action.get();
+    	} finally {
+    		bindContext(previous);
+    	}
+    }
+    
+    public static void withContext(APIModelContext ctx, Runnable action) {
+    	withContext(ctx, () -> { action.run(); return null; });
+    }
+    
+	private final APIModelContext modelContext;
+	
 	private APIModel() {
 		
 		LOG.debug("####### APIModel - base constructor");
 
+		this.modelContext = context();
+
 		// resourceMapping = Config.getConfig(RESOURCE_MAPPING);
 		// reverseMapping = generateReverseMapping(resourceMapping);
 		// clean();
@@ -165,16 +192,17 @@ public class APIModel {
 
 	private APIModel(String source) {
 		this();
-		setSwagger(Utils.readJSONOrYaml(source));
-		swaggerSource=source;
+		byte[] content = readForModelCache(source);
+		setSwagger(source, content, () -> Utils.readJSONOrYaml(source, content, true));
+		context().swaggerSource=source;
 	}
 
 	public APIModel(String source, InputStream is) {
 		this();
 		try {
 			APIModel.setSwaggerSource(source);
-			setSwagger(Utils.readJSONOrYaml(is));
-			swaggerSource=source;
+			setSwagger(is);
+			context().swaggerSource=source;
 
 		} catch(Exception ex) {
 			Out.println("... unable to read API specification from source '" + source + "'");
@@ -191,8 +219,8 @@ public class APIModel {
 		try {
 			InputStream is = new FileInputStream(file);
 			APIModel.setSwaggerSource(filename);
-			setSwagger(Utils.readJSONOrYaml(is));
-			swaggerSource=filename;
+			setSwagger(is);
+			context().swaggerSource=filename;
 
 		} catch(Exception ex) {
 			Out.println("... unable to read API specification from file '" + filename + "'");
@@ -204,44 +232,56 @@ public class APIModel {
 		
 	}
 
+	public APIModelContext getModelContext() {
+		return this.modelContext;
+	}
+
 	public String toString() {
-		return swagger.toString(2);
+		return this.modelContext.swagger.toString(2);
 	}
 
 	public static void clean() {
 		
 		LOG.debug("####### APIModel::clean");
 
-		allDefinitions = new JSONObject();	
-		resourcePropertyMap = new HashMap<>();
-		swagger = null;
-		firstAPImessage=true;
-		operationCounter = null;
+		context().allDefinitions = new JSONObject();	
+		context().resourcePropertyMap = APIModelContext.memo();
+		context().swagger = null;
+		context().findings = Collections.emptyList();
+		context().firstAPImessage=true;
+		context().operationCounter = null;
 		
-		externals = new HashMap<>();
-		externalDefinitions = new HashMap<>();
+		context().externals = APIModelContext.memo();
+		context().externalDefinitions = APIModelContext.memo();
+		context().prefetched.clear();
+		context().externalInputs = APIModelContext.memo();
 		
-		resourceMapExpanded = new HashMap<>();
+		context().resourceMapExpanded = APIModelContext.memo();
 		
-		resourcePropertyMap = new HashMap<>();
+		context().resourcePropertyMap = APIModelContext.memo();
 
-	    firstAPImessage=false;
+	    context().firstAPImessage=false;
 
-	    operationCounter = null;
+	    context().operationCounter = null;
 	    
-		pathsForResources = new HashMap<>();
-		flattened = new HashMap<>();
-		resourceMapExpanded = new HashMap<>();
+		context().flattened = APIModelContext.memo();
+		context().resourceMapExpanded = APIModelContext.memo();
 		
-		flattenedSubclasses = new HashMap<>();
+		context().flattenedSubclasses = APIModelContext.memo();
 
-		_getResources = null;
+		context()._getResources = null;
+		context().asyncIndex = null;
+		context().expandOnDemand = null;
+		context().cache.reset();
+		context().pathIndex = null;
+		
+		context().seenRefs.clear();
+		context().typeWarnings.clear();
 		
-		seenRefs.clear();
-		typeWarnings.clear();
+		context().isRequiredSeen.clear();
+		context().isDeprecatedSeen.clear();
 		
-		isRequiredSeen.clear();
-		isDeprecatedSeen.clear();
+		context().definitionStore.clear();
 
 		// seenPropertiesExpanded = new HashMap<>();
 
@@ -249,36 +289,35 @@ public class APIModel {
 		
 	}
 	
-	static boolean setSwaggerDone = false;
 	
 	@LogMethod(level=LogLevel.DEBUG)
 	public static void setSwagger(JSONObject api) {
 		
 		clean();
 		
-		swagger = api;
+		context().swagger = api;
 
-		LOG.debug("setSwagger:: keys={}", swagger.keySet());
+		LOG.debug("setSwagger:: keys={}", context().swagger.keySet());
 
 		fixResourceMapping();
 		
-		checkSwagger(swagger);
+		checkSwagger(context().swagger);
 		
 		LOG.debug("rearrangeDefinitions:: {}", Config.getBoolean("rearrangeDefinitions") );
 
 		if(Config.getBoolean("rearrangeDefinitions")) {
-			rearrangeDefinitions(swagger);
+			rearrangeDefinitions(context().swagger);
 		}
 		
 		if(Config.getBoolean("schemaRefactor")) {
 			LOG.debug("... refactor schema" );
 
 			InlineSchemaRefactorer refactorer = new InlineSchemaRefactorer();
-			swagger = refactorer.refactorInlineSchemas(swagger);
+			context().swagger = refactorer.refactorInlineSchemas(context().swagger);
 			
-			LOG.debug("schemaRefactor:: swagger={}", swagger.toString(2));
+			LOG.debug("schemaRefactor:: swagger={}", context().swagger.toString(2));
 			
-			LOG.debug("schemaRefactor:: components={}", swagger.getJSONObject("components").getJSONObject("schemas").keySet());
+			LOG.debug("schemaRefactor:: components={}", context().swagger.getJSONObject("components").getJSONObject("schemas").keySet());
 
 
 			
@@ -286,151 +325,276 @@ public class APIModel {
 		
 		// refactorEmbeddedTitles();
 		
+		pathIndex();
+		
 		List<String> resources = APIModel.getResources();
 		
 		LOG.debug("setSwagger:: resources={}", resources);
 		
-		cache.setCoreResources(resources);
+		context().cache.setCoreResources(resources);
 		
-		for(String def : APIModel.getAllDefinitions()) {
-			APIModel.getResourceExpanded(def);
-			APIModel.getPropertiesExpanded(def);
-		}
-		
-		for(String resource : resources) {
-			Set<String> properties = APIModel.getPropertiesExpanded(resource);
-			LOG.debug("setSwagger:: resource={} properties={}", resources, properties);
+		context().definitionStore.clear();
+
+		if(Config.getBoolean(LAZY_EXPANSION)) {
+			// the definitions are expanded when requested
+			Set<String> expandOnDemand = new HashSet<>(APIModel.getAllDefinitions());
+			expandOnDemand.addAll(resources);
+			context().expandOnDemand = expandOnDemand;
+			
+			LOG.debug("setSwagger:: lazy expansion of {} definitions", expandOnDemand.size());
 
+		} else {
+			expandDefinitions(APIModel.getAllDefinitions());
+		
+			for(String resource : resources) {
+				Set<String> properties = APIModel.getPropertiesExpanded(resource);
+				LOG.debug("setSwagger:: resource={} properties={}", resources, properties);
+	
+			}
 		}
 
-		setSwaggerDone = true;
+		context().setSwaggerDone = true;
 	}
 
-	private static void checkSwagger(JSONObject obj) {
-		boolean res = checkSwagger(obj,"#/");
-		if(!res) {
-			if(Config.getBoolean("stop_if_diagram_errors")) {
-				Out.debug("... aborting diagram generation due to errors found in OAS");
-				System.exit(-1);
-			}
+	//
+	// the definitions are resolved in the same order as when expanded one by one, then the inheritance graph is
+	// expanded level by level in topological order such that each superior is expanded once and before its subclasses.
+	// Definitions in inheritance cycles are left to the recursive expansion.
+	//
+	// With the configuration property parallelExpansion the definitions of a level are expanded in parallel, by worker
+	// threads writing to the same context (the memoized lookups are synchronized, see APIModelContext). Off by default
+	//
+	private static void expandDefinitions(List<String> definitions) {
+		
+		Map<String,Set<String>> superiors = new LinkedHashMap<>();
+		for(String definition : definitions) {
+			collectSuperiors(definition, superiors);
 		}
-	}
-	
-	private final static String camelCasePattern = "^[@]?[a-z]+[A-Za-z0-9]+";
-	
-	private static boolean checkSwagger(JSONObject obj,String path) {
 		
-		boolean res=true;
+		Map<String,Integer> remaining = new HashMap<>();
+		Map<String,List<String>> subclasses = new HashMap<>();
+		superiors.forEach((node, nodeSuperiors) -> {
+			remaining.put(node, nodeSuperiors.size());
+			nodeSuperiors.forEach(superior -> subclasses.computeIfAbsent(superior, s -> new LinkedList<>()).add(node));
+		});
 		
-		if(obj == null) {
-			Out.debug("... ERROR: Found null value in the OAS (swagger)");
-			res=false;
-			return res;
+		APIModelContext ctx = getContext();
+		boolean parallel = Config.getBoolean(PARALLEL_EXPANSION);
+		
+		Set<String> expanded = new HashSet<>();
+		List<String> level = superiors.keySet().stream().filter(node -> remaining.get(node)==0).collect(toList());
+		while(!level.isEmpty()) {
+			
+			LOG.debug("expandDefinitions: level={}", level);
+
+			if(parallel) {
+				level.parallelStream().forEach(node -> withContext(ctx, () -> getResourceExpanded(node)));
+			} else {
+				level.forEach(APIModel::getResourceExpanded);
+			}
+			expanded.addAll(level);
+			
+			List<String> next = new LinkedList<>();
+			for(String node : level) {
+				for(String subclass : subclasses.getOrDefault(node, Collections.emptyList())) {
+					if(remaining.merge(subclass, -1, Integer::sum)==0) next.add(subclass);
+				}
+			}
+			level = next;
 		}
 		
+		superiors.keySet().stream()
+			.filter(node -> !expanded.contains(node))
+			.forEach(APIModel::getResourceExpanded);
 		
-		for(String key : obj.keySet()) {
-			
-			if(key.contentEquals(REF)) {
-				String ref = obj.getString(REF);
-				LOG.debug("... checking obj={} ref={}", obj, ref);
+		for(String definition : definitions) {
+			getPropertiesExpanded(definition);
+		}
+	}
 
-				if(!isLocalReference(ref)) {
-					Out.debug("... not checking reference {}", ref);
-				} else {
-					try {
-						Object referenced = swagger.optQuery(ref);
-						if(referenced==null) {
-							Out.debug("... ERROR: Reference {} not found in the OAS/swagger", ref);
-							res=false;
-						}
-						LOG.debug("... checking referenced={}", referenced);
-					} catch(Exception e) {
-						res=false;
-						Out.debug("... ERROR: invalid reference {} in object {}", ref, obj);
-					}
+	private static void collectSuperiors(String node, Map<String,Set<String>> superiors) {
+		if(superiors.containsKey(node)) return;
+		
+		Set<String> res = new LinkedHashSet<>();
+		superiors.put(node, res);
+		
+		JSONObject definition = getDefinitionView(node);
+		if(definition==null) return;
+		
+		res.addAll(getReferencedSuperiors(definition.optJSONArray(ALLOF)));
+		if(Config.getBoolean("includeOneOfInExpanded")) {
+			res.addAll(getReferencedSuperiors(definition.optJSONArray(ONEOF)));
+		}
+		
+		res.forEach(superior -> collectSuperiors(superior, superiors));
+	}
 
+	private static List<String> getReferencedSuperiors(JSONArray allOfs) {
+		List<String> res = new LinkedList<>();
+		if(allOfs!=null) {
+			allOfs.forEach(allof -> {
+				if(allof instanceof JSONObject && ((JSONObject) allof).has(REF)) {
+					res.add(getReferencedType((JSONObject) allof, null));
 				}
+			});
+		}
+		return res;
+	}
 
-			}
-			
-			if(key.contentEquals(PROPERTIES)) {
-				JSONObject properties = obj.optJSONObject(key);
-				if(properties==null) {
-					Out.debug("... possible issue: found {} in {} - should be a JSONObject if modelling resource properties", key, path);
-				} else {
-					for(String property : properties.keySet()) {
-						String propertyPath = nextPath( nextPath(path,key), property);
-						
-						LOG.debug("... checking path={} property={}", propertyPath, property);
+	private static void setSwagger(InputStream is) throws IOException {
+		if(PreparedModelCache.fromConfig().isEmpty()) {
+			setSwagger(Utils.readJSONOrYaml(is));
+		} else {
+			byte[] content = IOUtils.toByteArray(is);
+			setSwagger(context().swaggerSource, content, () -> Utils.readJSONOrYaml(new ByteArrayInputStream(content)));
+		}
+	}
 
-						if(!property.matches(camelCasePattern) && !propertyPath.contains("Header") && !propertyPath.contains("X-")) {
-							
-							if(!Config.getBoolean("noCamelCaseWarning")) {
-								Out.debug("... possible issue: found property '{}' in {} - expecting camelcase", property, propertyPath);
-							}
-						}
-					}
-					
-				}
+	private static byte[] readForModelCache(String source) {
+		if(PreparedModelCache.fromConfig().isEmpty()) return null;
+
+		try {
+			Path path = Paths.get(source.replaceFirst("^~", System.getProperty("user.home")));
+			return Files.isRegularFile(path) ? Files.readAllBytes(path) : null;
+		} catch(Exception e) {
+			LOG.debug("readForModelCache: source={} not cached error={}", source, e.getLocalizedMessage());
+			return null;
+		}
+	}
+
+	//
+	// the prepared model is taken from the model cache (if configured) when the content, the source, the configuration
+	// and the external documents merged are unchanged
+	//
+	private static void setSwagger(String source, byte[] content, Supplier<JSONObject> reader) {
+		Optional<PreparedModelCache> modelCache = PreparedModelCache.fromConfig();
 		
-			}
-			
-			// Out.debug("### 2");
+		if(content==null || modelCache.isEmpty()) {
+			setSwagger(reader.get());
+			return;
+		}
 
-			if(obj.optJSONObject(key)!=null) {
-				LOG.debug("... checking key={}", key);
+		String key = PreparedModelCache.key(source, content);
+		
+		Optional<PreparedModelCache.Entry> entry = modelCache.get().load(key);
+		if(entry.isPresent() && isUnchanged(entry.get().externals)) {
+			setPreparedSwagger(entry.get());
+			return;
+		}
 
-				boolean b = checkSwagger(obj.optJSONObject(key), nextPath(path,key));
-				res = res && b;
-			}
+		setSwagger(reader.get());
+
+		// generated (async) types are not part of the specification and not cached
+		if(context().addedTypes.isEmpty()) {
+			modelCache.get().store(key, new PreparedModelCache.Entry(context().swagger, context().cache.getExpandedResources(), context().cache.getPropertiesForResources(),
+					context().findings, getExternalInputDigests()));
+		}
+	}
+
+	private static Map<String,String> getExternalInputDigests() {
+		synchronized(context().externalInputs) {
+			return new HashMap<>(context().externalInputs);
+		}
+	}
+
+	/*
+	 * the digest of an external input is taken when getExternal reads it, i.e. not read again when stored
+	 */
+	private static void addExternalInput(String input, Object content) {
+		if(PreparedModelCache.fromConfig().isPresent()) {
+			context().externalInputs.put(input, PreparedModelCache.digest(content));
+		}
+	}
+
+	//
+	// local files and schemas are read again and compared, web sources are not fetched again - their
+	// digest is kept with the entry as of when the model was prepared
+	//
+	private static boolean isUnchanged(Map<String,String> externals) {
+		for(Map.Entry<String,String> external : externals.entrySet()) {
+			if(Utils.isWebSource(external.getKey())) continue;
 			
-			if(obj.optJSONArray(key)!=null) {
-				JSONArray array = obj.optJSONArray(key);
-				for(int i=0; i<array.length(); i++) {
-					if(array.optJSONObject(i)!=null) {
-						boolean b = checkSwagger(array.optJSONObject(i), nextPath(path,key+"/["+i+"]"));
-						res = res && b;
-					}
-				}
-			} 
+			if(!PreparedModelCache.digest(readExternalInput(external.getKey())).equals(external.getValue())) {
+				LOG.debug("isUnchanged:: external input changed source={}", external.getKey());
+				return false;
+			}
+		}
+		return true;
+	}
 
+	/*
+	 * the external input as merged by getExternal, a local schema or the external source (null if not available)
+	 */
+	private static Object readExternalInput(String input) {
+		if(input.startsWith(SCHEMA_INPUT)) {
+			Schema schema = Schema.getSchemaByKey(input.substring(SCHEMA_INPUT.length()));
+			return schema!=null ? schema.getDefinitions() : null;
+		} else {
+			return Utils.readJSONOrYaml(input, false);
 		}
+	}
+
+	private static void setPreparedSwagger(PreparedModelCache.Entry entry) {
+		
+		clean();
 		
-		// Out.debug("### 3");
+		context().swagger = entry.swagger;
 
-		return res;
+		LOG.debug("setPreparedSwagger:: keys={}", context().swagger.keySet());
+
+		reportFindings(entry.findings);
+
+		fixResourceMapping();
+
+		pathIndex();
+
+		context().cache.setCoreResources(APIModel.getResources());
 		
+		context().definitionStore.clear();
+
+		entry.expandedResources.forEach(context().cache::addResourceExpanded);
+		entry.propertiesForResources.forEach(context().cache::addPropertiesForResource);
+
+		context().setSwaggerDone = true;
 	}
-	
-	private static boolean isLocalReference(String ref) {
-		return ref.startsWith("#");
+
+	private static void checkSwagger(JSONObject obj) {
+		reportFindings(SwaggerValidator.validate(obj, !Config.getBoolean("noCamelCaseWarning")));
 	}
 
-	private static String nextPath(String p1, String p2) {
-		if(p1.contentEquals("#/")) {
-			return p1 + p2;
-		} else {
-			return p1 + "/" + p2;
+	private static void reportFindings(List<SwaggerValidator.Finding> findings) {
+		context().findings = findings;
+		
+		findings.forEach(finding -> Out.debug("{}", finding.message));
+		
+		if(SwaggerValidator.hasErrors(findings)) {
+			if(Config.getBoolean("stop_if_diagram_errors")) {
+				Out.debug("... aborting diagram generation due to errors found in OAS");
+				System.exit(-1);
+			}
 		}
 	}
 	
+	public static List<SwaggerValidator.Finding> getValidationFindings() {
+		return context().findings;
+	}
+	
 	private static void fixResourceMapping() {
-		LOG.debug("fixResourceMapping:: resourceMapping={} reverseMapping={}", resourceMapping, reverseMapping);
+		LOG.debug("fixResourceMapping:: resourceMapping={} reverseMapping={}", context().resourceMapping, context().reverseMapping);
 
 		Collection<String> definitions = APIModel.getAllDefinitions();
 				
-		if(resourceMapping!=null) {
+		if(context().resourceMapping!=null) {
 			Predicate<String> notInAPI = s -> !definitions.contains(s);
-			Collection<String> mappingNotRelevant = resourceMapping.keySet().stream().filter(notInAPI).collect(toSet());		
-			mappingNotRelevant.stream().forEach(resourceMapping::remove);
+			Collection<String> mappingNotRelevant = context().resourceMapping.keySet().stream().filter(notInAPI).collect(toSet());		
+			mappingNotRelevant.stream().forEach(context().resourceMapping::remove);
 		}
 		
-		if(reverseMapping!=null) {
-			definitions.forEach(reverseMapping::remove);
+		if(context().reverseMapping!=null) {
+			definitions.forEach(context().reverseMapping::remove);
 		}
 		
-		LOG.debug("fixResourceMapping:: resourceMapping={} reverseMapping={}", resourceMapping, reverseMapping);
+		LOG.debug("fixResourceMapping:: resourceMapping={} reverseMapping={}", context().resourceMapping, context().reverseMapping);
 
 	}
 
@@ -469,7 +633,7 @@ public class APIModel {
 	private static void refactorEmbeddedTitles(String type) {
 		LOG.debug("refactorEmbeddedTitles resource={}", type);
 
-		JSONObject definition = getDefinition(type);
+		JSONObject definition = getDefinitionView(type);
 		for(String property : APIModel.getProperties(type) ) {
 			JSONObject propObj = APIModel.getPropertySpecification(type, property);
 			if(propObj.has(TITLE)) {
@@ -524,11 +688,11 @@ public class APIModel {
 	
 		if(obj==null) return "";
 		
-		obj = new JSONObject(obj.toString());
-		JSONObject components = swagger.optJSONObject("components");
+		obj = FrozenJSON.thaw(obj);
+		JSONObject components = context().swagger.optJSONObject("components");
 		if(components==null) {
-			swagger.put("components", new JSONObject());
-			components = swagger.optJSONObject("components");
+			context().swagger.put("components", new JSONObject());
+			components = context().swagger.optJSONObject("components");
 		}
 		JSONObject schemas = components.optJSONObject("schemas");
 		if(schemas==null) {
@@ -540,7 +704,8 @@ public class APIModel {
 		
 		LOG.debug("addResource::title={}", title);
 
-		allDefinitions.put(title, obj);
+		context().allDefinitions.put(title, obj);
+		context().definitionStore.clear();
 		
 		return "#/components/schemas/" + title;
 		
@@ -593,7 +758,7 @@ public class APIModel {
 					
 					definition.put(ALLOF, rewrittenAllOfs);
 					
-					JSONObject newDef = getDefinition(type);
+					JSONObject newDef = getDefinitionView(type);
 					
 					LOG.debug("rearrangeDefinitions:: type={} old={} new={}", type, definition.keySet(), newDef.keySet());
 
@@ -610,7 +775,7 @@ public class APIModel {
 	@LogMethod(level=LogLevel.DEBUG)
 	public static void setSwaggerSource(String filename) {
 		LOG.debug("setSwaggerSource: filename={}", filename);
-		swaggerSource = filename;
+		context().swaggerSource = filename;
 		
 //		resourceMapping = Config.getConfig(RESOURCE_MAPPING);
 //		reverseMapping = generateReverseMapping(resourceMapping);
@@ -618,16 +783,15 @@ public class APIModel {
 	}
 
 
-	private static List<String> _getResources = null;
 	
 	@LogMethod(level=LogLevel.DEBUG)
 	public static List<String> getResources() {
 
-		LOG.debug("#0 getResources:: _getResources={}", _getResources);
+		LOG.debug("#0 getResources:: _getResources={}", context()._getResources);
 
-		if(_getResources!=null) { //  return _getResources; // new LinkedList<>(_getResources);
+		if(context()._getResources!=null) { //  return _getResources; // new LinkedList<>(_getResources);
 			List<String> res = new LinkedList<>();
-			res.addAll(_getResources);
+			res.addAll(context()._getResources);
 			return res;
 		}
 			
@@ -689,12 +853,15 @@ public class APIModel {
 	
 	private static void update_getResources(List<String> result) {
 		// Out.debug("## update_getResources:: res={}", result);
-		_getResources = result;
+		context()._getResources = result;
 	}
 
 	private static Set<String> getDiscriminators(String resource) {
+		HierarchyIndex hierarchy = getHierarchy();
+		if(hierarchy.contains(resource)) return new HashSet<>(hierarchy.getDiscriminators(resource));
+		
 		Set<String> res = new HashSet<>();
-		JSONObject definition = getDefinition(resource);
+		JSONObject definition = getDefinitionView(resource);
 		if(definition!=null && definition.has(DISCRIMINATOR)) {
 			definition = definition.optJSONObject(DISCRIMINATOR);
 			if(definition!=null && definition.has(MAPPING)) {
@@ -716,10 +883,9 @@ public class APIModel {
 		List<String> res = new LinkedList<>();
 		
 		if(!isAsyncAPI()) {
-			res = getAllResponses()
-					.map(APIModel::getNormalResponses)
-					.flatMap(List::stream)
-					.map(APIModel::getResourceFromResponse)
+			res = pathIndex().getOperations().stream()
+					.filter(OpenAPIPathIndex.Operation::hasResponses)
+					.map(OpenAPIPathIndex.Operation::getResources)
 					.flatMap(List::stream)
 					.distinct()
 					// .map(APIModel::getMappedResource)
@@ -727,18 +893,10 @@ public class APIModel {
 			
 		} else {
 			LOG.debug("getCoreResources:: processing async api");
-			LOG.debug("getCoreResources:: swagger={}", swagger);
-								    
-		     Configuration configuration = Configuration.builder()
-		             .jsonProvider(new JacksonJsonProvider())
-		             .build();
 
-		     DocumentContext jsonContext = JsonPath.using(configuration).parse(swagger.toString());
-		     List<String> tags = jsonContext.read("$..tags..name");			
+			res = asyncIndex().getTagNames().stream().map(Utils::upperCaseFirst).distinct().collect(toList());
 
-		     res = tags.stream().map(Utils::upperCaseFirst).distinct().collect(toList());
-		     	
-		     LOG.debug("getCoreResources:: res={}", res);
+			LOG.debug("getCoreResources:: res={}", res);
 
 		}
 		
@@ -746,27 +904,39 @@ public class APIModel {
 		
 	}
 
-	// $.channels..message.['$ref']
-	@LogMethod(level=LogLevel.DEBUG)
-	public static List<String> getAsyncMessageTypes() {
-
-		List<String> res = new LinkedList<>();
-
-		String api = swagger.toString();
-
-		Configuration configuration = Configuration.builder()
-				// .jsonProvider(new JacksonJsonProvider())
-				.build();
-
-		String query = "$.channels..message..['$ref']";
+	/*
+	 * the index of the paths and operations of the (OpenAPI) specification, built once per specification
+	 */
+	private static OpenAPIPathIndex pathIndex() {
+		OpenAPIPathIndex index = context().pathIndex;
+		JSONObject api = context().swagger;
+		if(index==null || !index.isIndexOf(api)) {
+			index = new OpenAPIPathIndex(api, APIModel::getOperationResponseResources);
+			context().pathIndex = index;
+		}
+		return index;
+	}
 
-		JsonPath jsonpath = JsonPath.compile(query);
+	/*
+	 * the index of the AsyncAPI specification, built once per specification
+	 */
+	private static AsyncAPIIndex asyncIndex() {
+		AsyncAPIIndex index = context().asyncIndex;
+		JSONObject api = context().swagger;
+		if(index==null || !index.isIndexOf(api)) {
+			index = new AsyncAPIIndex(api!=null ? api : new JSONObject());
+			context().asyncIndex = index;
+		}
+		return index;
+	}
 
-		Predicate<String> selectPayloadMessages = s -> !s.startsWith("30") && !s.startsWith("40") && !s.startsWith("50");
+	private static final Predicate<String> selectPayloadMessages = s -> !s.startsWith("30") && !s.startsWith("40") && !s.startsWith("50");
 
-		List<String> msg = jsonpath.read(api, configuration );
+	// $.channels..message.['$ref']
+	@LogMethod(level=LogLevel.DEBUG)
+	public static List<String> getAsyncMessageTypes() {
 
-		msg = msg.stream()
+		List<String> msg = asyncIndex().getChannelMessages().stream()
 				.map(Utils::selectLastReferencePart)
 				.filter(selectPayloadMessages)
 				.collect(toList());
@@ -776,27 +946,14 @@ public class APIModel {
 		return msg;
 	}
 
+	// $..[?(@.operationId=='op')]..['$ref']
 	@LogMethod(level=LogLevel.DEBUG)
 	public static List<String> getAsyncMessagesByOperation(String op) {
 
-		List<String> res = new LinkedList<>();
-
-		String api = swagger.toString();
-
-		Configuration configuration = Configuration.builder()
-				// .jsonProvider(new JacksonJsonProvider())
-				.build();
-
-		String query = "$..[?(@.operationId=='" + op + "')]..['$ref']";
-
-		JsonPath jsonpath = JsonPath.compile(query);
-
-		List<String> msg = jsonpath.read(api, configuration );
+		List<String> msg = asyncIndex().getOperationMessages(op);
 
 		LOG.debug("getAsyncMessagesByOperation:: messages={}", Utils.joining(msg, "\n"));  
 
-		Predicate<String> selectPayloadMessages = s -> !s.startsWith("30") && !s.startsWith("40") && !s.startsWith("50");
-
 		msg = msg.stream()
 				.map(Utils::selectLastReferencePart)
 				.filter(selectPayloadMessages)
@@ -807,135 +964,12 @@ public class APIModel {
 	
 	@LogMethod(level=LogLevel.DEBUG)
 	public static Map<String,AsyncResourceInfo> getAsyncDetails() {
-
-		Map<String,AsyncResourceInfo> res = new HashMap<>();
-
-		String api = swagger.toString();
-
-		Configuration configuration = Configuration.builder()
-				.jsonProvider(new JacksonJsonProvider())
-				.build();
-
-		DocumentContext jsonContext = JsonPath.using(configuration).parse(swagger.toString());
-		
-		JSONObject operations = swagger.optJSONObject("operations");
-		
-		if(operations!=null) {
-			LOG.debug("getAsyncDetails:: operations={}", operations.keySet());  
-			for(String op : operations.keySet()) {
-				JSONObject operation = operations.getJSONObject(op);
-				String requestChannel = operation.query("#/channel/$ref").toString();
-				
-				LOG.debug("getAsyncDetails:: operation={} channel={}", op, requestChannel);  
-				
-				Object channelDetails = swagger.query(requestChannel);
-				
-				LOG.debug("getAsyncDetails:: channel={} class={}", channelDetails, channelDetails.getClass());  
-
-				if(channelDetails instanceof JSONObject) {
-					JSONObject details = (JSONObject) channelDetails;
-					
-					LOG.debug("getAsyncDetails:: channel={}", channelDetails);  
-					LOG.debug("getAsyncDetails:: tags={}", details.get("tags"));  
-
-					String tag =  details.optJSONArray("tags").getJSONObject(0).getString("name");
-					
-					LOG.debug("getAsyncDetails:: tag={}", tag);  
-
-					String resource = Utils.upperCaseFirst(tag);
-
-					LOG.debug("getAsyncDetails:: channelDetails={}", channelDetails);  
-
-					if(!res.containsKey(resource)) {
-						res.put(resource, new AsyncResourceInfo(resource));
-					}
-					
-					AsyncResourceInfo resourceInfo = res.get(resource);					
-					
-					JSONArray requests  = details.optJSONArray("messages");
-					JSONArray responses = null; 
-					String responseChannel = "";
-					if(operation.has("reply") && operation.optJSONObject("reply").has("messages")) {
-						responses = operation.optJSONObject("reply").optJSONArray("messages");
-						
-						responseChannel = operation.optJSONObject("reply").optJSONObject("channel").optString("$ref");	
-						
-						LOG.debug("##### getAsyncDetails:: responseChannel={}", responseChannel);  
-
-					}
-
-					resourceInfo.addOperation(op, requestChannel, responseChannel, requests, responses);
-					
-				}
-
-			}
-		}
-		
-		
-		List<String> tags = jsonContext.read("$..tags..name");			
-
-		tags.forEach(tag -> {
-
-			LOG.debug("getAsyncDetails:: tag={}", tag);  
-
-			String resource = Utils.upperCaseFirst(tag);
-
-			String query = String.format("$..channels..tags.[?(@.name=='%s')]", tag);
-
-			JsonPath jsonpath = JsonPath.compile(query);
-
-			List<String> paths = jsonpath.read(api, Configuration.builder().options(Option.AS_PATH_LIST).build() );
-
-			LOG.debug("getAsyncDetails:: paths={}", paths);  
-
-			paths.forEach(path -> {
-				path = path.replace("['tags'][0]", "");
-
-				Map<String,Object> obj = jsonContext.read(path);
-
-				LOG.debug("getAsyncDetails:: path={} obj={}", path, obj.getClass());  
-
-				// Out.debug("getCoreResources:: obj={}", obj.keySet());  
-				LOG.debug("getAsyncDetails:: obj={}", obj);  
-
-//				String opId = obj.get("operationId").toString();
-//				String baseId = obj.get("operationId").toString().replaceAll("Request$", "").replaceAll("Reply$", "");
-
-				Map<String,Object> obj2 = (Map<String,Object>) obj.get("messages");
-				if(obj2 instanceof  Map) {
-					LOG.debug("getAsyncDetails:: MAP obj2={}", obj2 );  
-					LOG.debug("getAsyncDetails:: keys obj2={}", obj2.keySet() );  
-
-
-				}
-				
-				if(! (obj2 instanceof  Map)) return;
-
-				LOG.debug("getAsyncDetails:: obj2={}", obj2.keySet() );  
-
-				String messages = "{}"; // obj.get("messages").toString(); /// ASYNC continue
-				
-				LOG.debug("getAsyncDetails:: messages={}", messages );  
-
-				JSONObject message = new JSONObject(messages);
-				messages = message.keySet().toString();
-				
-				LOG.debug("getAsyncDetails:: messages={}", messages );  
-
-
-			});
-
-			LOG.debug("getAsyncDetails:: paths={}", paths);  
-
-		});
-
-
-		return res;
+		return asyncIndex().getResources();
 	}
 
 	
 	public static boolean isAsyncAPI() {
-		boolean res = swagger!=null && swagger.has("asyncapi");
+		boolean res = context().swagger!=null && context().swagger.has("asyncapi");
 		return res;
 	}
 
@@ -949,34 +983,6 @@ public class APIModel {
 				.collect(toList());
 	}
 
-	@LogMethod(level=LogLevel.DEBUG)
-	private static Stream<JSONObject> getAllResponses() {
-		
-//		LOG.debug("getAllResponses: getPaths={}", 
-//				getPaths().stream()
-//				.map(APIModel::getPathObjectByKey)
-//				.map(APIModel::getChildElements)
-//				.flatMap(List::stream)
-//				.filter(APIModel::hasResponses)
-//				.map(APIModel::getResponseEntity)
-//				.map(APIModel::getNormalResponses)
-//				.flatMap(List::stream)
-//				.map(APIModel::getResourceFromResponse)
-//				.flatMap(List::stream)
-//				
-//				.collect(toSet())
-//				
-//				);
-
-		return getPaths().stream()
-				.map(APIModel::getPathObjectByKey)
-				.map(APIModel::getChildElements)
-				.flatMap(List::stream)
-				.filter(APIModel::hasResponses)
-				.map(APIModel::getResponseEntity);
-
-	}
-
 	@LogMethod(level=LogLevel.DEBUG)
 	private static JSONObject getResponseEntity(JSONObject obj) {
 		return obj.optJSONObject(RESPONSES);
@@ -992,8 +998,8 @@ public class APIModel {
 			String ref=obj.optString(REF);
 			LOG.debug("getResourceFromResponse: ref={}", ref );
 
-			if(swagger.optQuery(ref)!=null) {
-				Object o = swagger.optQuery(ref);
+			if(context().swagger.optQuery(ref)!=null) {
+				Object o = context().swagger.optQuery(ref);
 				if(o != null && o instanceof JSONObject) obj = (JSONObject)o;
 			}
 			// obj = APIModel.getDefinitionByReference(obj.optString(REF));
@@ -1045,8 +1051,7 @@ public class APIModel {
 	private static List<String> getSubclassesByResource(String resource) {
 		List<String> res = new LinkedList<>();
 
-		res = APIModel.getAllDefinitions().stream()
-				.filter(subResource -> isSubclass(subResource,resource))
+		res = APIModel.filterMVOFVO(getHierarchy().getChildren(resource)).stream()
 				.filter(APIModel::includeSubclass)
 				.collect(toList());
 
@@ -1057,40 +1062,7 @@ public class APIModel {
 	
 	@LogMethod(level=LogLevel.DEBUG)
 	private static boolean includeSubclass(String resource) {
-		
-		List<String> excludePattern = Config.getSubClassesExcludeRegexp();
-
-		boolean exclude = excludePattern.stream().anyMatch(pattern -> resource.matches(pattern));
-				
-		return !exclude;
-	}
-	
-	@LogMethod(level=LogLevel.DEBUG)
-	private static boolean isSubclass(String subResource, String resource) {
-		boolean res=false;
-		
-		// JSONObject sub = getDefinition(subResource);
-		JSONArray allOfs = APIModel.getAllOfForResource(subResource);
-		Iterator<Object> iter = allOfs.iterator();
-		while(iter.hasNext()) {
-			Object o = iter.next();
-			if(o instanceof JSONObject) {
-				res = res || isSubclass((JSONObject)o,resource);
-			}
-		}
-		return res;
-	}
-	
-	
-	@LogMethod(level=LogLevel.DEBUG)
-	private static boolean isSubclass(JSONObject refs, String resource) {
-		boolean res=false;
-		
-		String ref = refs.optString(REF);
-		
-		res = !ref.isEmpty() && ref.endsWith("/" + resource);
-
-		return res;
+		return !Config.isExcludedSubClass(resource);
 	}
 	
 	
@@ -1147,7 +1119,11 @@ public class APIModel {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static boolean isSimpleType(String type) {
-		JSONObject definition = getDefinition(type);
+		return context().definitionStore.is(DefinitionStore.Kind.SIMPLE, type, APIModel::classifySimpleType);
+	}
+
+	private static boolean classifySimpleType(String type) {
+		JSONObject definition = getDefinitionView(type);
 		LOG.debug("isSimpleType: type={} definition={}", type, definition);
 		
 		boolean res=isSimpleType(definition);
@@ -1209,8 +1185,12 @@ public class APIModel {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static boolean isCustomSimple(String type) {
+		return context().definitionStore.is(DefinitionStore.Kind.CUSTOM_SIMPLE, type, APIModel::classifyCustomSimple);
+	}
+
+	private static boolean classifyCustomSimple(String type) {
 		boolean res=false;
-		JSONObject definition = getDefinition(type);
+		JSONObject definition = getDefinitionView(type);
 //
 //		if(definition!=null) {
 //			// res = definition.has(TYPE) && ARRAY.contentEquals(definition.optString(TYPE));
@@ -1220,7 +1200,7 @@ public class APIModel {
 		
 		res = APIModel.isArrayType(type);
 		if(res) {
-			JSONObject property = APIModel.getDefinition(type);
+			JSONObject property = APIModel.getDefinitionView(type);
 			
 			type = APIModel.getTypeName(property, type);
 
@@ -1256,9 +1236,9 @@ public class APIModel {
 	@LogMethod(level=LogLevel.DEBUG)
 	public static String getReferencedType(String type, String property) {
 		
-		if(cache.hasReferencedType(type,property)) {
-			String res = cache.getReferencedType(type,property);
-			return res;
+		String cached = context().cache.findReferencedType(type,property);
+		if(cached!=null) {
+			return cached;
 		}
 		
 		JSONObject specification = APIModel.getResourceExpanded(type);
@@ -1267,7 +1247,7 @@ public class APIModel {
 
 		String res = getReferencedType(specification,property);	  
 		
-		cache.addReferencedType(type,property,res);
+		context().cache.addReferencedType(type,property,res);
 		
 		return res;
 	}
@@ -1314,7 +1294,7 @@ public class APIModel {
 
 		}
 		
-		if(APIModel.getDefinition(type)!=null) {
+		if(APIModel.getDefinitionView(type)!=null) {
 			LOG.debug("getTypeByReference: ref={} type={}",  ref, type);
 
 			return type; 
@@ -1412,10 +1392,14 @@ public class APIModel {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static JSONObject getDefinitionByReference(String ref) {
+		return getDefinitionByReference(ref, true);
+	}
+	
+	private static JSONObject getDefinitionByReference(String ref, boolean copy) {
 		JSONObject res = new JSONObject();
 
 		try {
-			Object obj = APIModel.swagger.optQuery(ref);
+			Object obj = context().swagger.optQuery(ref);
 			if(obj!=null) {
 				if(obj instanceof JSONObject) {
 					res = (JSONObject) obj;
@@ -1448,7 +1432,7 @@ public class APIModel {
 					LOG.debug("############# getDefinitionByReference: ref={} res={}",  ref, res.keySet() );
 					if(res.has(PROPERTIES)) LOG.debug("getDefinitionByReference: ref={} properties={}",  ref, res.optJSONObject(PROPERTIES).keySet() );
 	
-					if(res.has(PROPERTIES)) return new JSONObject(res.toString());
+					if(res.has(PROPERTIES)) return copy ? FrozenJSON.thaw(res) : res;
 				}
 				
 			}
@@ -1460,9 +1444,9 @@ public class APIModel {
 		LOG.debug("getDefinitionByReference: ref={} hashIndex={} externalSoure={} source={}",  ref, hashIndex );
 		if(hashIndex>0) {
 			String externalSource=ref.substring(0, hashIndex);
-			LOG.debug("getDefinitionByReference: ref={} hashIndex={} externalSoure={} source={}",  ref, hashIndex, externalSource, swaggerSource);
+			LOG.debug("getDefinitionByReference: ref={} hashIndex={} externalSoure={} source={}",  ref, hashIndex, externalSource, context().swaggerSource);
 			
-			String candidateExternalSource=Utils.getRelativeFile(swaggerSource, externalSource);
+			String candidateExternalSource=Utils.getRelativeFile(context().swaggerSource, externalSource);
 			
 			LOG.debug("getDefinitionByReference: ref={} candidateExternalSource={}",  ref, candidateExternalSource);
 
@@ -1473,7 +1457,7 @@ public class APIModel {
 		if(ref.startsWith("#")) {
 			String[] parts=ref.split("/");
 	
-			if(parts[0].contentEquals("#")) res = swagger;
+			if(parts[0].contentEquals("#")) res = context().swagger;
 	
 			for(int idx=1; idx<parts.length; idx++) {
 				if(res.has(parts[idx])) res = res.optJSONObject(parts[idx]);
@@ -1522,20 +1506,20 @@ public class APIModel {
 		
 		LOG.debug("getPropertyObjectForResource: resource={} {}={}",  coreResource, FLATTEN_INHERITANCE, Config.getBoolean(FLATTEN_INHERITANCE));
 
-		if(resourcePropertyMap.containsKey(coreResource)) {
+		if(context().resourcePropertyMap.containsKey(coreResource)) {
 			
 			LOG.debug("getPropertyObjectForResource: resource={} CACHED",  coreResource);
 
-			return resourcePropertyMap.get(coreResource);
+			return context().resourcePropertyMap.get(coreResource);
 			
 		} else {
 			res = getDefinition(coreResource, PROPERTIES);
 			
 			if(res.isEmpty() && APIModel.isAsyncAPI()) {
 				
-				res = getDefinition(coreResource);
+				res = getDefinitionView(coreResource);
 
-				if(res.isEmpty()) {
+				if(res==null || res.isEmpty()) {
 					res = getAsyncMessageDefinition(coreResource);
 				}
 
@@ -1551,15 +1535,15 @@ public class APIModel {
 				
 				LOG.debug("getPropertyObjectForResource: resource={} allOfs={}",  coreResource, allOfs.keySet());
 
-				res = mergeJSON(res,allOfs); // ???? TBD - 2023-06-19
+				res = mergeJSON(FrozenJSON.thaw(res),allOfs); // ???? TBD - 2023-06-19
 				
-				resourcePropertyMap.put(coreResource, res);
+				context().resourcePropertyMap.put(coreResource, res);
 				
 				LOG.debug("getPropertyObjectForResource: resource={} properties={}",  coreResource, res.keySet());
 
 			}
 			
-			resourcePropertyMap.put(coreResource, res);
+			context().resourcePropertyMap.put(coreResource, res);
 
 		}
 
@@ -1567,7 +1551,6 @@ public class APIModel {
 	}
 
 	
-    static Map<String,AsyncResourceInfo> asyncDetails = null;
     
 	private static JSONObject getAsyncMessageDefinition(String node) {
 		JSONObject res = new JSONObject();
@@ -1575,7 +1558,7 @@ public class APIModel {
 		LOG.debug("getAsyncMessageDefinition: node={}", node );
 
 		// Object obj = swagger.query("#/components/messages/" + node);
-		Object obj = swagger.query("#/components/schemas/" + node);
+		Object obj = context().swagger.query("#/components/schemas/" + node);
 
 		if(obj!=null) {
 			LOG.debug("getAsyncMessageDefinition: node={} obj={}", node, obj.toString());
@@ -1591,12 +1574,12 @@ public class APIModel {
 	public static JSONObject getFlattenAllOfs(String resource) {
 		LOG.debug("getFlattenAllOfs: resource={}", resource);
 		
-		if(flattened.containsKey(resource)) return flattened.get(resource);
+		if(context().flattened.containsKey(resource)) return context().flattened.get(resource);
 		
-		flattened.put(resource, new JSONObject());
+		context().flattened.put(resource, new JSONObject());
 		
 		final JSONObject target = new JSONObject();
-		JSONObject definition = getDefinition(resource);
+		JSONObject definition = getDefinitionView(resource);
 
 		if(definition!=null && definition.has(ALLOF)) {
 			
@@ -1626,7 +1609,7 @@ public class APIModel {
 			}
 		}
 		
-		flattened.put(resource, target);
+		context().flattened.put(resource, target);
 		
 		return target;
 	}
@@ -1683,7 +1666,7 @@ public class APIModel {
 	private static JSONObject getDefinition(String ... args) {
 		JSONObject res = null;
 		if(args.length>0) {
-			res = getDefinition(args[0]);
+			res = getDefinitionView(args[0]);
 			int idx=1;
 			while(res!=null && idx<args.length) {
 				res = res.optJSONObject(args[idx]);
@@ -1693,8 +1676,7 @@ public class APIModel {
 
 		if(res==null) res=new JSONObject();
 		
-		// return res;
-		return new JSONObject(res.toString()); 
+		return res;
 		
 	}
 
@@ -1716,7 +1698,7 @@ public class APIModel {
 		JSONArray res = null;
 
 		if(args.length>0) {
-			obj = getDefinition(args[0]);
+			obj = getDefinitionView(args[0]);
 			int idx=1;
 			while(obj!=null && idx<args.length-1) {
 				obj = obj.optJSONObject(args[idx]);
@@ -1732,9 +1714,7 @@ public class APIModel {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static boolean isEnumType(String type) {
-		boolean res=false;
-		JSONObject definition = getDefinition(type);
-		return isEnumDefinition(definition);
+		return context().definitionStore.is(DefinitionStore.Kind.ENUM, type, t -> isEnumDefinition(getDefinitionView(t)));
 		
 //		if(definition!=null) {
 //			res = definition.has(ENUM);
@@ -1754,9 +1734,10 @@ public class APIModel {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static boolean isOneOfType(String type) {
-		boolean res=false;
-		JSONObject definition = getDefinition(type);
-		return definition!=null && definition.has(ONEOF);
+		return context().definitionStore.is(DefinitionStore.Kind.ONE_OF, type, t -> {
+			JSONObject definition = getDefinitionView(t);
+			return definition!=null && definition.has(ONEOF);
+		});
 		
 //		if(definition!=null) {
 //			res = definition.has(ENUM);
@@ -1827,19 +1808,13 @@ public class APIModel {
 	
 	@LogMethod(level=LogLevel.DEBUG)
 	public static Set<String> getPaths() {
-		if(swagger!=null && swagger.has(PATHS))
-			return swagger.getJSONObject(PATHS).keySet();
+		if(context().swagger!=null && context().swagger.has(PATHS))
+			return context().swagger.getJSONObject(PATHS).keySet();
 		else
 			return new HashSet<>();
 	}
 
 
-	@LogMethod(level=LogLevel.DEBUG)
-	private static List<JSONObject> getChildElements(JSONObject obj) {
-		return new JSONObjectHelper(obj).getChildElements();
-	}
-
-
 	@LogMethod(level=LogLevel.DEBUG)
 	private static List<JSONObject> getNormalResponses(JSONObject respObj) {
 		if(respObj==null) return new LinkedList<>();
@@ -1860,7 +1835,7 @@ public class APIModel {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	private static JSONObject getPathObjectByKey(String path) {
-		JSONObject res = swagger.getJSONObject(PATHS).getJSONObject(path);
+		JSONObject res = context().swagger.getJSONObject(PATHS).getJSONObject(path);
 		
 		LOG.debug("getPathObjectByKey:: path={} res={}", path, res);
 
@@ -1882,6 +1857,18 @@ public class APIModel {
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static JSONObject getDefinition(String node) {
+		return FrozenJSON.thaw(getDefinitionView(node));
+	}
+
+	//
+	// read-only and shared definition, resolved once and kept in the definition store of the model
+	// use getDefinition() for a copy that can be modified
+	//
+	public static JSONObject getDefinitionView(String node) {
+		return context().definitionStore.get(node, APIModel::resolveDefinition);
+	}
+
+	private static JSONObject resolveDefinition(String node) {
 
 		JSONObject res;
 		JSONObject definitions = getDefinitions();
@@ -1911,28 +1898,27 @@ public class APIModel {
 		}
 
 		if(res!=null && res.has(REF)) {
-			res = getDefinitionByReference(res.getString(REF));
+			res = getDefinitionByReference(res.getString(REF), false);
 		}
 		
 		LOG.debug("getDefinition: node={} res={}", node, res);
 
-		if(res!=null) res = new JSONObject(res.toString());
-		
 		return res;
 	}
 
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static JSONObject getDefinitions() {
-		if(swagger!=null && allDefinitions.keySet().isEmpty()) {	
+		if(context().swagger!=null && context().allDefinitions.keySet().isEmpty()) {	
 			
 			LOG.debug("APIModel::getDefinitions:: get all definitions");
 			
-			addExternalReferences(swagger);
+			prefetchExternalReferences(context().swagger);
+			addExternalReferences(context().swagger);
 			
 			JSONObject res=null;
 			if(isAsyncAPI()) {
-				JSONObject components = swagger.optJSONObject("components");
+				JSONObject components = context().swagger.optJSONObject("components");
 				if(components!=null) {	
 					 res = components.optJSONObject("schemas");		
 					
@@ -1953,10 +1939,10 @@ public class APIModel {
 					 
 				}
 				
-			} else if(isOpenAPIv2(swagger))
-				res=swagger.optJSONObject("definitions");
+			} else if(isOpenAPIv2(context().swagger))
+				res=context().swagger.optJSONObject("definitions");
 			else {
-				JSONObject components = swagger.optJSONObject("components");
+				JSONObject components = context().swagger.optJSONObject("components");
 				if(components!=null) res = components.optJSONObject("schemas");
 				
 //				components = swagger.optJSONObject("components");
@@ -1971,14 +1957,61 @@ public class APIModel {
 
 			}
 			
-			if(res!=null) allDefinitions = res;
+			if(res!=null) context().allDefinitions = res;
 			
-			LOG.debug("APIModel::getDefinitions:: keys={}", allDefinitions.keySet());
+			context().definitionStore.clear();
+			
+			LOG.debug("APIModel::getDefinitions:: keys={}", context().allDefinitions.keySet());
 
 		}
-		return allDefinitions;
+		return context().allDefinitions;
+	}
+
+
+	/*
+	 * reads the external documents referenced by the specification concurrently, getExternal then uses the
+	 * content prefetched for this context (once)
+	 */
+	private static void prefetchExternalReferences(JSONObject api) {
+		if(context().swaggerSource==null) return;
+		
+		Set<String> sources = new LinkedHashSet<>();
+		collectExternalSources(api, sources);
+		
+		LOG.debug("APIModel::prefetchExternalReferences:: sources={}", sources);
+
+		sources.removeAll(context().prefetched.keySet());
+
+		if(!sources.isEmpty()) context().prefetched.putAll(ExternalSources.prefetch(sources));
 	}
 
+	private static void collectExternalSources(JSONObject api, Set<String> sources) {
+		if(api==null) return;
+		
+		for(String property : api.keySet()) {
+			if(property.contentEquals(REF) && api.optString(property).length()>0) {
+				String ref=api.optString(property);
+				if(!isExternalReference(ref) || context().externals.containsKey(getKey(ref))) continue;
+				
+				String externalSource = getExternalReference(ref);
+				if(externalSource==null || externalSource.isEmpty()) continue;
+				if(Schema.getKeys().contains(Utils.getLastPart(externalSource, "/"))) continue;
+				
+				String candidateExternalSource=Utils.getRelativeFile(context().swaggerSource, externalSource);
+				if(candidateExternalSource!=null) sources.add(candidateExternalSource);
+				
+			} else if(property.contentEquals(PROPERTIES)) {
+				// as addExternalReferences
+			} else if(api.optJSONObject(property)!=null) {
+				collectExternalSources(api.optJSONObject(property), sources);
+			} else if(api.optJSONArray(property)!=null) {
+				JSONArray array=api.optJSONArray(property);
+				for(int i=0; i<array.length(); i++) {
+					collectExternalSources(array.optJSONObject(i), sources);
+				}
+			}
+		}
+	}
 
 	public static void addExternalReferences(JSONObject api) {
 		if(api==null || api.isEmpty()) return;
@@ -2022,11 +2055,11 @@ public class APIModel {
 		//String localRef=ref.substring(ref.indexOf("#/"));
 		String localRef=getExternalReference(ref);
 		
-		if(swagger!=null) {
+		if(context().swagger!=null) {
 			String parts[] = localRef.replace("#/", "").split("/");
 		
 			LOG.debug("addDefinition: ref={} localRef={} parts={}",  ref, localRef, parts);
-			JSONObject target=swagger;
+			JSONObject target=context().swagger;
 			if(parts.length>1) {
 				for(int idx=0; idx<parts.length-1; idx++) {
 					
@@ -2068,7 +2101,7 @@ public class APIModel {
 						removeExternalReferencePart(definition); // 2024-11-05
 
 						target.put(type,  definition);
-						allDefinitions.put(type, definition);
+						context().allDefinitions.put(type, definition);
 
 			    		addResource(type, definition);
 
@@ -2240,7 +2273,7 @@ public class APIModel {
 	private static JSONObject getExternalDefinition(JSONObject external, String ref) {
 		JSONObject res=null;
 		
-		if(externalDefinitions.containsKey(ref)) return externalDefinitions.get(ref);
+		if(context().externalDefinitions.containsKey(ref)) return context().externalDefinitions.get(ref);
 		
 		if(isExternalReference(ref)) {
 			// String localRef=getExternalReference(ref);
@@ -2291,21 +2324,21 @@ public class APIModel {
 		
 		String key = getKey(ref);
 		
-		if(externals.containsKey(key)) {
-			res=externals.get(key);
+		if(context().externals.containsKey(key)) {
+			res=context().externals.get(key);
 			
-			LOG.debug("getExternal: FOUND key={} keys={} ",  key, externals.keySet());
+			LOG.debug("getExternal: FOUND key={} keys={} ",  key, context().externals.keySet());
 
 		} else {
 				
-			if(seenRefs.contains(ref) && !externals.isEmpty()) {
+			if(context().seenRefs.contains(ref) && !context().externals.isEmpty()) {
 				LOG.debug("getExternal: RECURSIVE ref={}", ref );
-				LOG.debug("getExternal: externals keys={}", externals.keySet() );
+				LOG.debug("getExternal: externals keys={}", context().externals.keySet() );
 
 				return new JSONObject();
 			}
 
-			seenRefs.add(ref);
+			context().seenRefs.add(ref);
 
 			String externalSource = APIModel.getExternalReference(ref);
 			if(externalSource!=null && !externalSource.isEmpty()) {	
@@ -2320,16 +2353,18 @@ public class APIModel {
 					Schema schema = Schema.getSchemaByKey(baseExternalSource);
 					res = schema.getDefinitions();
 
+					addExternalInput(SCHEMA_INPUT + baseExternalSource, res);
+
 					LOG.debug("... ### found in schema baseExternalSource={} key={} res={}",  baseExternalSource, key, res);
 
-					externals.put(key, res);
+					context().externals.put(key, res);
 
 					
 				} else {
 				
-					LOG.debug("... retrieve external source {} key={} keys={}",  externalSource, key, externals.keySet());
+					LOG.debug("... retrieve external source {} key={} keys={}",  externalSource, key, context().externals.keySet());
 						
-					String candidateExternalSource=Utils.getRelativeFile(swaggerSource, externalSource);							
+					String candidateExternalSource=Utils.getRelativeFile(context().swaggerSource, externalSource);							
 					if(candidateExternalSource!=null) {		
 						
 						// candidateExternalSource = candidateExternalSource.replace("0//", "0/");
@@ -2337,7 +2372,8 @@ public class APIModel {
 						LOG.debug("getExternal: readJSONOrYaml candidateExternalSource={}", candidateExternalSource);
 		
 						final boolean failIfNotFound=false;
-						res=Utils.readJSONOrYaml(candidateExternalSource,failIfNotFound);
+						res=Utils.readJSONOrYaml(candidateExternalSource,context().prefetched.remove(candidateExternalSource),failIfNotFound);
+						addExternalInput(candidateExternalSource, res);
 						
 						if(res!=null) {
 							
@@ -2345,7 +2381,7 @@ public class APIModel {
 							
 							LOG.debug("getExternal: readJSONOrYaml candidateExternalSource={} schema={}", candidateExternalSource, schema);
 
-							externals.put(key, res);
+							context().externals.put(key, res);
 							
 				    		APIModel.addResource(schema.getTitle(), schema.getDefinitions());
 
@@ -2354,6 +2390,7 @@ public class APIModel {
 	
 							candidateExternalSource = candidateExternalSource.replace("../", "Tmf/");
 							res=Utils.readJSONOrYaml(candidateExternalSource,failIfNotFound);
+							addExternalInput(candidateExternalSource, res);
 					
 							LOG.debug("getExternal: readJSONOrYamlcandidateExternalSource={} res={}", candidateExternalSource, res);
 	
@@ -2384,18 +2421,13 @@ public class APIModel {
 	public static List<String> getPaths(String resource, String operation) {
 		List<String> res = new LinkedList<>();
 
-		if(swagger==null) return res;
-
-		JSONObject allpaths = swagger.optJSONObject(PATHS);
+		if(context().swagger==null) return res;
 
-		String prefix = "/" + resource.toUpperCase();
+		String method = operation.toLowerCase();
 
-		allpaths.keySet().stream()
-				.filter(path -> isPathForResource(path,prefix))
-				.forEach(path -> {
-					JSONObject allOps = allpaths.optJSONObject(path);
-					if(allOps!=null && allOps.has(operation.toLowerCase())) res.add(path); 
-				});
+		pathIndex().getPathsBySegment(resource).stream()
+				.filter(path -> pathIndex().getOperation(path, method)!=null)
+				.forEach(res::add);
 
 		return res;
 
@@ -2405,35 +2437,12 @@ public class APIModel {
 	public static List<String> getPaths(String resource) {
 		List<String> res = new LinkedList<>();
 
-		if(swagger==null) return res;
+		if(context().swagger==null) return res;
 
-		JSONObject allpaths = swagger.optJSONObject(PATHS);
+		// paths of the form .../resource or .../resource/{id}
+		res = new LinkedList<>(pathIndex().getPathsByName(resource));
 
-		LOG.debug("getPaths: resource={} allpaths={}", resource, allpaths.keySet());
-
-		String prefix = "/" + resource.toUpperCase();
-
-		if(allpaths!=null) {
-			res = allpaths.keySet().stream()
-					.filter(path -> isPathForResource(path,prefix))
-					.collect(toList());
-		}
-		
 		LOG.debug("getPaths: resource={} res={}", resource, res);
-
-		if(allpaths!=null) {
-			
-			String regexp = ".*\\/" + resource.toUpperCase() + "(\\/\\{[a-zA-Z0-9]+\\})?";
-			Pattern pattern = Pattern.compile(regexp);
-
-			res = allpaths.keySet().stream()
-                    // .filter(pattern.asPredicate())
-                    .filter(s -> pattern.matcher(s.toUpperCase()).matches())
-                    .collect(Collectors.toList());
-
-			LOG.debug("getPaths: resource={} res={}", resource, res);
-			
-		}
 		
 		if(res.isEmpty()) {
 			
@@ -2462,41 +2471,6 @@ public class APIModel {
 		
 	}
 
-	@LogMethod(level=LogLevel.DEBUG)
-	private static boolean isPathForResource(String path, String prefix) {
-		
-		LOG.debug("isPathForResource: path={} prefix={}", path, prefix);
-
-		List<String> parts = Arrays.stream(path.split("/"))
-				.filter(s -> !s.isEmpty())
-				.filter(s -> !s.matches("\\{.+\\}"))
-				.collect(Collectors.toList());
-		
-		Collections.reverse(parts);
-		
-		if(!parts.isEmpty()) {
-			String candidate = "/" + parts.get(0).toUpperCase();
-
-			if(candidate.contentEquals(prefix)) {
-				LOG.debug("isPathForResource: path={} prefix={} candidate={}", path, prefix, candidate);
-				return candidate.contentEquals(prefix);
-			}
-			
-
-		}
-		
-		return false;
-		
-//		if(path.toUpperCase().contains(prefix)) {
-//			Out.debug("isPathForResource: path={} prefix={} parts={}", path, prefix, parts);
-//		}
-//		
-//		// return path.equalsIgnoreCase(prefix) || path.toUpperCase().startsWith(prefix+"/");
-//		
-//		return path.equalsIgnoreCase(prefix) || path.toUpperCase().endsWith(prefix+"/");
-
-	}
-
 	@LogMethod(level=LogLevel.DEBUG)
 	public static String getOperationDescription(String path, String operation) {
 		String res="";
@@ -2532,7 +2506,7 @@ public class APIModel {
 	}
 
 	private static void setSeenAPImessage() {
-		firstAPImessage=false;
+		context().firstAPImessage=false;
 	}
 
 	@LogMethod(level=LogLevel.DEBUG)
@@ -2692,7 +2666,7 @@ public class APIModel {
 		
 		Predicate<String> isEvent = s -> events.stream().anyMatch( e -> s.toUpperCase().contains(e.toUpperCase()) );
 		
-		Object requests = APIModel.swagger.optQuery("#/components/requestBodies");
+		Object requests = context().swagger.optQuery("#/components/requestBodies");
 		if(requests!=null) {
 			JSONObject req = (JSONObject) requests;
 			
@@ -2727,18 +2701,17 @@ public class APIModel {
 				.collect(toList());
 	}
 
-	static List<String> excludedResourceExtensions = null;
 	
 	public static boolean isExcludedResourceExtensions(String s) {
 		
-		if(excludedResourceExtensions==null) {
-			excludedResourceExtensions = Config.get("excludedResourceExtensions");
-			if(excludedResourceExtensions.isEmpty()) {
-				excludedResourceExtensions = Arrays.asList("_MVO", "_FVO", "_RES");
+		if(context().excludedResourceExtensions==null) {
+			context().excludedResourceExtensions = Config.get("excludedResourceExtensions");
+			if(context().excludedResourceExtensions.isEmpty()) {
+				context().excludedResourceExtensions = Arrays.asList("_MVO", "_FVO", "_RES");
 			}
 		}
 		
-	   boolean res = excludedResourceExtensions.stream().anyMatch(ext -> s.endsWith(ext));
+	   boolean res = context().excludedResourceExtensions.stream().anyMatch(ext -> s.endsWith(ext));
 	   
 	   return res;
 	   
@@ -2768,12 +2741,12 @@ public class APIModel {
 	}
 
 	public static JSONObject getInfo() {
-		return swagger.optJSONObject("info");
+		return context().swagger.optJSONObject("info");
 	}
 
 	public static List<String> getEnumValues(String orphanEnum) {
 		List<String> res = new LinkedList<>();
-		JSONObject def = getDefinition(orphanEnum);
+		JSONObject def = getDefinitionView(orphanEnum);
 		if(def!=null && def.has("enum")) {
 			JSONArray values = def.optJSONArray("enum");
 			if(values!=null) res.addAll(values.toList().stream().map(Object::toString).collect(toList()));
@@ -2782,19 +2755,36 @@ public class APIModel {
 	}
 
 	public static Collection<String> getAllReferenced() {
-		List<String> res = new LinkedList<>();
-
+		ReferenceIndex references = getReferenceIndex();
+		
+		Set<String> res = new LinkedHashSet<>();
 		for(String resource: getAllDefinitions() ) {
-			res.addAll( getAllReferenced(resource) );
+			res.addAll( references.getPropertyReferences(resource) );
 		}
 
-		return res.stream().distinct().collect(toList());
+		return new LinkedList<>(res);
+	}
+
+	public static ReferenceIndex getReferenceIndex() {
+		getDefinitions();
+		return context().definitionStore.getReferences(() -> new ReferenceIndex(new LinkedList<>(getDefinitions().keySet()), APIModel::getDefinitionView, APIModel::getAllReferenced));
+	}
+
+	public static Set<String> getReferencedBy(String definition) {
+		return new LinkedHashSet<>(getReferenceIndex().getReferencedBy(definition));
+	}
+
+	/*
+	 * the definitions reachable by references from the resources
+	 */
+	public static Set<String> getReachableDefinitions(Collection<String> resources) {
+		return new LinkedHashSet<>(getReferenceIndex().getReachable(resources));
 	}
 
 	private static List<String> getAllReferenced(String resource) {
 		List<String> res = new LinkedList<>();
 
-		JSONObject def = getDefinition(resource);
+		JSONObject def = getDefinitionView(resource);
 
 		if(def!=null && def.has(PROPERTIES) && def.optJSONObject(PROPERTIES)!=null) {
 
@@ -2891,13 +2881,13 @@ public class APIModel {
 				if(formatMapping!=null) {
 					res=formatMapping;
 	
-				} else if (Config.getFormatToType().containsKey(format)) {
-					res = Config.getFormatToType().get(format);
+				} else if (Config.getMappedFormat(format)!=null) {
+					res = Config.getMappedFormat(format);
 	
 				} else {
-					if(!typeWarnings.contains(format) ) {
+					if(!context().typeWarnings.contains(format) ) {
 						Out.debug("... format: {} has no mapping, using type and format", format);
-						typeWarnings.add(format);
+						context().typeWarnings.add(format);
 					}
 					res = property.getString(TYPE) + '/' + format;
 				}
@@ -2918,8 +2908,8 @@ public class APIModel {
 					Out.printOnce("... expecting the {} property to be a string value in {}", TYPE, property.toString(2));
 				}  else  if(typeMapping.containsKey(type)) {
 					res = typeMapping.get(type);
-				} else if(Config.getTypeMapping().containsKey(type)) {
-					res = Config.getTypeMapping().get(type);
+				} else if(Config.getMappedType(type)!=null) {
+					res = Config.getMappedType(type);
 				} else {
 					res = type;
 				}
@@ -2950,7 +2940,7 @@ public class APIModel {
 						
 					} else if(!property.has(ALLOF) && !property.has(ONEOF) && !name.contentEquals("value")) {
 
-						Out.printOnce("... Possible issue: No type information for {} in '{}' ({}) - using '{}'", name, property.toString(2), Utils.getBaseFileName(swaggerSource), "{}");
+						Out.printOnce("... Possible issue: No type information for {} in '{}' ({}) - using '{}'", name, property.toString(2), Utils.getBaseFileName(context().swaggerSource), "{}");
 						res = "{}"; // property.toString(); // should not really happen
 						
 					} else if(property.has(ALLOF) || property.has(ONEOF) || name.contentEquals("value")) {
@@ -3021,7 +3011,7 @@ public class APIModel {
 			} else if(isAsyncAPI() ) {
 				
 				if(!property.has(ALLOF) && !property.has(ONEOF) && !name.contentEquals("value")) {
-					Out.printOnce("... Possible issue: No type information in '{}' ({}) - using '{}'", property, Utils.getBaseFileName(swaggerSource), "{}");
+					Out.printOnce("... Possible issue: No type information in '{}' ({}) - using '{}'", property, Utils.getBaseFileName(context().swaggerSource), "{}");
 				}
 				
 				if(!isSecialProperty(name)) { 
@@ -3047,12 +3037,12 @@ public class APIModel {
 					
 				} else if(!property.has(ALLOF) && !property.has(ONEOF) && !name.contentEquals("value")) {
 					
-					Out.printOnce("... Possible issue: No type information in '{}' ({}) - using '{}'", property, Utils.getBaseFileName(swaggerSource), "{}");
+					Out.printOnce("... Possible issue: No type information in '{}' ({}) - using '{}'", property, Utils.getBaseFileName(context().swaggerSource), "{}");
 					res="{}";
 					
 				} else if(!isSecialProperty(name)) {
 					
-					Out.printOnce("... Possible issue: No type information in '{}' ({}) - using '{}'", property, Utils.getBaseFileName(swaggerSource), "{}");
+					Out.printOnce("... Possible issue: No type information in '{}' ({}) - using '{}'", property, Utils.getBaseFileName(context().swaggerSource), "{}");
 					res="{}";
 					
 				} else if(property.has(ALLOF) || property.has(ONEOF) || name.contentEquals("value")) {
@@ -3221,10 +3211,10 @@ public class APIModel {
 		
 		String key = resource + "_" + property;
 		
-		if(isRequiredSeen.containsKey(key)) {
-			res=isRequiredSeen.get(key);
+		if(context().isRequiredSeen.containsKey(key)) {
+			res=context().isRequiredSeen.get(key);
 		} else {
-			JSONObject definition = getDefinition(resource);
+			JSONObject definition = getDefinitionView(resource);
 			
 			if(definition!=null) {
 				res = isRequired(definition,property);
@@ -3233,7 +3223,7 @@ public class APIModel {
 					res = res || isRequired(resource + "_FVO", property);
 				}
 				
-				isRequiredSeen.put(key, res);
+				context().isRequiredSeen.put(key, res);
 
 				LOG.debug("isRequired: resource={} property={} res={}", resource, property, res);
 
@@ -3249,8 +3239,8 @@ public class APIModel {
 		
 		String key = resource + "_" + property;
 
-		if(isDeprecatedSeen.containsKey(key)) {
-			res=isDeprecatedSeen.get(key);
+		if(context().isDeprecatedSeen.containsKey(key)) {
+			res=context().isDeprecatedSeen.get(key);
 		} else {
 			
 			JSONObject definition = APIModel.getResourceExpanded(resource);
@@ -3264,7 +3254,7 @@ public class APIModel {
 					res = res || isDeprecated(resource + "_FVO", property);
 				}
 				
-				isDeprecatedSeen.put(key, res);
+				context().isDeprecatedSeen.put(key, res);
 				
 				LOG.debug("isDeprecated: resource={} property={} res={}", resource, property, res);
 
@@ -3439,7 +3429,7 @@ public class APIModel {
 	@LogMethod(level=LogLevel.DEBUG)
 	public static String getDescription(String resource) {
 		String res="";
-		JSONObject obj = getDefinition(resource);
+		JSONObject obj = getDefinitionView(resource);
 		
 		LOG.debug("getDescription: resource={} - definition={}", resource, obj);
 		
@@ -3477,7 +3467,7 @@ public class APIModel {
 		if(typeMapping.containsKey(type)) {
 			res = typeMapping.get(type);
 		} else {
-			JSONObject definition = getDefinition(type);
+			JSONObject definition = getDefinitionView(type);
 
 			LOG.debug("getCustomPuml: type={} definition={}", type, definition);
 
@@ -3542,7 +3532,7 @@ public class APIModel {
 						if(Config.getCompressCustomTypes()) {
 							res.append( getCustomPuml(type, allOfMinItems, allOfMaxItems) );
 						} else {
-							definition = getDefinition(type);
+							definition = getDefinitionView(type);
 							// String cardinality = "[" + getCardinality(definition, isRequired, allOfMinItems, allOfMaxItems) + "]";
 							// res.append( type + " " + cardinality + NEWLINE); 
 							// res.append( type + " : " + getCustomPuml(type, Optional.empty(), Optional.empty()) );
@@ -3633,7 +3623,7 @@ public class APIModel {
 		for(String type : customSimpleTypes) {
 			if(!typeMapping.containsKey(type)) {
 
-				JSONObject definition = getDefinition(type);
+				JSONObject definition = getDefinitionView(type);
 
 				LOG.debug("getAllCustomSimpleTypes: type={} definition={}", type, definition);
 
@@ -3725,111 +3715,39 @@ public class APIModel {
 		
 		
 		} else {
-			List<String> allPaths = getPathsForResource(resource);
-	
-			LOG.debug("getOperationsByResource: resource={} allPaths={}", resource, allPaths);
+			// including the paths of the form /.../{..} where /.../ is a path of the resource, e.g. for DELETE operations
+			List<String> res = new LinkedList<>(pathIndex().getOperationsByResource(resource));
 
-			List<String> res = allPaths.stream()
-					.map(APIModel::getPath)
-					.map(JSONObject::keySet)
-					.flatMap(Set::stream)
-					.map(String::toUpperCase)
-					.distinct()
-					.collect(toList());
-	
 			LOG.debug("getOperationsByResource: resource={} res={}", resource, res);
 
-			LOG.debug("getOperationsByResource: resource={} getPaths={}", resource, getPaths());
-
-			// the first part will not find DELETE operations
-			// look for paths of the form /.../{..} where we have seen the first part, i.e. /.../
-			getPaths().forEach( path ->  {
-				String corePath = path.replaceAll("/\\{[^}]+\\}$", "");
-	
-				if(!allPaths.contains(corePath)) return;
-	
-				LOG.debug("getOperationsByResource: resource={} path={} corePath={}", resource, path, corePath);
-
-				LOG.debug("getOperationsByResource: resource={} path={} getOperationsForPath={}", resource, path, getOperationsForPath(path));
-
-				res.addAll( getOperationsForPath(path) );
-	
-			});
-	
-			return res.stream().distinct().map(String::toUpperCase).collect(toList());
-		}
-
-	}
-
-	@LogMethod(level=LogLevel.DEBUG)
-	private static List<String> getOperationsForPath(String path) {
-		List<String> res=new LinkedList<>();
-		JSONObject pathObj = getPathObjectByKey(path);
-		if(pathObj!=null) {
-			res.addAll( pathObj.keySet().stream()
-					.map(String::toUpperCase)
-					.toList() );
+			return res;
 		}
-		return res;
-	}
 
-	@LogMethod(level=LogLevel.DEBUG)
-	private static JSONObject getPath(String path) {
-		return swagger.getJSONObject(PATHS).optJSONObject(path);
 	}
 
-
 	@LogMethod(level=LogLevel.DEBUG)
-	private static List<String> getPathsForResource(String resource) {
-
-		if(!pathsForResources.containsKey(resource)) {
-			pathsForResources.put(resource, new LinkedList<>());
-
-			getPaths().forEach( path ->  {
-
-				LOG.debug("getPathsForResource: resource={} path={}", resource, path);
-
-				List<String> foundResources = getResponseResourcesByPath(path);
-
-				foundResources.forEach(found -> {
-					if(!pathsForResources.containsKey(found)) {
-						pathsForResources.put(found, new LinkedList<>());
-					}
-					pathsForResources.get(found).add(path);
-				});
-
-			});
-
-		}
-
-		LOG.debug("getPathsForResource: resource={} res={}", resource, pathsForResources.get(resource));
-
-		return pathsForResources.get(resource);
-
+	private static List<String> getResponseResourcesByPath(String path) {
+		return pathIndex().getResponseResources(path);
 	}
 
 	@LogMethod(level=LogLevel.DEBUG)
-	private static List<String> getResponseResourcesByPath(String path) {
+	private static List<String> getOperationResponseResources(JSONObject operation) {
+		if(!hasResponses(operation)) return new LinkedList<>();
 
-		return getChildStream(getPathObjectByKey(path))
-				.filter(APIModel::hasResponses)
-				.map(APIModel::getResponseEntity)
-				.map(APIModel::getNormalResponses)
-				.flatMap(List::stream)
+		return getNormalResponses(getResponseEntity(operation)).stream()
 				.map(APIModel::getResourceFromResponse)
 				.flatMap(List::stream)
 				// 2022-11-04 .map(APIModel::getMappedResource)
 				.collect(toList());
-
 	}
 
 	@LogMethod(level=LogLevel.DEBUG)
 	public static String getMappedResource(String resource) {
 		String res=resource;
-		LOG.debug("getMappedResource: resource={} resourceMapping={}", resource, resourceMapping);
+		LOG.debug("getMappedResource: resource={} resourceMapping={}", resource, context().resourceMapping);
 
-		if(resourceMapping!=null && resourceMapping.has(resource) && resourceMapping.optString(resource)!=null) {
-			res = resourceMapping.getString(resource);
+		if(context().resourceMapping!=null && context().resourceMapping.has(resource) && context().resourceMapping.optString(resource)!=null) {
+			res = context().resourceMapping.getString(resource);
 			LOG.debug("getMappedResource: resource={} res={}", resource, res);
 		}
 		return res;
@@ -3838,8 +3756,8 @@ public class APIModel {
 	@LogMethod(level=LogLevel.DEBUG)
 	public static String getReverseResourceMapping(String resource) {
 		String res=resource;
-		if(reverseMapping!=null && reverseMapping.has(resource) && reverseMapping.optString(resource)!=null) {
-			res = reverseMapping.getString(resource);
+		if(context().reverseMapping!=null && context().reverseMapping.has(resource) && context().reverseMapping.optString(resource)!=null) {
+			res = context().reverseMapping.getString(resource);
 		}
 		return res;
 	}
@@ -3894,21 +3812,21 @@ public class APIModel {
 //
 //		}
 				
-		LOG.debug("#1 APIModel::getPropertiesExpanded:: resource={} FOUND?={}", resource, cache.hasPropertiesForResource(resource));
+		Set<String> cached = context().cache.findPropertiesForResource(resource);
 
-		if(cache.hasPropertiesForResource(resource)) {
-			
-			// res.addAll( propertiesForResourceSeen.get(resource) );
+		LOG.debug("#1 APIModel::getPropertiesExpanded:: resource={} FOUND?={}", resource, cached!=null);
+
+		if(cached!=null) {
 			
-			res =  cache.getPropertiesForResource(resource); // propertiesForResourceSeen.get(resource);
+			res = cached;
 			
-			LOG.debug("#1 APIModel::getPropertiesExpanded:: resource={} FOUND res={} setSwaggerDone={}", resource, res, setSwaggerDone);
+			LOG.debug("#1 APIModel::getPropertiesExpanded:: resource={} FOUND res={} setSwaggerDone={}", resource, res, context().setSwaggerDone);
 
 			return res;
 		}
 
-		if(setSwaggerDone) {
-			LOG.debug("##### APIModel::setSwaggerDone={} resource={}", setSwaggerDone, resource);
+		if(context().setSwaggerDone) {
+			LOG.debug("##### APIModel::setSwaggerDone={} resource={}", context().setSwaggerDone, resource);
 		}
 
 		LOG.debug("#0 APIModel::getPropertiesExpanded:: resource={} NOT FOUND", resource);
@@ -3934,9 +3852,7 @@ public class APIModel {
 				// res = new HashSet<>(res);
 				
 				// propertiesForResourceSeen.put(resource, new HashSet<>(res) );
-				cache.addPropertiesForResource(resource,res);
-				
-				res = cache.getPropertiesForResource(resource); // propertiesForResourceSeen.get(resource);
+				res = context().cache.addPropertiesForResource(resource,res);
 				
 				LOG.debug("#0 APIModel::getPropertiesExpanded:: resource={} UPDATED propertiesForResourceSeen keys={}", resource, res);
 
@@ -3979,19 +3895,26 @@ public class APIModel {
 
 		if(resource.isEmpty()) return res;
 				
-		LOG.debug("#1 APIModel::getPropertiesExpandedByRequestBody:: resource={} FOUND?={}", resource, cache.hasPropertiesForResource(resource));
+		Set<String> cached = context().cache.findPropertiesForResource(resource);
 
-		if(cache.hasPropertiesForResource(resource)) {
-			
-			// res.addAll( propertiesForResourceSeen.get(resource) );
+		LOG.debug("#1 APIModel::getPropertiesExpandedByRequestBody:: resource={} FOUND?={}", resource, cached!=null);
+
+		if(cached!=null) {
 			
-			res =  cache.getPropertiesForResource(resource); // propertiesForResourceSeen.get(resource);
+			res = cached;
 			
-			LOG.debug("#1 APIModel::getPropertiesExpandedByRequestBody:: resource={} FOUND res={} setSwaggerDone={}", resource, res, setSwaggerDone);
+			LOG.debug("#1 APIModel::getPropertiesExpandedByRequestBody:: resource={} FOUND res={} setSwaggerDone={}", resource, res, context().setSwaggerDone);
 
 			return res;
 		}
 
+		// the properties of the definitions are expanded in setSwagger unless lazy expansion
+		Set<String> expandOnDemand = context().expandOnDemand;
+		if(expandOnDemand!=null && expandOnDemand.contains(resource)) {
+			Set<String> expanded = getPropertiesExpanded(resource);
+			if(!expanded.isEmpty()) return expanded;
+		}
+
 		LOG.debug("#0 APIModel::getPropertiesExpandedByRequestBody:: resource={} NOT FOUND", resource);
 
 		// CHECK 2025
@@ -4015,9 +3938,7 @@ public class APIModel {
 				// res = new HashSet<>(res);
 				
 				// propertiesForResourceSeen.put(resource, new HashSet<>(res) );
-				cache.addPropertiesForResource(resource,res);
-				
-				res = cache.getPropertiesForResource(resource); // propertiesForResourceSeen.get(resource);
+				res = context().cache.addPropertiesForResource(resource,res);
 				
 				LOG.debug("#0 APIModel::getPropertiesExpanded:: resource={} UPDATED propertiesForResourceSeen keys={}", resource, res);
 
@@ -4040,7 +3961,7 @@ public class APIModel {
 	
 	private static JSONObject getResourceByRequestBody(String resource) {
 		String jsonPointer = "#/components/requestBodies/" + resource;
-		Object o = swagger.optQuery(jsonPointer);
+		Object o = context().swagger.optQuery(jsonPointer);
 		if(o instanceof JSONObject) {
 			
 			JSONObject requestBody = (JSONObject)o;
@@ -4090,7 +4011,7 @@ public class APIModel {
 		
 		LOG.debug("getPropertyObjectForResourceExpanded: node={}",  node);
 
-		JSONObject resource = getDefinition(node);
+		JSONObject resource = getDefinitionView(node);
 		
 		LOG.debug("getPropertyObjectForResourceExpanded: node={} resource={}",  node, resource);
 
@@ -4122,20 +4043,19 @@ public class APIModel {
 	private static JSONObject getResourceExpanded(String node, JSONObject resource) {
 		JSONObject res=null;
 		
-		LOG.debug("#1 APIModel::setSwaggerDone={}", setSwaggerDone);
+		LOG.debug("#1 APIModel::setSwaggerDone={}", context().setSwaggerDone);
 
-		if(cache.hasExpandedResource(node)) {
-			
-			res = cache.getExpandedResource(node);
+		JSONObject cached = context().cache.findExpandedResource(node);
+		
+		if(cached!=null) {
 			
-			if(res==null) res=new JSONObject();
-			return res;
+			return cached;
 			
 		} else {
 					
-			LOG.debug("getResourceExpanded: resource={} not seen before setSwaggerDone={}", node, setSwaggerDone);
+			LOG.debug("getResourceExpanded: resource={} not seen before setSwaggerDone={}", node, context().setSwaggerDone);
 
-			if(resource==null) resource=getDefinition(node);
+			if(resource==null) resource=getDefinitionView(node);
 			
 			// if(resource==null) return null;
 
@@ -4144,7 +4064,8 @@ public class APIModel {
 				LOG.debug("getResourceExpanded: resource={} required={}",  node, resource.optJSONArray(REQUIRED));
 			}
 			
-			res = resource;
+			// merged into and kept in the cache, not the read-only definition
+			res = FrozenJSON.thaw(resource);
 			
 			if(res!=null && res.has(ALLOF)) {
 				
@@ -4182,7 +4103,7 @@ public class APIModel {
 			
 			if(res==null) res=new JSONObject();
 			
-			cache.addResourceExpanded(node, res);
+			context().cache.addResourceExpanded(node, res);
 			
 			LOG.debug("getResourceExpanded: add resurceMapExpanded resource={} properties={}",  node, res);
 			
@@ -4190,9 +4111,6 @@ public class APIModel {
 
 		}
 
-		res = cache.getExpandedResource(node);
-		if(res==null) res=new JSONObject();
-
 		LOG.debug("getResourceExpanded: resource={} res={}",  node, res);
 
 		return res;
@@ -4202,7 +4120,7 @@ public class APIModel {
 	
 	@LogMethod(level=LogLevel.DEBUG) 
 	private static JSONObject getResourceExpandedHelper(String node, JSONObject resource) {
-		JSONObject res=new JSONObject(resource.toString());
+		JSONObject res=FrozenJSON.thaw(resource);
 		
 		LOG.debug("getResourceExpanded: resource={} node={} keys={}",  resource, node, resource.keySet());
 		LOG.debug("getResourceExpanded: resource={} required={}",  node, resource.optJSONArray(REQUIRED));
@@ -4269,7 +4187,7 @@ public class APIModel {
 	}
 
 	private static void merge(String node, JSONObject target, JSONObject add) {
-		add = new JSONObject(add.toString());
+		add = FrozenJSON.thaw(add);
 		
 		LOG.debug("merge: start {}", node);
 
@@ -4379,7 +4297,7 @@ public class APIModel {
 	public static Map<String,String> getMandatoryOptional(String resource, boolean includeSetByServer) {
 		Map<String,String> res = new HashMap<>();
 
-		JSONObject coreResource = getDefinition(resource);
+		JSONObject coreResource = getDefinitionView(resource);
 
 		JSONObject core = getResourceExpanded(resource); // getPropertyObjectForResource( coreResource );
 
@@ -4534,17 +4452,12 @@ public class APIModel {
 	public static List<String> getAllOperations() {
 		List<String> res = new LinkedList<>();
 
-		if(swagger==null) {
+		if(context().swagger==null) {
 			LOG.info("... missing API specification (swagger)");
 			return res;
 		}
 
-		swagger.getJSONObject(PATHS).keySet().forEach( path ->  {
-			JSONObject pathObj = swagger.getJSONObject(PATHS).getJSONObject(path);
-			pathObj.keySet().forEach( op ->
-			res.add(op.toUpperCase())
-					);
-		});
+		pathIndex().getPaths().forEach( path -> res.addAll(pathIndex().getKeys(path)) );
 
 		return res.stream().distinct().collect(toList());
 
@@ -4559,9 +4472,9 @@ public class APIModel {
 		
 		LOG.debug("getDocumentDetails: rules={}", rules);
 
-		if(swagger==null && rules==null) return res;
+		if(context().swagger==null && rules==null) return res;
 
-		JSONObject info = swagger.optJSONObject("info");
+		JSONObject info = context().swagger.optJSONObject("info");
 
 		if(info!=null) {
 			variables.put("ApiName", info.get("title"));
@@ -4609,7 +4522,7 @@ public class APIModel {
 
 		}
 
-		String basePath = swagger.optString("basePath");
+		String basePath = context().swagger.optString("basePath");
 		if(!basePath.isEmpty()) variables.put("basePath", basePath);
 
 		if(!variables.isEmpty()) res.put("variables", variables);
@@ -4635,20 +4548,16 @@ public class APIModel {
 	public static List<JSONObject> getOperationsDetailsByResource(String resource, String operation) {
 		List<JSONObject> res = new LinkedList<>();
 
-		if(swagger==null) return res;
-
-		JSONObject allpaths = swagger.optJSONObject(PATHS);
+		if(context().swagger==null) return res;
 
-		String prefix = "/" + resource.toUpperCase();
+		String method = operation.toLowerCase();
 
-		allpaths.keySet().stream()
-				.filter(path -> isPathForResource(path,prefix))
+		pathIndex().getPathsBySegment(resource).stream()
 				.sorted()
 				.distinct()
-				.forEach(path -> {
-					JSONObject ops = allpaths.optJSONObject(path);					
-					if(ops!=null && ops.has(operation.toLowerCase())) res.add(ops.optJSONObject(operation.toLowerCase())); 
-				});
+				.map(path -> pathIndex().getOperation(path, method))
+				.filter(Objects::nonNull)
+				.forEach(op -> res.add(op.details));
 
 		return res;
 
@@ -4660,21 +4569,10 @@ public class APIModel {
 
 		LOG.debug("getOperationsDetailsByPath: path={} op={}",  path, op);
 
-		if(swagger==null) return res;
-
-		JSONObject allPaths = swagger.optJSONObject(PATHS);
-
-		LOG.debug("getOperationsDetailsByPath: allPaths={}",  allPaths.toString());
-		
-		path = Utils.lowerCaseFirst(path);
-		if(!path.startsWith("/")) path = "/" + path;
+		if(context().swagger==null) return res;
 
-		if(allPaths!=null && allPaths.has(path) && allPaths.optJSONObject(path)!=null) {
-			JSONObject endpoint = allPaths.optJSONObject(path);
-			if(endpoint.has(op.toLowerCase())) {
-				res = endpoint.optJSONObject(op.toLowerCase());
-			}
-		}
+		OpenAPIPathIndex.Operation operation = getIndexedOperation(path, op);
+		if(operation!=null) res = operation.details;
 
 		LOG.debug("getOperationsDetailsByPath: path={} op={} res={}",  path, op, res);
 
@@ -4682,12 +4580,21 @@ public class APIModel {
 
 	}
 
+	private static OpenAPIPathIndex.Operation getIndexedOperation(String path, String op) {
+		if(context().swagger==null) return null;
+
+		path = Utils.lowerCaseFirst(path);
+		if(!path.startsWith("/")) path = "/" + path;
+
+		return pathIndex().getOperation(path, op.toLowerCase());
+	}
+
 	public static String getSuccessResponseCode(String path, String op) {
 		String res="";
-		JSONObject operation = APIModel.getOperationsDetailsByPath(path, op);
+		OpenAPIPathIndex.Operation operation = getIndexedOperation(path, op);
 		
-		if(operation!=null && operation.has(RESPONSES)) {
-			Set<String> responseCodes = operation.optJSONObject(RESPONSES).keySet().stream().filter(v -> v.startsWith("2")).collect(toSet());
+		if(operation!=null && operation.hasResponses()) {
+			Set<String> responseCodes = operation.getSuccessCodes();
 			
 			LOG.debug("getSuccessResponseCode: path={} op={} responseCodes={}",  path, op, responseCodes);
 			
@@ -4719,11 +4626,10 @@ public class APIModel {
 
 	public static List<String> getResponseCodes(String path, String op) {
 		List<String> res=new LinkedList<>();
-		JSONObject operation = APIModel.getOperationsDetailsByPath(path, op);
+		OpenAPIPathIndex.Operation operation = getIndexedOperation(path, op);
 		
-		if(operation!=null && operation.has(RESPONSES)) {
-			Set<String> responseCodes = operation.optJSONObject(RESPONSES).keySet().stream().filter(v -> v.startsWith("2")).collect(toSet());
-			res.addAll(responseCodes);
+		if(operation!=null && operation.hasResponses()) {
+			res.addAll(operation.getSuccessCodes());
 		}
 		
 		return res;
@@ -4741,12 +4647,12 @@ public class APIModel {
 	public static Set<String> getResourcesByOperation(String operation) {
 		Set<String> res = new HashSet<>();
 
-		if(operationCounter==null) {
-			operationCounter = extractAllOperationsForResources(swagger);
+		if(context().operationCounter==null) {
+			context().operationCounter = extractAllOperationsForResources(context().swagger);
 		}
 
-		if(operationCounter.containsKey(operation)) {
-			res.addAll(operationCounter.get(operation).counts.keySet());
+		if(context().operationCounter.containsKey(operation)) {
+			res.addAll(context().operationCounter.get(operation).counts.keySet());
 		}
 		return res;
 	}
@@ -4762,26 +4668,20 @@ public class APIModel {
 			return res;
 		}
 
-		for(JSONObject pathObj : getPathObjs() ) {
-			for(String op : pathObj.keySet()) {
+		for(OpenAPIPathIndex.Operation operation : pathIndex().getOperations() ) {
 
-				JSONObject opObj = pathObj.getJSONObject(op);
+			List<String> resources = getChildStream(operation.details)
+					.map(APIModel::getOperationResponseResources)
+					.flatMap(List::stream)
+					.toList();
 
-				List<String> resources = getChildStream(opObj)
-						.filter(APIModel::hasResponses)
-						.map(APIModel::getResponseEntity)
-						.map(APIModel::getNormalResponses)
-						.flatMap(List::stream)
-						.map(APIModel::getResourceFromResponse)
-						.flatMap(List::stream)
-						// 2022-11-04 .map(APIModel::getMappedResource)
-						.toList();
-
-				for(String resource : resources) {
-					res.get(op).increment(resource);
-				}
+			Counter counter = res.get(operation.method);
+			if(counter==null) continue;
 
+			for(String resource : resources) {
+				counter.increment(resource);
 			}
+
 		}
 
 		return res;
@@ -4920,7 +4820,7 @@ public class APIModel {
 
 	public static String getDiscriminatorReference(String node, String discriminator) {
 		String res="";
-		JSONObject def = APIModel.getDefinition(node);
+		JSONObject def = APIModel.getDefinitionView(node);
 		if(def!=null) def = def.optJSONObject(DISCRIMINATOR);
 		if(def!=null) def = def.optJSONObject(MAPPING);
 		if(def!=null) res = def.optString(discriminator);
@@ -4934,8 +4834,12 @@ public class APIModel {
 	}
 
 	public static boolean isArrayType(String type) {
+		return context().definitionStore.is(DefinitionStore.Kind.ARRAY, type, APIModel::classifyArrayType);
+	}
+
+	private static boolean classifyArrayType(String type) {
 		boolean res=false;
-		JSONObject definition = getDefinition(type);
+		JSONObject definition = getDefinitionView(type);
 		
 		if(definition!=null && definition.has(TYPE) && definition.optString(TYPE).contentEquals(ARRAY) && definition.optJSONObject(ITEMS)!=null && definition.optJSONObject(ITEMS).has(REF)) res=true;
 		
@@ -4944,23 +4848,21 @@ public class APIModel {
 		return res;
 	}
 
-	static Map<String,Integer> createdTypeCount = new HashMap<>();
-	static Set<String> addedTypes = new HashSet<>();
 
 	public static String createAsyncType(String typeName, JSONObject property) {
 		LOG.debug("createAsyncType: typeName={} res={} property={}", typeName, property);
 		
 		String name = Utils.upperCaseFirst(typeName);
 		
-		if(createdTypeCount.containsKey(name)) {
-			createdTypeCount.put(name, createdTypeCount.get(name)+1);
+		if(context().createdTypeCount.containsKey(name)) {
+			context().createdTypeCount.put(name, context().createdTypeCount.get(name)+1);
 		} else {
-			createdTypeCount.put(name, 1);
+			context().createdTypeCount.put(name, 1);
 		}
 		
-		name = name + "_" + createdTypeCount.get(name);
+		name = name + "_" + context().createdTypeCount.get(name);
 
-		addedTypes.add(name);
+		context().addedTypes.add(name);
 
 		JSONObject def = new JSONObject();
 		def.put("type",  "object");
@@ -4968,17 +4870,18 @@ public class APIModel {
 			def.put(key,  property.get(key));
 		}
 		
-		allDefinitions.put(name, def);
+		context().allDefinitions.put(name, def);
+		context().definitionStore.clear();
 		
 		return name;
 	}
 
 	public static Set<String> getAddedAsyncTypes() {
-		return addedTypes;
+		return context().addedTypes;
 	}
 	
 	public static boolean isAddedType(String type) {
-		return addedTypes.contains(type);
+		return context().addedTypes.contains(type);
 	}
 	
 	public static Map<String,List<String>> getOperationsForAllResources() {
@@ -4999,12 +4902,12 @@ public class APIModel {
 	public static JSONObject getAllPropertiesInSubclasses(String resource) {
 		LOG.debug("getAllPropertiesInSubclasses: resource={}", resource);
 		
-		if(flattenedSubclasses.containsKey(resource)) return flattenedSubclasses.get(resource);
+		if(context().flattenedSubclasses.containsKey(resource)) return context().flattenedSubclasses.get(resource);
 		
-		flattenedSubclasses.put(resource, new JSONObject());
+		context().flattenedSubclasses.put(resource, new JSONObject());
 		
 		final JSONObject target = new JSONObject();
-		JSONObject definition = getDefinition(resource);
+		JSONObject definition = getDefinitionView(resource);
 
 		JSONObject allProps = APIModel.getPropertyObjectForResourceExpanded(resource);   // getFlattenAllOfs(resource);
 
@@ -5097,7 +5000,7 @@ public class APIModel {
 		}
 		
 		
-		flattenedSubclasses.put(resource, target);
+		context().flattenedSubclasses.put(resource, target);
 		
 		return target;
 
@@ -5123,7 +5026,7 @@ public class APIModel {
 	public static JSONObject getByPath(String path) {
 		JSONObject res = new JSONObject();
 		
-		Object o = swagger.optQuery(path);
+		Object o = context().swagger.optQuery(path);
 		
 		LOG.debug("getByPath: path={} obj={}", path, o);
 
@@ -5159,7 +5062,7 @@ public class APIModel {
 
 	public static List<Map<?,?>> getAllAsyncExamples() {
 		
-		String api = swagger.toString();
+		String api = context().swagger.toString();
 
 		Configuration configuration = Configuration.builder().build();
 
@@ -5214,7 +5117,7 @@ public class APIModel {
 	}
 
 	public static APIModelCache getCache() {
-		return cache;
+		return context().cache;
 	}
 
 	public static String updateResourceNameOverride(String resource) {
@@ -5334,27 +5237,51 @@ public class APIModel {
 		return res;
 	}
 	
+	public static HierarchyIndex getHierarchy() {
+		getDefinitions();
+		return context().definitionStore.getHierarchy(() -> new HierarchyIndex(new LinkedList<>(getDefinitions().keySet()), APIModel::getDefinitionView));
+	}
+
+	public static List<String> getInheritanceParents(String resource) {
+		return new LinkedList<>(getHierarchy().getParents(resource));
+	}
+
+	public static List<String> getInheritanceChildren(String resource) {
+		return new LinkedList<>(getHierarchy().getChildren(resource));
+	}
+
+	public static Set<String> getInheritanceAncestors(String resource) {
+		return new LinkedHashSet<>(getHierarchy().getAncestors(resource));
+	}
+
+	public static Set<String> getInheritanceDescendants(String resource) {
+		return new LinkedHashSet<>(getHierarchy().getDescendants(resource));
+	}
+
+	public static List<String> getInheritanceOrder() {
+		return new LinkedList<>(getHierarchy().getOrder());
+	}
+
 	public static Set<String> getDiscriminatorMapping(String resource) {
 		Map<String,Set<String>> map = getDiscriminatorMapping();
 		return map.get(resource);
 		
 	}
 
-	static Map<String,Set<String>> discriminatorMapping = new HashMap<>();
 	public static Map<String,Set<String>> getDiscriminatorMapping() {
-		if(discriminatorMapping.isEmpty()) {
+		if(context().discriminatorMapping.isEmpty()) {
 			List<String> resources = APIModel.getAllDefinitions();
 			for(String key : resources) {
 				Set<String> discriminators = APIModel.getDiscriminators(key);
 				for(String discriminator : discriminators) {
-					if(!discriminatorMapping.containsKey(discriminator)) {
-						discriminatorMapping.put(discriminator, new HashSet<>());
+					if(!context().discriminatorMapping.containsKey(discriminator)) {
+						context().discriminatorMapping.put(discriminator, new HashSet<>());
 					}
-					discriminatorMapping.get(discriminator).add(key);
+					context().discriminatorMapping.get(discriminator).add(key);
 				}
 			}
 		}	
-		return discriminatorMapping;
+		return context().discriminatorMapping;
 	}
 
 	public static boolean isPureVirtual(String resource) {
@@ -5366,43 +5293,47 @@ public class APIModel {
 		return properties.isEmpty() && !discriminators.isEmpty();
 	}
 
-	static Map<String,Set<String>> superiors = new HashMap<>();
 	
 	public static Set<String> getSuperiorsByResourse(String resource) {
 		Set<String> res = new HashSet<>();
 		
-		if(superiors.isEmpty()) {
+		if(context().superiors.isEmpty()) {
 			for(String key : APIModel.getResources()) {
 				Map<String,List<String>> map = APIModel.getSuperiorResources(Arrays.asList(key));
 				
 				LOG.debug("getSuperiorsByResourse resource={} map={}", resource, map);
 
 				for(String mapKey : map.keySet()) {
-					if(!superiors.containsKey(mapKey)) superiors.put(mapKey, new HashSet<>() );
+					if(!context().superiors.containsKey(mapKey)) context().superiors.put(mapKey, new HashSet<>() );
 
-					superiors.get(mapKey).addAll( map.get(mapKey));
+					context().superiors.get(mapKey).addAll( map.get(mapKey));
 					
 				}
 				
 			}
 		}
 		
-		if(superiors.containsKey(resource)) res = superiors.get(resource);
+		if(context().superiors.containsKey(resource)) res = context().superiors.get(resource);
 		
 		return res;
 	}
 
 	public static List<String> sortResourcesByInheritance(List<String> resources) {
-		List<String> res = new LinkedList<>();
-		
 		if(!Config.getBoolean("sortResourcesByInheritance")) {
-			res.addAll(resources);
-			return res;
+			return new LinkedList<>(resources);
 		}
 		
-		Map<String,Set<String>> map = getDiscriminatorMapping();
+		return new LinkedList<>(getHierarchy().getSorted(resources, APIModel::sortByInheritance));
+	}
+	
+	private static List<String> sortByInheritance(List<String> resources) {
+		List<String> res = new LinkedList<>();
+
+		Map<String,Set<String>> map = new HashMap<>();
+		getDiscriminatorMapping().forEach((key,value) -> map.put(key, new HashSet<>(value)));
 
-		Predicate<String> isResource = s -> resources.contains(s);
+		Set<String> resourceSet = new HashSet<>(resources);
+		Predicate<String> isResource = resourceSet::contains;
 
 		Set<String> nonResourceMapping = map.keySet().stream().collect(Collectors.toSet());
 		nonResourceMapping.removeIf(isResource);
@@ -5432,11 +5363,12 @@ public class APIModel {
 								.filter(g::containsVertex)
 								.collect(Collectors.toSet());
 		
+		Set<String> seen = new HashSet<>();
 		for(String root : roots) {
 			Iterator<String> dfsIterator = new DepthFirstIterator<>(g, root);
 			while (dfsIterator.hasNext()) {
 				String key = dfsIterator.next();
-				if(!res.contains(key)) res.add(key);
+				if(seen.add(key)) res.add(key);
 			}
 		}
 			
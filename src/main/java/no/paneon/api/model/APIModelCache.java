@@ -1,123 +1,274 @@
 package no.paneon.api.model;
 
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.json.JSONObject;
 
-import no.paneon.api.utils.Out;
+import no.paneon.api.utils.Config;
 
+/*
+ * Cache of the expanded resources, the expanded properties and the referenced types of one API model.
+ *
+ * The cache is thread-safe and cleared by APIModel.clean(). The number of entries of each kind can be
+ * bounded by the configuration property modelCacheMaxEntries (0 or not set is unbounded), the least recently
+ * used entries are then evicted and computed again when requested.
+ *
+ * The find methods are the lookups of the model and are counted as hits and misses, an entry cached with a
+ * null value is a hit and found as the empty value. The cached property sets are immutable and returned as is.
+ */
 public class APIModelCache {
-	
+
 	static final Logger LOG = LogManager.getLogger(APIModelCache.class);
 
-	private Map<String,JSONObject> resourceExpanded = new HashMap<>();
+	static final String MAX_ENTRIES = "modelCacheMaxEntries";
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	private volatile int maxEntries;
+
+	private final Map<String,JSONObject> resourceExpanded = new LRUMap<>();
+
+	private final Map<String,Set<String>> propertiesForResource = new LRUMap<>();
 
-	private Map<String,Set<String>> propertiesForResource = null;
+	private final Map<ReferenceKey,String> referencedType = new LRUMap<>();
 
-	private Map<String,String> referencedType = new HashMap<>();
+	private final Set<String> coreResource = APIModelContext.memoSet();
 
-	private Set<String> coreResource = null;
-	
 	public APIModelCache() {
-		propertiesForResource = new HashMap<>();
-		coreResource = new HashSet<>();
+		this(0);
 	}
-	
-	public Set<String> getPropertiesForResource(String resource) {
-		Set<String> res = new HashSet<>();
-		
-		if(propertiesForResource.containsKey(resource)) {
-			res = new HashSet<>( propertiesForResource.get(resource) );
+
+	public APIModelCache(int maxEntries) {
+		this.maxEntries = Math.max(0, maxEntries);
+	}
+
+	/*
+	 * clears the cache and the counters, the bound is taken from the configuration
+	 */
+	public void reset() {
+		if(LOG.isDebugEnabled()) LOG.debug("APIModelCache::reset {}", this);
+
+		synchronized(resourceExpanded) { resourceExpanded.clear(); }
+		synchronized(propertiesForResource) { propertiesForResource.clear(); }
+		synchronized(referencedType) { referencedType.clear(); }
+		coreResource.clear();
+
+		hits.set(0);
+		misses.set(0);
+		evictions.set(0);
+
+		maxEntries = configuredMaxEntries();
+	}
+
+	private static int configuredMaxEntries() {
+		String value = Config.getString(MAX_ENTRIES);
+		try {
+			return value.isEmpty() ? 0 : Math.max(0, Integer.parseInt(value));
+		} catch(NumberFormatException e) {
+			LOG.debug("APIModelCache: invalid {}={}", MAX_ENTRIES, value);
+			return 0;
 		}
-				
-		if(this.coreResource.contains(resource)) {
-//			Out.debug("APIModelCache::getPropertiesForResource resource={} properties={}", resource, res);
-			
-//			for(String key : propertiesForResource.keySet().stream().sorted().collect(Collectors.toList())) {
-//				Out.debug("... APIModelCache::getPropertiesForResource resource={} properties={}", key, propertiesForResource.get(key));
-//			}
-			
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	public int size() {
+		synchronized(resourceExpanded) {
+			synchronized(propertiesForResource) {
+				synchronized(referencedType) {
+					return resourceExpanded.size() + propertiesForResource.size() + referencedType.size();
+				}
+			}
 		}
-		
-		return res;
-		
 	}
-	
-	public void reset() {
-		
+
+	@Override
+	public String toString() {
+		return "size=" + size() + " hits=" + getHits() + " misses=" + getMisses() + " evictions=" + getEvictions() + " maxEntries=" + maxEntries;
 	}
 
-	public void addPropertiesForResource(String resource, Set<String> properties) {
+	/*
+	 * the cached properties (unmodifiable), empty if not cached
+	 */
+	public Set<String> getPropertiesForResource(String resource) {
+		return get(propertiesForResource, resource, Collections.emptySet());
+	}
+
+	/*
+	 * the cached properties or null if not cached
+	 */
+	public Set<String> findPropertiesForResource(String resource) {
+		return find(propertiesForResource, resource, Collections.emptySet());
+	}
 
-		Set<String> props = properties.stream().collect(Collectors.toSet());
+	public Set<String> addPropertiesForResource(String resource, Set<String> properties) {
+
+		Set<String> props = Collections.unmodifiableSet(properties.stream().collect(Collectors.toSet()));
 
 		if(this.coreResource.contains(resource)) {
 			LOG.debug("######### APIModelCache::addPropertiesForResource resources={} properties={}", resource, props);
 		}
-		
-		propertiesForResource.put(resource, props );
-		
+
+		put(propertiesForResource, resource, props);
+
+		return props;
 	}
 
 	public boolean hasPropertiesForResource(String resource) {
-		boolean res = propertiesForResource.containsKey(resource);
-		return res;
+		return has(propertiesForResource, resource);
 	}
 
 	public void setCoreResources(List<String> resources) {
-		coreResource.addAll(resources);	
+		coreResource.addAll(resources);
 	}
 
 	public boolean hasExpandedResource(String resource) {
-		boolean res = resourceExpanded.containsKey(resource);
-		return res;
+		return has(resourceExpanded, resource);
 	}
 
 	public JSONObject getExpandedResource(String resource) {
-		JSONObject res = new JSONObject();
-		
-		if(resourceExpanded.containsKey(resource)) {
-			res = resourceExpanded.get(resource);
+		return get(resourceExpanded, resource, new JSONObject());
+	}
+
+	/*
+	 * the cached expanded resource or null if not cached
+	 */
+	public JSONObject findExpandedResource(String resource) {
+		return find(resourceExpanded, resource, new JSONObject());
+	}
+
+	Map<String,JSONObject> getExpandedResources() {
+		synchronized(resourceExpanded) {
+			return new HashMap<>(resourceExpanded);
 		}
-				
-		if(this.coreResource.contains(resource)) {
-//			Out.debug("APIModelCache::getExpandedResource resource={} res={}", resource, res);	
+	}
+
+	Map<String,Set<String>> getPropertiesForResources() {
+		synchronized(propertiesForResource) {
+			return new HashMap<>(propertiesForResource);
 		}
-		
-		return res;
 	}
 
 	public void addResourceExpanded(String resource, JSONObject value) {
-		resourceExpanded.put(resource, value );	
+		put(resourceExpanded, resource, value);
 	}
 
 	public boolean hasReferencedType(String type, String property) {
-		String key = type + "_" + property;
-		boolean res = referencedType.containsKey(key);
-		return res;
+		return has(referencedType, new ReferenceKey(type, property));
 	}
 
 	public String getReferencedType(String type, String property) {
-		String res = "";
-		String key = type + "_" + property;
+		return get(referencedType, new ReferenceKey(type, property), "");
+	}
 
-		if(referencedType.containsKey(key)) 
-			res = referencedType.get(key);
-		
-		return res;
+	/*
+	 * the cached referenced type or null if not cached
+	 */
+	public String findReferencedType(String type, String property) {
+		return find(referencedType, new ReferenceKey(type, property), "");
 	}
 
 	public void addReferencedType(String type, String property, String value) {
-		String key = type + "_" + property;
-		referencedType.put(key,value);
+		put(referencedType, new ReferenceKey(type, property), value);
+	}
+
+	private <K,V> V find(Map<K,V> map, K key, V empty) {
+		V res;
+		synchronized(map) {
+			if(!map.containsKey(key)) {
+				misses.incrementAndGet();
+				return null;
+			}
+			res = map.get(key);
+		}
+		hits.incrementAndGet();
+		return res!=null ? res : empty;
 	}
-	
-	
+
+	private static <K,V> boolean has(Map<K,V> map, K key) {
+		synchronized(map) {
+			return map.containsKey(key);
+		}
+	}
+
+	private static <K,V> V get(Map<K,V> map, K key, V notCached) {
+		synchronized(map) {
+			return map.containsKey(key) ? map.get(key) : notCached;
+		}
+	}
+
+	private static <K,V> void put(Map<K,V> map, K key, V value) {
+		synchronized(map) {
+			map.put(key, value);
+		}
+	}
+
+	/*
+	 * access ordered map, the least recently used entry is evicted when the bound is exceeded
+	 */
+	private class LRUMap<K,V> extends LinkedHashMap<K,V> {
+
+		private static final long serialVersionUID = 1L;
+
+		LRUMap() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K,V> eldest) {
+			boolean evict = maxEntries>0 && size()>maxEntries;
+			if(evict) evictions.incrementAndGet();
+			return evict;
+		}
+	}
+
+	private static final class ReferenceKey {
+		private final String type;
+		private final String property;
+
+		ReferenceKey(String type, String property) {
+			this.type = type;
+			this.property = property;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this==o) return true;
+			if(!(o instanceof ReferenceKey)) return false;
+			ReferenceKey other = (ReferenceKey) o;
+			return Objects.equals(type, other.type) && Objects.equals(property, other.property);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(type, property);
+		}
+	}
+
 }
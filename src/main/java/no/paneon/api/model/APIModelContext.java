@@ -0,0 +1,130 @@
+package no.paneon.api.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+import no.paneon.api.graph.Node;
+
+/*
+ * The state of one API model (specification, definitions, caches and derived lookups).
+ *
+ * APIModel operates on the context bound to the current thread (see APIModel.bindContext / APIModel.withContext),
+ * and falls back to a shared default context. Separate specifications can be processed concurrently by
+ * processing each of them on its own thread with its own context.
+ *
+ * A context is populated (setSwagger, clean, expansions) by one thread at a time, except for the opt-in
+ * parallelExpansion of setSwagger. Once populated, it can be shared by the worker threads of one computation
+ * (see ComplexityAdjustedAPIGraph.generateSubGraphsForResources): the lookups memoized in the context are kept
+ * in synchronized collections.
+ */
+public class APIModelContext {
+
+	static final Logger LOG = LogManager.getLogger(APIModelContext.class);
+
+	volatile JSONObject swagger = new JSONObject();
+	volatile String swaggerSource;
+
+	volatile JSONObject resourceMapping;
+	volatile JSONObject reverseMapping;
+
+	Map<String, JSONObject> resourcePropertyMap = memo();
+
+	boolean firstAPImessage = true;
+
+	volatile Map<String,Counter> operationCounter = null;
+
+	Map<String,JSONObject> externalDefinitions = memo();
+	Map<String,JSONObject> externals = memo();
+
+	final Map<String,byte[]> prefetched = new ConcurrentHashMap<>();
+
+	Map<String,String> externalInputs = memo();
+
+	Map<String,JSONObject> flattened = memo();
+	Map<String,JSONObject> resourceMapExpanded = memo();
+
+	Map<String,JSONObject> flattenedSubclasses = memo();
+
+	volatile JSONObject allDefinitions = new JSONObject();
+	Set<String> seenRefs = memoSet();
+
+	Map<String,Boolean> isRequiredSeen = memo();
+	Map<String,Boolean> isDeprecatedSeen = memo();
+
+	Set<String> typeWarnings = memoSet();
+
+	boolean setSwaggerDone = false;
+
+	volatile Set<String> expandOnDemand = null;
+
+	volatile List<String> _getResources = null;
+
+	volatile AsyncAPIIndex asyncIndex = null;
+
+	volatile OpenAPIPathIndex pathIndex = null;
+
+	volatile List<SwaggerValidator.Finding> findings = Collections.emptyList();
+
+	volatile List<String> excludedResourceExtensions = null;
+
+	Map<String,Integer> createdTypeCount = memo();
+	Set<String> addedTypes = memoSet();
+
+	Map<String,Set<String>> discriminatorMapping = memo();
+	Map<String,Set<String>> superiors = memo();
+
+	final APIModelCache cache = new APIModelCache();
+
+	final DefinitionStore definitionStore = new DefinitionStore();
+
+	final Map<String,Node> nodeMap = new ConcurrentHashMap<>();
+
+	public APIModelContext() {
+		LOG.debug("APIModelContext: new context");
+	}
+
+	static <K,V> Map<K,V> memo() {
+		return Collections.synchronizedMap(new HashMap<>());
+	}
+
+	static <T> Set<T> memoSet() {
+		return Collections.synchronizedSet(new HashSet<>());
+	}
+
+	public JSONObject getSwagger() {
+		return this.swagger;
+	}
+
+	public String getSource() {
+		return this.swaggerSource;
+	}
+
+	public APIModelCache getCache() {
+		return this.cache;
+	}
+
+	public DefinitionStore getDefinitionStore() {
+		return this.definitionStore;
+	}
+
+	public Map<String,Node> getNodeMap() {
+		return this.nodeMap;
+	}
+
+	/*
+	 * the external sources prefetched for this context and not yet used
+	 */
+	public Set<String> getPrefetched() {
+		return Collections.unmodifiableSet(this.prefetched.keySet());
+	}
+
+}
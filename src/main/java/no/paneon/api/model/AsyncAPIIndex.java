@@ -0,0 +1,172 @@
+package no.paneon.api.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import no.paneon.api.utils.Utils;
+
+/*
+ * Index of an AsyncAPI specification: the tag names, the message references of the channels and of each
+ * operation, and the resources (tags of the request channels) with their operations, requests and replies.
+ *
+ * Built in one traversal of the specification instead of JsonPath deep scans over the serialized document.
+ * The results are in the same order as the corresponding JsonPath queries:
+ *   tag names          $..tags..name
+ *   channel messages   $.channels..message..['$ref']
+ *   operation messages $..[?(@.operationId=='op')]..['$ref']
+ */
+public class AsyncAPIIndex {
+
+	static final Logger LOG = LogManager.getLogger(AsyncAPIIndex.class);
+
+	static final String TAGS = "tags";
+	static final String NAME = "name";
+	static final String MESSAGE = "message";
+	static final String CHANNELS = "channels";
+	static final String OPERATIONS = "operations";
+	static final String OPERATION_ID = "operationId";
+	static final String REF = "$ref";
+
+	private final JSONObject api;
+
+	private final List<String> tagNames = new LinkedList<>();
+	private final List<String> channelMessages = new LinkedList<>();
+	private final Map<String,List<String>> operationMessages = new HashMap<>();
+	private final Map<String,AsyncResourceInfo> resources;
+
+	public AsyncAPIIndex(JSONObject api) {
+		this.api = api;
+
+		walk(api, true, new LinkedList<>());
+
+		Object channels = api.opt(CHANNELS);
+		if(channels!=null) scanMessages(channels);
+
+		this.resources = Collections.unmodifiableMap(indexOperations(api));
+
+		LOG.debug("AsyncAPIIndex: tags={} channelMessages={} operations={} resources={}",
+				tagNames.size(), channelMessages.size(), operationMessages.size(), resources.keySet());
+	}
+
+	boolean isIndexOf(JSONObject api) {
+		return this.api==api;
+	}
+
+	public List<String> getTagNames() {
+		return Collections.unmodifiableList(this.tagNames);
+	}
+
+	public List<String> getChannelMessages() {
+		return Collections.unmodifiableList(this.channelMessages);
+	}
+
+	public List<String> getOperationMessages(String operationId) {
+		return Collections.unmodifiableList(this.operationMessages.getOrDefault(operationId, new LinkedList<>()));
+	}
+
+	public Map<String,AsyncResourceInfo> getResources() {
+		return this.resources;
+	}
+
+	/*
+	 * tag names, and the references of the objects with an operationId (i.e. of the open operations)
+	 */
+	private void walk(Object node, boolean isRoot, List<List<String>> openOperations) {
+		if(node instanceof JSONObject) {
+			JSONObject obj = (JSONObject) node;
+
+			if(obj.has(TAGS)) collect(obj.get(TAGS), NAME, this.tagNames);
+
+			List<String> operation = null;
+			if(!isRoot && obj.opt(OPERATION_ID) instanceof String) {
+				operation = this.operationMessages.computeIfAbsent(obj.getString(OPERATION_ID), id -> new LinkedList<>());
+				openOperations.add(operation);
+			}
+
+			if(obj.opt(REF) instanceof String) {
+				String ref = obj.getString(REF);
+				openOperations.forEach(refs -> refs.add(ref));
+			}
+
+			for(String key : obj.keySet()) walk(obj.get(key), false, openOperations);
+
+			if(operation!=null) openOperations.remove(openOperations.size()-1);
+
+		} else if(node instanceof JSONArray) {
+			for(Object element : (JSONArray) node) walk(element, false, openOperations);
+		}
+	}
+
+	private void scanMessages(Object node) {
+		if(node instanceof JSONObject) {
+			JSONObject obj = (JSONObject) node;
+			if(obj.has(MESSAGE)) collect(obj.get(MESSAGE), REF, this.channelMessages);
+			for(String key : obj.keySet()) scanMessages(obj.get(key));
+
+		} else if(node instanceof JSONArray) {
+			for(Object element : (JSONArray) node) scanMessages(element);
+		}
+	}
+
+	/*
+	 * the (string) values of the property anywhere in the sub-tree
+	 */
+	private static void collect(Object node, String property, List<String> res) {
+		if(node instanceof JSONObject) {
+			JSONObject obj = (JSONObject) node;
+			if(obj.opt(property) instanceof String) res.add(obj.getString(property));
+			for(String key : obj.keySet()) collect(obj.get(key), property, res);
+
+		} else if(node instanceof JSONArray) {
+			for(Object element : (JSONArray) node) collect(element, property, res);
+		}
+	}
+
+	private static Map<String,AsyncResourceInfo> indexOperations(JSONObject api) {
+		Map<String,AsyncResourceInfo> res = new HashMap<>();
+
+		JSONObject operations = api.optJSONObject(OPERATIONS);
+		if(operations==null) return res;
+
+		for(String op : operations.keySet()) {
+			JSONObject operation = operations.getJSONObject(op);
+			String requestChannel = operation.query("#/channel/$ref").toString();
+
+			Object channelDetails = api.query(requestChannel);
+
+			LOG.debug("indexOperations: operation={} channel={}", op, requestChannel);
+
+			if(channelDetails instanceof JSONObject) {
+				JSONObject details = (JSONObject) channelDetails;
+
+				String tag = details.optJSONArray(TAGS).getJSONObject(0).getString(NAME);
+				String resource = Utils.upperCaseFirst(tag);
+
+				AsyncResourceInfo resourceInfo = res.computeIfAbsent(resource, AsyncResourceInfo::new);
+
+				JSONArray requests  = details.optJSONArray("messages");
+				JSONArray responses = null;
+				String responseChannel = "";
+				if(operation.has("reply") && operation.optJSONObject("reply").has("messages")) {
+					responses = operation.optJSONObject("reply").optJSONArray("messages");
+					responseChannel = operation.optJSONObject("reply").optJSONObject("channel").optString(REF);
+
+					LOG.debug("indexOperations: operation={} responseChannel={}", op, responseChannel);
+				}
+
+				resourceInfo.addOperation(op, requestChannel, responseChannel, requests, responses);
+			}
+		}
+
+		return res;
+	}
+
+}
@@ -0,0 +1,113 @@
+package no.paneon.api.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+/*
+ * Index of resolved definitions (name -> read-only definition) for one API model.
+ *
+ * A definition is resolved once (prefix removal, async messages, $ref indirection) and kept as a
+ * frozen snapshot which is shared by all readers. Lookups that did not resolve are remembered as well.
+ *
+ * The store also holds the classification of the types (simple, custom simple, enum, oneOf, array), each
+ * computed once per type from the resolved definitions, and the inheritance and discriminator hierarchy
+ * of the definitions (see HierarchyIndex) and the references between them (see ReferenceIndex).
+ *
+ * The store is cleared whenever the set of definitions changes. Concurrent readers may resolve the same
+ * definition (or classify the same type) more than once, the results are equivalent.
+ */
+public class DefinitionStore {
+
+	static final Logger LOG = LogManager.getLogger(DefinitionStore.class);
+
+	private static final JSONObject NOT_FOUND = new JSONObject();
+
+	enum Kind {
+		SIMPLE,
+		CUSTOM_SIMPLE,
+		ENUM,
+		ONE_OF,
+		ARRAY
+	}
+
+	private final Map<String,JSONObject> definitions = new ConcurrentHashMap<>();
+
+	private final Map<Kind,Map<String,Boolean>> classifications = new EnumMap<>(Kind.class);
+
+	private volatile HierarchyIndex hierarchy = null;
+
+	private volatile ReferenceIndex references = null;
+
+	DefinitionStore() {
+		for(Kind kind : Kind.values()) this.classifications.put(kind, new ConcurrentHashMap<>());
+	}
+
+	JSONObject get(String name, Function<String,JSONObject> resolver) {
+		JSONObject res = this.definitions.get(name);
+		if(res==null) {
+			JSONObject resolved = resolver.apply(name);
+			res = resolved!=null ? FrozenJSON.freeze(resolved) : NOT_FOUND;
+			this.definitions.put(name, res);
+		}
+		return res!=NOT_FOUND ? res : null;
+	}
+
+	/*
+	 * not computeIfAbsent, the classifier may classify other types
+	 */
+	boolean is(Kind kind, String name, Predicate<String> classifier) {
+		if(name==null) return classifier.test(name);
+
+		Map<String,Boolean> classification = this.classifications.get(kind);
+		Boolean res = classification.get(name);
+		if(res==null) {
+			res = classifier.test(name);
+			classification.put(name, res);
+		}
+		return res;
+	}
+
+	HierarchyIndex getHierarchy(Supplier<HierarchyIndex> builder) {
+		HierarchyIndex res = this.hierarchy;
+		if(res==null) {
+			res = builder.get();
+			this.hierarchy = res;
+		}
+		return res;
+	}
+
+	ReferenceIndex getReferences(Supplier<ReferenceIndex> builder) {
+		ReferenceIndex res = this.references;
+		if(res==null) {
+			res = builder.get();
+			this.references = res;
+		}
+		return res;
+	}
+
+	void clear() {
+		if(!this.definitions.isEmpty()) LOG.debug("DefinitionStore::clear size={}", this.definitions.size());
+		this.definitions.clear();
+		this.classifications.values().forEach(Map::clear);
+		this.hierarchy = null;
+		this.references = null;
+	}
+
+	public boolean contains(String name) {
+		JSONObject res = this.definitions.get(name);
+		return res!=null && res!=NOT_FOUND;
+	}
+
+	public int size() {
+		return this.definitions.size();
+	}
+
+}
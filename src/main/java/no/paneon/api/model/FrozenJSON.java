@@ -0,0 +1,151 @@
+package no.paneon.api.model;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/*
+ * Read-only (deep) snapshots of JSON structures.
+ * Any attempt to modify a frozen object or array throws UnsupportedOperationException.
+ * A modifiable (deep) copy is made by thaw, without serializing the structure.
+ */
+public final class FrozenJSON {
+
+	private FrozenJSON() {
+	}
+
+	public static JSONObject freeze(JSONObject obj) {
+		if(obj==null || obj instanceof FrozenObject) return obj;
+		return new FrozenObject(obj);
+	}
+
+	static JSONArray freeze(JSONArray array) {
+		if(array==null || array instanceof FrozenArray) return array;
+		return new FrozenArray(array);
+	}
+
+	static boolean isFrozen(Object obj) {
+		return obj instanceof FrozenObject || obj instanceof FrozenArray;
+	}
+
+	static JSONObject thaw(JSONObject obj) {
+		if(obj==null) return null;
+		JSONObject res = new JSONObject();
+		for(String key : obj.keySet()) {
+			res.put(key, thawValue(obj.opt(key)));
+		}
+		return res;
+	}
+
+	static JSONArray thaw(JSONArray array) {
+		if(array==null) return null;
+		JSONArray res = new JSONArray();
+		for(int i=0; i<array.length(); i++) {
+			res.put(thawValue(array.opt(i)));
+		}
+		return res;
+	}
+
+	private static Object thawValue(Object value) {
+		if(value instanceof JSONObject) return thaw((JSONObject) value);
+		if(value instanceof JSONArray) return thaw((JSONArray) value);
+		return value;
+	}
+
+	private static Object freezeValue(Object value) {
+		if(value instanceof JSONObject) return freeze((JSONObject) value);
+		if(value instanceof JSONArray) return freeze((JSONArray) value);
+		return value;
+	}
+
+	private static UnsupportedOperationException readOnly() {
+		return new UnsupportedOperationException("read-only definition or configuration - use APIModel.getDefinition() for a modifiable copy, Config.addConfiguration() for changes");
+	}
+
+	static final class FrozenObject extends JSONObject {
+
+		private final boolean frozen;
+
+		private FrozenObject(JSONObject source) {
+			super();
+			for(String key : source.keySet()) {
+				super.put(key, freezeValue(source.opt(key)));
+			}
+			this.frozen = true;
+		}
+
+		@Override
+		public JSONObject put(String key, Object value) {
+			if(this.frozen) throw readOnly();
+			return super.put(key, value);
+		}
+
+		@Override
+		public Object remove(String key) {
+			if(this.frozen) throw readOnly();
+			return super.remove(key);
+		}
+
+		@Override
+		public Set<String> keySet() {
+			if(this.frozen) return Collections.unmodifiableSet(super.keySet());
+			return super.keySet();
+		}
+
+	}
+
+	static final class FrozenArray extends JSONArray {
+
+		private final boolean frozen;
+
+		private FrozenArray(JSONArray source) {
+			super();
+			for(int i=0; i<source.length(); i++) {
+				super.put(freezeValue(source.opt(i)));
+			}
+			this.frozen = true;
+		}
+
+		@Override
+		public JSONArray put(Object value) {
+			if(this.frozen) throw readOnly();
+			return super.put(value);
+		}
+
+		@Override
+		public JSONArray put(int index, Object value) {
+			if(this.frozen) throw readOnly();
+			return super.put(index, value);
+		}
+
+		@Override
+		public Object remove(int index) {
+			if(this.frozen) throw readOnly();
+			return super.remove(index);
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+			Iterator<Object> iterator = super.iterator();
+			if(!this.frozen) return iterator;
+
+			// without remove()
+			return new Iterator<Object>() {
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public Object next() {
+					return iterator.next();
+				}
+			};
+		}
+
+	}
+
+}
@@ -0,0 +1,194 @@
+package no.paneon.api.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/*
+ * Index of the inheritance (allOf) and discriminator hierarchy of the definitions of one API model:
+ * parents and children per definition, the discriminator mapping keys per definition, and the definitions
+ * in topological order (parents before children).
+ *
+ * Definitions without a resolved definition are not in the index. The transitive ancestors and descendants
+ * are computed on first use and kept. The index is kept in the definition store and built again when the
+ * definitions change.
+ */
+public class HierarchyIndex {
+
+	static final Logger LOG = LogManager.getLogger(HierarchyIndex.class);
+
+	static final String ALLOF = "allOf";
+	static final String REF = "$ref";
+	static final String DISCRIMINATOR = "discriminator";
+	static final String MAPPING = "mapping";
+
+	private final List<String> definitions;
+
+	private final Map<String,List<String>> parents = new HashMap<>();
+	private final Map<String,List<String>> children = new HashMap<>();
+
+	private final Map<String,Set<String>> discriminators = new HashMap<>();
+
+	private final List<String> order;
+
+	private final Map<String,Set<String>> ancestors = new ConcurrentHashMap<>();
+	private final Map<String,Set<String>> descendants = new ConcurrentHashMap<>();
+
+	private final Map<List<String>,List<String>> sorted = new ConcurrentHashMap<>();
+
+	HierarchyIndex(List<String> definitions, Function<String,JSONObject> view) {
+		List<String> indexed = new LinkedList<>();
+
+		for(String name : definitions) {
+			JSONObject definition = view.apply(name);
+			if(definition==null) continue;
+
+			indexed.add(name);
+
+			List<String> superiors = getSuperiors(definition);
+			this.parents.put(name, superiors);
+			superiors.forEach(superior -> this.children.computeIfAbsent(superior, s -> new LinkedList<>()).add(name));
+
+			this.discriminators.put(name, getDiscriminatorKeys(definition));
+		}
+
+		this.definitions = Collections.unmodifiableList(indexed);
+		this.order = Collections.unmodifiableList(topologicalOrder());
+
+		LOG.debug("HierarchyIndex: definitions={}", this.definitions.size());
+	}
+
+	public boolean contains(String name) {
+		return this.parents.containsKey(name);
+	}
+
+	/*
+	 * the last part of the allOf references of the definition
+	 */
+	public List<String> getParents(String name) {
+		return Collections.unmodifiableList(this.parents.getOrDefault(name, Collections.emptyList()));
+	}
+
+	/*
+	 * the definitions with an allOf reference to the name, in the order of the definitions
+	 */
+	public List<String> getChildren(String name) {
+		return Collections.unmodifiableList(this.children.getOrDefault(name, Collections.emptyList()));
+	}
+
+	public Set<String> getAncestors(String name) {
+		return closure(name, this.parents, this.ancestors);
+	}
+
+	public Set<String> getDescendants(String name) {
+		return closure(name, this.children, this.descendants);
+	}
+
+	/*
+	 * the keys of the discriminator mapping of the definition
+	 */
+	public Set<String> getDiscriminators(String name) {
+		return Collections.unmodifiableSet(this.discriminators.getOrDefault(name, Collections.emptySet()));
+	}
+
+	/*
+	 * the definitions with the parents before the children, the definitions in a cycle last
+	 */
+	public List<String> getOrder() {
+		return this.order;
+	}
+
+	List<String> getSorted(List<String> resources, Function<List<String>,List<String>> sort) {
+		List<String> key = List.copyOf(resources);
+		List<String> res = this.sorted.get(key);
+		if(res==null) {
+			res = Collections.unmodifiableList(sort.apply(key));
+			this.sorted.put(key, res);
+		}
+		return res;
+	}
+
+	private static Set<String> closure(String name, Map<String,List<String>> edges, Map<String,Set<String>> memo) {
+		Set<String> res = memo.get(name);
+		if(res!=null) return res;
+
+		Set<String> seen = new LinkedHashSet<>();
+		LinkedList<String> work = new LinkedList<>(edges.getOrDefault(name, Collections.emptyList()));
+		while(!work.isEmpty()) {
+			String next = work.removeFirst();
+			if(seen.add(next)) work.addAll(edges.getOrDefault(next, Collections.emptyList()));
+		}
+		seen.remove(name);
+
+		res = Collections.unmodifiableSet(seen);
+		memo.put(name, res);
+		return res;
+	}
+
+	private List<String> topologicalOrder() {
+		Map<String,Integer> inDegree = new LinkedHashMap<>();
+		for(String name : this.definitions) {
+			int degree = (int) this.parents.get(name).stream().filter(this.parents::containsKey).count();
+			inDegree.put(name, degree);
+		}
+
+		List<String> res = new LinkedList<>();
+		LinkedList<String> ready = new LinkedList<>();
+		inDegree.forEach((name, degree) -> { if(degree==0) ready.add(name); });
+
+		while(!ready.isEmpty()) {
+			String name = ready.removeFirst();
+			res.add(name);
+			for(String child : this.children.getOrDefault(name, Collections.emptyList())) {
+				int degree = inDegree.merge(child, -1, Integer::sum);
+				if(degree==0) ready.add(child);
+			}
+		}
+
+		if(res.size()<this.definitions.size()) {
+			Set<String> placed = new HashSet<>(res);
+			this.definitions.stream().filter(name -> !placed.contains(name)).forEach(res::add);
+		}
+
+		return res;
+	}
+
+	private static List<String> getSuperiors(JSONObject definition) {
+		List<String> res = new LinkedList<>();
+		JSONArray allOfs = definition!=null ? definition.optJSONArray(ALLOF) : null;
+		if(allOfs==null) return res;
+
+		for(Object o : allOfs) {
+			if(!(o instanceof JSONObject)) continue;
+			String ref = ((JSONObject) o).optString(REF);
+			int idx = ref.lastIndexOf('/');
+			if(idx>=0 && idx<ref.length()-1) {
+				String superior = ref.substring(idx+1);
+				if(!res.contains(superior)) res.add(superior);
+			}
+		}
+		return res;
+	}
+
+	private static Set<String> getDiscriminatorKeys(JSONObject definition) {
+		Set<String> res = new HashSet<>();
+		JSONObject discriminator = definition!=null ? definition.optJSONObject(DISCRIMINATOR) : null;
+		JSONObject mapping = discriminator!=null ? discriminator.optJSONObject(MAPPING) : null;
+		if(mapping!=null) res.addAll(mapping.keySet());
+		return res;
+	}
+
+}
@@ -0,0 +1,230 @@
+package no.paneon.api.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+/*
+ * Index of the paths of an OpenAPI specification: path -> method -> operation (details, resources of the
+ * normal responses, success response codes), and the paths by resource name, by response resource and
+ * by the path without a trailing identifier.
+ *
+ * Built once per specification, the operation queries of APIModel are map lookups into the index.
+ */
+public class OpenAPIPathIndex {
+
+	static final Logger LOG = LogManager.getLogger(OpenAPIPathIndex.class);
+
+	static final String PATHS = "paths";
+	static final String RESPONSES = "responses";
+
+	private static final Pattern PATH_PARAMETER = Pattern.compile("\\{.+\\}");
+	private static final Pattern TRAILING_PARAMETER = Pattern.compile("/\\{[^}]+\\}$");
+	private static final Pattern TRAILING_IDENTIFIER = Pattern.compile("/\\{[a-zA-Z0-9]+\\}$");
+	private static final Pattern PLAIN_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+	public static class Operation {
+		public final String path;
+		public final String method;
+		public final JSONObject details;
+
+		final List<String> resources;
+		final Set<String> successCodes;
+
+		Operation(String path, String method, JSONObject details, List<String> resources) {
+			this.path = path;
+			this.method = method;
+			this.details = details;
+			this.resources = Collections.unmodifiableList(resources);
+
+			JSONObject responses = details.optJSONObject(RESPONSES);
+			this.successCodes = responses==null ? Collections.emptySet()
+								: Collections.unmodifiableSet(responses.keySet().stream().filter(v -> v.startsWith("2")).collect(Collectors.toSet()));
+		}
+
+		public List<String> getResources() {
+			return this.resources;
+		}
+
+		public Set<String> getSuccessCodes() {
+			return this.successCodes;
+		}
+
+		public boolean hasResponses() {
+			return this.details.has(RESPONSES);
+		}
+	}
+
+	private final JSONObject api;
+
+	private final List<String> paths = new LinkedList<>();
+	private final Map<String,List<String>> keys = new HashMap<>();
+	private final Map<String,Map<String,Operation>> operations = new HashMap<>();
+	private final List<Operation> allOperations = new LinkedList<>();
+	private final Map<String,String> corePaths = new HashMap<>();
+
+	private final Map<String,List<String>> pathsBySegment = new HashMap<>();
+	private final Map<String,List<String>> pathsByName = new HashMap<>();
+	private final Map<String,List<String>> pathsByResponseResource = new HashMap<>();
+
+	private final Map<String,List<String>> operationsByResource = new ConcurrentHashMap<>();
+
+	/*
+	 * responseResources: the resources of the normal responses of an operation
+	 */
+	public OpenAPIPathIndex(JSONObject api, Function<JSONObject,List<String>> responseResources) {
+		this.api = api;
+
+		JSONObject allPaths = api!=null ? api.optJSONObject(PATHS) : null;
+		if(allPaths==null) return;
+
+		for(String path : allPaths.keySet()) {
+			JSONObject pathObj = allPaths.optJSONObject(path);
+			if(pathObj==null) continue;
+
+			this.paths.add(path);
+			this.keys.put(path, new LinkedList<>(pathObj.keySet()));
+			this.corePaths.put(path, TRAILING_PARAMETER.matcher(path).replaceAll(""));
+
+			Map<String,Operation> methods = new LinkedHashMap<>();
+			for(String method : pathObj.keySet()) {
+				JSONObject details = pathObj.optJSONObject(method);
+				if(details==null) continue;
+
+				Operation operation = new Operation(path, method, details, responseResources.apply(details));
+				methods.put(method, operation);
+				this.allOperations.add(operation);
+
+				operation.resources.forEach(resource -> this.pathsByResponseResource.computeIfAbsent(resource, r -> new LinkedList<>()).add(path));
+			}
+			this.operations.put(path, methods);
+
+			String segment = lastSegment(path);
+			if(segment!=null) this.pathsBySegment.computeIfAbsent(segment, s -> new LinkedList<>()).add(path);
+
+			names(path).forEach(name -> this.pathsByName.computeIfAbsent(name, s -> new LinkedList<>()).add(path));
+		}
+
+		LOG.debug("OpenAPIPathIndex: paths={} operations={}", this.paths.size(), this.allOperations.size());
+	}
+
+	boolean isIndexOf(JSONObject api) {
+		return this.api==api;
+	}
+
+	public List<String> getPaths() {
+		return Collections.unmodifiableList(this.paths);
+	}
+
+	public List<Operation> getOperations() {
+		return Collections.unmodifiableList(this.allOperations);
+	}
+
+	public Operation getOperation(String path, String method) {
+		return this.operations.getOrDefault(path, Collections.emptyMap()).get(method);
+	}
+
+	/*
+	 * the (upper case) keys of the path object, including other keys than the methods
+	 */
+	public List<String> getKeys(String path) {
+		return this.keys.getOrDefault(path, Collections.emptyList()).stream().map(String::toUpperCase).collect(Collectors.toList());
+	}
+
+	/*
+	 * the paths where the last segment which is not a path parameter is the resource (ignoring case)
+	 */
+	public List<String> getPathsBySegment(String resource) {
+		return Collections.unmodifiableList(this.pathsBySegment.getOrDefault(resource.toUpperCase(), Collections.emptyList()));
+	}
+
+	/*
+	 * the paths matching .../resource or .../resource/{id} (ignoring case)
+	 */
+	public List<String> getPathsByName(String resource) {
+		String name = resource.toUpperCase();
+		if(PLAIN_NAME.matcher(name).matches()) {
+			return Collections.unmodifiableList(this.pathsByName.getOrDefault(name, Collections.emptyList()));
+		}
+
+		Pattern pattern = Pattern.compile(".*\\/" + name + "(\\/\\{[a-zA-Z0-9]+\\})?");
+		return this.paths.stream().filter(s -> pattern.matcher(s.toUpperCase()).matches()).collect(Collectors.toList());
+	}
+
+	/*
+	 * the paths with the resource in a normal response, one entry per response
+	 */
+	public List<String> getPathsByResponseResource(String resource) {
+		return Collections.unmodifiableList(this.pathsByResponseResource.getOrDefault(resource, Collections.emptyList()));
+	}
+
+	public List<String> getResponseResources(String path) {
+		return this.operations.getOrDefault(path, Collections.emptyMap()).values().stream()
+				.filter(Operation::hasResponses)
+				.map(Operation::getResources)
+				.flatMap(List::stream)
+				.collect(Collectors.toList());
+	}
+
+	/*
+	 * the (upper case) operations of the paths of the resource, including the paths with an identifier
+	 * added to these paths (e.g. for DELETE)
+	 */
+	public List<String> getOperationsByResource(String resource) {
+		return this.operationsByResource.computeIfAbsent(resource, r -> {
+			List<String> resourcePaths = getPathsByResponseResource(r);
+			Set<String> corePathsForResource = new HashSet<>(resourcePaths);
+
+			return Stream.concat(resourcePaths.stream(), this.paths.stream().filter(path -> corePathsForResource.contains(this.corePaths.get(path))))
+					.map(this::getKeys)
+					.flatMap(List::stream)
+					.distinct()
+					.collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+		});
+	}
+
+	private static String lastSegment(String path) {
+		List<String> parts = Arrays.stream(path.split("/"))
+				.filter(s -> !s.isEmpty())
+				.filter(s -> !PATH_PARAMETER.matcher(s).matches())
+				.collect(Collectors.toList());
+
+		return parts.isEmpty() ? null : parts.get(parts.size()-1).toUpperCase();
+	}
+
+	/*
+	 * the names N where the (upper case) path matches .../N or .../N/{id}
+	 */
+	private static Set<String> names(String path) {
+		Set<String> res = new LinkedHashSet<>();
+		String upper = path.toUpperCase();
+
+		addName(upper, res);
+		if(TRAILING_IDENTIFIER.matcher(upper).find()) {
+			addName(TRAILING_IDENTIFIER.matcher(upper).replaceFirst(""), res);
+		}
+		return res;
+	}
+
+	private static void addName(String path, Set<String> res) {
+		int last = path.lastIndexOf('/');
+		if(last>=0) res.add(path.substring(last+1));
+	}
+
+}
@@ -0,0 +1,275 @@
+package no.paneon.api.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import no.paneon.api.utils.Config;
+
+/*
+ * Optional on-disk cache of prepared API models, enabled by the configuration property modelCacheDirectory.
+ *
+ * An entry holds the specification as prepared by setSwagger (checked, rearranged, refactored) together
+ * with the expanded definitions and their properties and the validation findings, stored as gzip compressed
+ * binary. Entries are keyed by a hash of the specification content, its source and the effective configuration
+ * (including the prefixes and local sources set outside the configuration), i.e. a changed specification or
+ * configuration is a cache miss. The external documents merged while preparing are kept with the entry by the
+ * digest of their content, an entry where any local one has changed is also a miss, as is a damaged or
+ * unreadable entry. Web sources are not fetched again to check an entry, their digest is as of when the
+ * model was prepared (clear the cache directory to pick up changed web sources).
+ */
+public class PreparedModelCache {
+
+	static final Logger LOG = LogManager.getLogger(PreparedModelCache.class);
+
+	static final String MODEL_CACHE_DIRECTORY = "modelCacheDirectory";
+
+	private static final int MAGIC = 0x41504943;
+	private static final int FORMAT = 2;
+	private static final String SUFFIX = ".model";
+
+	private final Path directory;
+
+	public PreparedModelCache(Path directory) {
+		this.directory = directory;
+	}
+
+	static Optional<PreparedModelCache> fromConfig() {
+		String directory = Config.getString(MODEL_CACHE_DIRECTORY);
+		if(directory.isEmpty()) return Optional.empty();
+
+		return Optional.of(new PreparedModelCache(Paths.get(directory.replaceFirst("^~", System.getProperty("user.home")))));
+	}
+
+	static class Entry {
+		final JSONObject swagger;
+		final Map<String,JSONObject> expandedResources;
+		final Map<String,Set<String>> propertiesForResources;
+		final List<SwaggerValidator.Finding> findings;
+		final Map<String,String> externals;
+
+		Entry(JSONObject swagger, Map<String,JSONObject> expandedResources, Map<String,Set<String>> propertiesForResources,
+				List<SwaggerValidator.Finding> findings, Map<String,String> externals) {
+			this.swagger = swagger;
+			this.expandedResources = expandedResources;
+			this.propertiesForResources = propertiesForResources;
+			this.findings = findings;
+			this.externals = externals;
+		}
+	}
+
+	public static String key(String source, byte[] content) {
+		MessageDigest digest = newDigest();
+		digest.update(Integer.toString(FORMAT).getBytes(StandardCharsets.UTF_8));
+		digest.update(content);
+
+		StringBuilder inputs = new StringBuilder();
+		canonical(source, inputs);
+		canonical(Config.getConfiguration(), inputs);
+		canonical(Config.getPrefixToRemove(), inputs);
+		canonical(Config.getPrefixToReplace(), inputs);
+		canonical(new JSONArray(Config.getLocalSources()), inputs);
+		digest.update(inputs.toString().getBytes(StandardCharsets.UTF_8));
+
+		return hex(digest.digest());
+	}
+
+	/*
+	 * digest of the JSON content, independent of the key order
+	 */
+	static String digest(Object json) {
+		StringBuilder content = new StringBuilder();
+		canonical(json, content);
+		return hex(newDigest().digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch(NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+
+	private static String hex(byte[] bytes) {
+		StringBuilder res = new StringBuilder();
+		for(byte b : bytes) res.append(String.format("%02x", b));
+		return res.toString();
+	}
+
+	/*
+	 * JSON with the keys in sorted order, i.e. independent of the order the configuration was built in
+	 */
+	private static void canonical(Object value, StringBuilder out) {
+		if(value instanceof JSONObject) {
+			JSONObject obj = (JSONObject) value;
+			out.append('{');
+			String delim = "";
+			for(String key : obj.keySet().stream().sorted().toArray(String[]::new)) {
+				out.append(delim).append(JSONObject.quote(key)).append(':');
+				canonical(obj.opt(key), out);
+				delim = ",";
+			}
+			out.append('}');
+		} else if(value instanceof JSONArray) {
+			JSONArray array = (JSONArray) value;
+			out.append('[');
+			for(int i=0; i<array.length(); i++) {
+				if(i>0) out.append(',');
+				canonical(array.opt(i), out);
+			}
+			out.append(']');
+		} else {
+			out.append(JSONObject.valueToString(value));
+		}
+	}
+
+	Optional<Entry> load(String key) {
+		Path file = this.directory.resolve(key + SUFFIX);
+		if(!Files.isRegularFile(file)) return Optional.empty();
+
+		try(DataInputStream in = new DataInputStream(new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+
+			if(in.readInt()!=MAGIC || in.readInt()!=FORMAT || !readString(in).contentEquals(key)) {
+				LOG.debug("PreparedModelCache::load unexpected format file={}", file);
+				return Optional.empty();
+			}
+
+			JSONObject swagger = new JSONObject(readString(in));
+
+			Map<String,JSONObject> expandedResources = new HashMap<>();
+			int size = in.readInt();
+			for(int i=0; i<size; i++) {
+				String resource = readString(in);
+				expandedResources.put(resource, in.readBoolean() ? new JSONObject(readString(in)) : null);
+			}
+
+			Map<String,Set<String>> propertiesForResources = new HashMap<>();
+			size = in.readInt();
+			for(int i=0; i<size; i++) {
+				String resource = readString(in);
+				int count = in.readInt();
+				Set<String> properties = new HashSet<>();
+				for(int j=0; j<count; j++) properties.add(readString(in));
+				propertiesForResources.put(resource, properties);
+			}
+
+			List<SwaggerValidator.Finding> findings = new LinkedList<>();
+			size = in.readInt();
+			for(int i=0; i<size; i++) {
+				SwaggerValidator.Severity severity = SwaggerValidator.Severity.valueOf(readString(in));
+				String path = readString(in);
+				findings.add(SwaggerValidator.Finding.restore(severity, path, readString(in)));
+			}
+
+			Map<String,String> externals = new HashMap<>();
+			size = in.readInt();
+			for(int i=0; i<size; i++) {
+				String source = readString(in);
+				externals.put(source, readString(in));
+			}
+
+			LOG.debug("PreparedModelCache::load file={} definitions={} externals={}", file, expandedResources.size(), externals.size());
+
+			return Optional.of(new Entry(swagger, expandedResources, propertiesForResources, Collections.unmodifiableList(findings), externals));
+
+		} catch(Exception e) {
+			LOG.debug("PreparedModelCache::load unable to read file={} error={}", file, e.getLocalizedMessage());
+			return Optional.empty();
+		}
+	}
+
+	void store(String key, Entry entry) {
+		Path file = this.directory.resolve(key + SUFFIX);
+		Path tmp = null;
+
+		try {
+			Files.createDirectories(this.directory);
+			tmp = Files.createTempFile(this.directory, key, ".tmp");
+
+			try(DataOutputStream out = new DataOutputStream(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))) {
+				out.writeInt(MAGIC);
+				out.writeInt(FORMAT);
+				writeString(out, key);
+
+				writeString(out, entry.swagger.toString());
+
+				out.writeInt(entry.expandedResources.size());
+				for(Map.Entry<String,JSONObject> expanded : entry.expandedResources.entrySet()) {
+					writeString(out, expanded.getKey());
+					out.writeBoolean(expanded.getValue()!=null);
+					if(expanded.getValue()!=null) writeString(out, expanded.getValue().toString());
+				}
+
+				out.writeInt(entry.propertiesForResources.size());
+				for(Map.Entry<String,Set<String>> properties : entry.propertiesForResources.entrySet()) {
+					writeString(out, properties.getKey());
+					out.writeInt(properties.getValue().size());
+					for(String property : properties.getValue()) writeString(out, property);
+				}
+
+				out.writeInt(entry.findings.size());
+				for(SwaggerValidator.Finding finding : entry.findings) {
+					writeString(out, finding.severity.name());
+					writeString(out, finding.path);
+					writeString(out, finding.message);
+				}
+
+				out.writeInt(entry.externals.size());
+				for(Map.Entry<String,String> external : entry.externals.entrySet()) {
+					writeString(out, external.getKey());
+					writeString(out, external.getValue());
+				}
+			}
+
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+			LOG.debug("PreparedModelCache::store file={}", file);
+
+		} catch(IOException e) {
+			LOG.debug("PreparedModelCache::store unable to write file={} error={}", file, e.getLocalizedMessage());
+			try {
+				if(tmp!=null) Files.deleteIfExists(tmp);
+			} catch(IOException ex) {
+				LOG.debug("PreparedModelCache::store unable to remove file={}", tmp);
+			}
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+}
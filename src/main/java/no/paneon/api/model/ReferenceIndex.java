@@ -0,0 +1,130 @@
+package no.paneon.api.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/*
+ * Reference graph of the definitions of one API model: for each definition the definitions it references
+ * (by $ref in properties, items, allOf, oneOf, anyOf and additionalProperties, and by the discriminator
+ * mapping) and the definitions referencing it.
+ *
+ * The index also keeps the references of the properties of each definition (see APIModel.getAllReferenced).
+ * It is kept in the definition store and built again when the definitions change.
+ */
+public class ReferenceIndex {
+
+	static final Logger LOG = LogManager.getLogger(ReferenceIndex.class);
+
+	static final String REF = "$ref";
+	static final String DISCRIMINATOR = "discriminator";
+	static final String MAPPING = "mapping";
+
+	static final Set<String> SKIPPED = Set.of("example", "examples");
+
+	private final List<String> definitions;
+
+	private final Map<String,Set<String>> references = new HashMap<>();
+	private final Map<String,Set<String>> referencedBy = new HashMap<>();
+
+	private final Map<String,List<String>> propertyReferences = new HashMap<>();
+
+	ReferenceIndex(List<String> definitions, Function<String,JSONObject> view, Function<String,List<String>> propertyReferences) {
+		this.definitions = Collections.unmodifiableList(new LinkedList<>(definitions));
+
+		for(String name : definitions) {
+			JSONObject definition = view.apply(name);
+
+			Set<String> refs = getReferences(definition);
+			this.references.put(name, refs);
+			refs.forEach(ref -> this.referencedBy.computeIfAbsent(ref, r -> new LinkedHashSet<>()).add(name));
+
+			if(definition!=null) this.propertyReferences.put(name, Collections.unmodifiableList(propertyReferences.apply(name)));
+		}
+
+		LOG.debug("ReferenceIndex: definitions={} referenced={}", this.definitions.size(), this.referencedBy.size());
+	}
+
+	/*
+	 * the definitions referenced by the definition
+	 */
+	public Set<String> getReferences(String name) {
+		return Collections.unmodifiableSet(this.references.getOrDefault(name, Collections.emptySet()));
+	}
+
+	/*
+	 * the definitions referencing the name
+	 */
+	public Set<String> getReferencedBy(String name) {
+		return Collections.unmodifiableSet(this.referencedBy.getOrDefault(name, Collections.emptySet()));
+	}
+
+	/*
+	 * the definitions reachable from the roots (including the roots which are definitions), in the order of the definitions
+	 */
+	public List<String> getReachable(Collection<String> roots) {
+		Set<String> seen = new LinkedHashSet<>();
+		LinkedList<String> work = new LinkedList<>(roots);
+		while(!work.isEmpty()) {
+			String next = work.removeFirst();
+			if(seen.add(next)) work.addAll(this.references.getOrDefault(next, Collections.emptySet()));
+		}
+
+		List<String> res = new LinkedList<>();
+		this.definitions.stream().filter(seen::contains).forEach(res::add);
+		return res;
+	}
+
+	/*
+	 * the references of the properties of the definition
+	 */
+	List<String> getPropertyReferences(String name) {
+		return this.propertyReferences.getOrDefault(name, Collections.emptyList());
+	}
+
+	private static Set<String> getReferences(JSONObject definition) {
+		Set<String> res = new LinkedHashSet<>();
+		if(definition==null) return res;
+
+		LinkedList<Object> work = new LinkedList<>();
+		work.add(definition);
+		while(!work.isEmpty()) {
+			Object o = work.removeFirst();
+			if(o instanceof JSONObject) {
+				JSONObject obj = (JSONObject) o;
+				for(String key : obj.keySet()) {
+					Object value = obj.opt(key);
+					if(REF.equals(key) && value instanceof String) {
+						addReference(res, (String) value);
+					} else if(DISCRIMINATOR.equals(key) && value instanceof JSONObject) {
+						JSONObject mapping = ((JSONObject) value).optJSONObject(MAPPING);
+						if(mapping!=null) mapping.keySet().forEach(label -> addReference(res, mapping.optString(label)));
+					} else if(!SKIPPED.contains(key)) {
+						work.add(value);
+					}
+				}
+			} else if(o instanceof JSONArray) {
+				((JSONArray) o).forEach(work::add);
+			}
+		}
+		return res;
+	}
+
+	private static void addReference(Set<String> res, String ref) {
+		int idx = ref.lastIndexOf('/');
+		String name = ref.substring(idx+1);
+		if(!name.isEmpty()) res.add(name);
+	}
+
+}
@@ -1,6 +1,7 @@
 package no.paneon.api.model;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -8,15 +9,28 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import java.util.regex.Pattern;
 
@@ -28,6 +42,7 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import no.paneon.api.utils.Config;
+import no.paneon.api.utils.ExternalSources;
 import no.paneon.api.utils.Out;
 import no.paneon.api.utils.Utils;
 
@@ -173,14 +188,42 @@ public class Schema {
 	}
 
 	public List<String> load() {
-		List<String> errors = new LinkedList<>();
+		return loaded(read());
+	}
+	
+	/*
+	 * reads the source, the exception if not read - does not update any of the maps and may run concurrently
+	 */
+	private Exception read() {
 		try {
 			this.jsonSource = readJSON(this.source.getFile(), false);
 			this.rawJSONSource = this.jsonSource;
+			return null;
+		} catch(Exception e) {
+			return e;
+		}
+	}
+	
+	/*
+	 * as read, from the content of the source
+	 */
+	private Exception parse(String content) {
+		try {
+			this.jsonSource = new JSONObject(content);
+			this.rawJSONSource = this.jsonSource;
+			return null;
+		} catch(Exception e) {
+			return e;
+		}
+	}
+	
+	private List<String> loaded(Exception e) {
+		List<String> errors = new LinkedList<>();
+		if(e==null) {
 			updateFileMap(this.source);
 			// System.out.println("... read json schema file=" + source.getFile());
 
-		} catch(Exception e) {
+		} else {
 			System.out.println("Schema::load exception=" + e);
 
 			LOG.debug("Schema::load exception=" + e);
@@ -235,16 +278,41 @@ public class Schema {
 
 	private String loadSchemaHelper(URL url) throws Exception {
 		String content=null;
-		URLConnection urlConnection = url.openConnection();
-		InputStream inputStream = urlConnection.getInputStream();
-		content = readFromInputStream(inputStream);
-		LOG.debug("loadSchemaHelper: url=" + urlConnection + " content=" + content);
+		if(isWebSource(url)) {
+			content = readFromInputStream(new ByteArrayInputStream(ExternalSources.readWebSource(url.toString())));
+		} else {
+			URLConnection urlConnection = url.openConnection();
+			InputStream inputStream = urlConnection.getInputStream();
+			content = readFromInputStream(inputStream);
+		}
+		LOG.debug("loadSchemaHelper: url=" + url + " content=" + content);
 		return content;
 	}
 
+	private static boolean isWebSource(URL url) {
+		String protocol = url.getProtocol();
+		return "http".equalsIgnoreCase(protocol) || "https".equalsIgnoreCase(protocol);
+	}
+
 	public List<String> loadSchema() throws Exception {
 		List<String> errors = new LinkedList<>();
 		
+		if(prepareSchema(errors)) {
+			List<String> errs = replaceRefs(jsonSource);
+			
+			LOG.debug("loadSchema: replaceRefs errors=" + errs);
+
+			errors.addAll(errs);
+		}
+		
+		return errors;
+	}
+	
+	/*
+	 * reads the schema and extracts the ids, false if the references are not to be replaced (the errors are added)
+	 */
+	private boolean prepareSchema(List<String> errors) throws Exception {
+		
 		List<String> localSources = Config.getLocalSources();
 		LOG.debug("loadSchema: source=" + source + " local sources=" + localSources);
 
@@ -306,7 +374,7 @@ public class Schema {
 		
 			if(jsonSource==null && content==null) {
 				errors.add(fname + " :: Not found");				
-				return errors;
+				return false;
 			} else {
 				addPrimary(); 
 				
@@ -315,7 +383,7 @@ public class Schema {
 		}
 		
 			
-		if(content==null || !errors.isEmpty()) return errors;
+		if(content==null || !errors.isEmpty()) return false;
 		
 		try {
 			jsonSource = new JSONObject(content);
@@ -335,13 +403,7 @@ public class Schema {
 
 		errors.addAll(errs);
 
-		errs = replaceRefs(jsonSource);
-		
-		LOG.debug("loadSchema: replaceRefs errors=" + errs);
-
-		errors.addAll(errs);
-
-		return errors;
+		return true;
 	}
 	
 	public void updateFileMap() {
@@ -465,118 +527,199 @@ public class Schema {
 		return errors;
 	}
 
-	static List<String> processedSchema = new LinkedList<>();
+	static Set<String> processedSchema = ConcurrentHashMap.newKeySet();
+	
+	private static final Pattern PARENT_DIRECTORY = Pattern.compile("[A-Za-z0-9_]+/[.]{2}/");
+
+	/*
+	 * replaceRefs state of one object: the schema of the object, the keys not yet processed, and a reference
+	 * waiting for the schema it refers to to be loaded
+	 */
+	private static class RefFrame {
+		final Schema schema;
+		final JSONObject json;
+		final Iterator<String> keys;
+		
+		PendingRef pending = null;
+		
+		RefFrame(Schema schema, JSONObject json) {
+			this.schema = schema;
+			this.json = json;
+			this.keys = json.keySet().iterator();
+		}
+	}
+	
+	private static class PendingRef {
+		final String ref;
+		final String[] parts;
+		final URL url;
+		final String key;
+		final Schema schema;
+		final int errors;
+		
+		PendingRef(String ref, String[] parts, URL url, String key, Schema schema, int errors) {
+			this.ref = ref;
+			this.parts = parts;
+			this.url = url;
+			this.key = key;
+			this.schema = schema;
+			this.errors = errors;
+		}
+	}
 	
+	//
+	// the objects are processed depth first with an explicit stack, in the same order as a recursive walk. The
+	// schemas of external references are loaded and processed on the same stack, and the result of each distinct
+	// lookup of a referenced schema is kept for the run. As before each reference is processed once and arrays are
+	// not processed
+	//
 	private List<String> replaceRefs(JSONObject json) {
 		List<String> errors = new LinkedList<>();
 		
 		if(json==null) return errors;
 		
-		// if(processedSchema.contains(this.source.getFile())) return errors;
+		Map<String,Schema> resolvedSources = new HashMap<>();
 		
-		// processedSchema.add(this.source.getFile());
+		Deque<RefFrame> stack = new ArrayDeque<>();
+		stack.push(new RefFrame(this, json));
 		
-		for( String key: json.keySet()) {
+		while(!stack.isEmpty()) {
+			RefFrame frame = stack.peek();
+			
+			if(frame.pending!=null) {
+				PendingRef pending = frame.pending;
+				frame.pending = null;
+				
+				if(errors.size()>pending.errors) {
+					stack.pop();
+				} else {
+					resolvedSources.put(pending.key, pending.schema);
+					frame.schema.dereference(pending, errors);
+				}
+				continue;
+			}
+			
+			if(!frame.keys.hasNext()) {
+				stack.pop();
+				continue;
+			}
+			
+			String key = frame.keys.next();
 			if(key.equals("$ref")) {
 				
-				String ref = json.getString(key);
+				String ref = frame.json.getString(key);
 				LOG.trace("replaceRefs: found $ref=" + ref);
 				
-				if(processedSchema.contains(ref)) return errors;
-				processedSchema.add(ref);
+				if(!processedSchema.add(ref)) {
+					stack.pop();
+					continue;
+				}
 				
 				if(ref.startsWith("#/")) continue;
 				
-				String parts[] = ref.split("#");
-				String newPath = getPath()  + "/" + parts[0];
-				
-				LOG.trace("replaceRefs: newPath=" + newPath);
+				frame.schema.replaceRef(frame, ref, errors, stack, resolvedSources);
 
-				newPath = newPath.replaceAll("[A-Za-z0-9_]+/[.]{2}/", "");
+			} else if(frame.json.optJSONArray(key)==null) {
+				JSONObject jsonObject = frame.json.optJSONObject(key);
+				if(jsonObject!=null) {
+					stack.push(new RefFrame(frame.schema, jsonObject));
+				} 
+			}
+		}	
+		return errors;
+		
+	}
+	
+	private void replaceRef(RefFrame frame, String ref, List<String> errors, Deque<RefFrame> stack, Map<String,Schema> resolvedSources) {
+		String parts[] = ref.split("#");
+		String newPath = getPath()  + "/" + parts[0];
+		
+		LOG.trace("replaceRefs: newPath=" + newPath);
 
-				URL url = null;
-				try {
-					url = new URL(source,newPath);
-					LOG.trace("replaceRefs: url=" + url);
-
-					// System.out.println("replaceRefs: url=" + url);
-
-					// Schema s = getCachedSchema(url, CachePolicy.ALL);
-					Schema s = getSchema(url.getPath());
-					if(s==null) {
-						LOG.info("getCachedSchema: url=" + url);
-						s = new Schema(url, this.baseName);
-						List<String> errs = s.loadSchema();
-						errors.addAll(errs);
-						if(!errs.isEmpty()) return errors;
-						
-					}
-					
-					if(parts.length==1) {
-						
-					} else if(!ref.contains("#/") && parts.length==2) {
-						String id = "#" + parts[1];
-						JSONObject o = s.getJSONById(id);
-						if(o!=null) {
-							LOG.debug("replaceRefs: id=" + id + " ref by id=" + o.toString(2));
-							// TODO json.put("§dereferenced", o);
-							String parent = s.getSchemaTitleById(id);
-							// TODO if(parent!=null) json.put("§parent", s.getSchemaTitleById(id));
-						} else {
-							// TODO
-						}
+		newPath = PARENT_DIRECTORY.matcher(newPath).replaceAll("");
 
-					} else {
-						String pathElements[] = parts[1].split("/"); // Pattern.quote("/")); // File.separator
-						LOG.debug("replaceRefs: parts=" + String.join(" ", pathElements));
-						
-						JSONObject o = s.jsonSource;
-						if(o!=null) {
-							for(String elem: pathElements) {
-								if(o.has(elem)) {
-									o = o.getJSONObject(elem);
-								}
-							}
-						} else {
-							errors.add( this.getRelativeName() + " :: " + "deferencing failed for reference " + ref + " as location " + s.getRelativeName());
-						}
-						
-						LOG.debug("replaceRefs: o=" + o);
+		URL url = null;
+		try {
+			url = new URL(source,newPath);
+			LOG.trace("replaceRefs: url=" + url);
 
-					}
-					
-				} catch(Exception ex) {
-					LOG.debug("replaceRefs: ex2=" + ex);
-					String path = url.getPath();
-					if(path!=null) {
-						parts = path.split("/");
-						path = parts[parts.length-1];
-					}
-					errors.add(path + " :: " + ex); // .getMessage());
-					ex.printStackTrace();
+			String key = url + " " + getPath() + " " + this.baseName;
+			
+			Schema s = resolvedSources.get(key);
+			if(s==null) s = getSchema(url.getPath());
+			
+			if(s==null) {
+				LOG.info("getCachedSchema: url=" + url);
+				s = new Schema(url, this.baseName);
+				
+				int mark = errors.size();
+				boolean replace = s.prepareSchema(errors);
+				
+				frame.pending = new PendingRef(ref, parts, url, key, s, mark);
+				if(replace && s.jsonSource!=null) stack.push(new RefFrame(s, s.jsonSource));
+				
+				return;
+			}
+			
+			resolvedSources.put(key, s);
+			dereference(new PendingRef(ref, parts, url, key, s, errors.size()), errors);
+			
+		} catch(Exception ex) {
+			refError(url, ex, errors);
+		}
+	}
+	
+	private void dereference(PendingRef pending, List<String> errors) {
+		Schema s = pending.schema;
+		String ref = pending.ref;
+		String[] parts = pending.parts;
+		
+		try {
+			if(parts.length==1) {
+				
+			} else if(!ref.contains("#/") && parts.length==2) {
+				String id = "#" + parts[1];
+				JSONObject o = s.getJSONById(id);
+				if(o!=null) {
+					if(LOG.isDebugEnabled()) LOG.debug("replaceRefs: id=" + id + " ref by id=" + o.toString(2));
+					// TODO json.put("§dereferenced", o);
+					// TODO if(parent!=null) json.put("§parent", s.getSchemaTitleById(id));
+				} else {
+					// TODO
 				}
 
-
 			} else {
-				JSONArray jsonArray = json.optJSONArray(key);
-				if(jsonArray!=null) {
-//					jsonArray.forEach(obj -> {	
-//						if(obj instanceof JSONObject) {
-//							List<String> errs = replaceRefs( (JSONObject)obj);
-//							errors.addAll(errs);
-//						}
-//					});		
+				String pathElements[] = parts[1].split("/"); // Pattern.quote("/")); // File.separator
+				LOG.debug("replaceRefs: parts=" + String.join(" ", pathElements));
+				
+				JSONObject o = s.jsonSource;
+				if(o!=null) {
+					for(String elem: pathElements) {
+						if(o.has(elem)) {
+							o = o.getJSONObject(elem);
+						}
+					}
 				} else {
-					JSONObject jsonObject = json.optJSONObject(key);
-					if(jsonObject!=null) {
-						List<String> errs = replaceRefs(jsonObject);
-						errors.addAll(errs);
-					} 
+					errors.add( this.getRelativeName() + " :: " + "deferencing failed for reference " + ref + " as location " + s.getRelativeName());
 				}
+				
+				if(LOG.isDebugEnabled()) LOG.debug("replaceRefs: o=" + o);
+
 			}
-		}	
-		return errors;
-		
+		} catch(Exception ex) {
+			refError(pending.url, ex, errors);
+		}
+	}
+	
+	private static void refError(URL url, Exception ex, List<String> errors) {
+		LOG.debug("replaceRefs: ex2=" + ex);
+		String path = url.getPath();
+		if(path!=null) {
+			String[] parts = path.split("/");
+			path = parts[parts.length-1];
+		}
+		errors.add(path + " :: " + ex); // .getMessage());
+		ex.printStackTrace();
 	}
 	
 
@@ -638,18 +781,21 @@ public class Schema {
 
 	static JSONObject readJSON(String url, boolean errorOK) throws Exception {
 		try {
-			URL urlObject = new URL("file://" + url);
-			LOG.debug("readJSON: protocol=" + urlObject.getProtocol());
-			URLConnection urlConnection = urlObject.openConnection();
-			InputStream inputStream = urlConnection.getInputStream();
-			String content = readFromInputStream(inputStream);
-			return new JSONObject(content); 
+			return new JSONObject(readContent(url)); 
 		} catch(Exception ex) {
 			if(!errorOK) throw(ex);
 			return new JSONObject();
 		}
 	}
 
+	static String readContent(String url) throws IOException {
+		URL urlObject = new URL("file://" + url);
+		LOG.debug("readContent: protocol=" + urlObject.getProtocol());
+		URLConnection urlConnection = urlObject.openConnection();
+		InputStream inputStream = urlConnection.getInputStream();
+		return readFromInputStream(inputStream);
+	}
+
 	private static String readFromInputStream(InputStream inputStream)
 			throws IOException {
 		StringBuilder resultStringBuilder = new StringBuilder();
@@ -1084,6 +1230,11 @@ public class Schema {
 		return res;
 	}
 
+	//
+	// the schema files of each local directory are read and parsed concurrently (bounded by localSourcesParallelism),
+	// then added in the order of the directory walk. A file with the same modification time and size as when
+	// last read is not read again, its content is kept and parsed into a new schema for each load
+	//
 	public static List<String> loadLocalSources() {
     	List<String> errors = new LinkedList<>();
 
@@ -1097,11 +1248,13 @@ public class Schema {
 				File dir = new File(s);
 				if(dir.isDirectory()) {
 					LOG.info("loading ... from local directory ... " + dir.getName());
-					List<File> files = getSchemaFiles(dir);
-					for(File file : files) {
+					List<Path> files = getSchemaFiles(dir.toPath());
+					List<LocalSchema> read = readLocalFiles(files, dir);
+					for(LocalSchema localSchema : read) {
+						File file = localSchema.file;
 						try {
-							Schema schema = new Schema(file, dir);
-							List<String> errs = schema.load();
+							Schema schema = localSchema.schema;
+							List<String> errs = schema.loaded(localSchema.exception);
 							errors.addAll(errs);
 							schema.addLocalSource();
 						
@@ -1125,19 +1278,124 @@ public class Schema {
 	
 	}
 
-	private static List<File> getSchemaFiles(File dir) {
-    	List<File> res = new LinkedList<>();
-	    for (File entry : dir.listFiles()) {
-        	String fname = entry.getName();
-	        if (entry.isFile() && fname.endsWith("schema.json")) {
-	        	res.add(entry);
-	        }
-	        else if(entry.isDirectory()) {
-	        	List<File> subs = getSchemaFiles(entry);
-	        	res.addAll(subs);
-	        }
-	    }
-	    return res;
+	private static List<Path> getSchemaFiles(Path dir) throws IOException {
+		try(Stream<Path> paths = Files.walk(dir, FileVisitOption.FOLLOW_LINKS)) {
+			return paths.filter(path -> path.getFileName().toString().endsWith("schema.json"))
+						.filter(Files::isRegularFile)
+						.collect(Collectors.toList());
+		}
+	}
+
+	/*
+	 * a local file as last read, only the metadata and the (immutable) content
+	 */
+	private static class LocalFile {
+		final long lastModified;
+		final long size;
+		final String content;
+		
+		LocalFile(long lastModified, long size, String content) {
+			this.lastModified = lastModified;
+			this.size = size;
+			this.content = content;
+		}
+		
+		boolean isUnchanged(long lastModified, long size) {
+			return this.lastModified==lastModified && this.size==size;
+		}
+	}
+	
+	/*
+	 * the schema of a local file, new for each load
+	 */
+	private static class LocalSchema {
+		final File file;
+		final Schema schema;
+		final Exception exception;
+		
+		LocalSchema(File file, Schema schema, Exception exception) {
+			this.file = file;
+			this.schema = schema;
+			this.exception = exception;
+		}
+	}
+	
+	private static final Map<String,LocalFile> localFiles = new ConcurrentHashMap<>();
+	
+	private static final AtomicLong localFilesRead = new AtomicLong();
+
+	static final String LOCAL_SOURCES_PARALLELISM = "localSourcesParallelism";
+	static final int DEFAULT_LOCAL_SOURCES_PARALLELISM = 8;
+
+	private static List<LocalSchema> readLocalFiles(List<Path> files, File dir) throws InterruptedException, ExecutionException {
+		List<LocalSchema> res = new LinkedList<>();
+
+		String prefix = dir.getAbsolutePath() + File.pathSeparator;
+		Set<String> keys = files.stream().map(path -> prefix + path.toFile().getAbsolutePath()).collect(Collectors.toSet());
+		localFiles.keySet().removeIf(key -> key.startsWith(prefix) && !keys.contains(key));
+
+		if(files.isEmpty()) return res;
+		
+		int parallelism = Math.min(files.size(), getLocalSourcesParallelism());
+
+		LOG.debug("readLocalFiles: dir={} files={} parallelism={}", dir, files.size(), parallelism);
+
+		List<Callable<LocalSchema>> tasks = files.stream()
+				.map(path -> (Callable<LocalSchema>) () -> readLocalFile(path.toFile(), dir))
+				.collect(Collectors.toList());
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			for(Future<LocalSchema> future : executor.invokeAll(tasks)) {
+				res.add(future.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		return res;
+	}
+	
+	private static LocalSchema readLocalFile(File file, File dir) {
+		String key = dir.getAbsolutePath() + File.pathSeparator + file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long size = file.length();
+		
+		Schema schema = new Schema(file, dir);
+
+		LocalFile localFile = localFiles.get(key);
+		if(localFile!=null && localFile.isUnchanged(lastModified, size)) {
+			LOG.debug("readLocalFile: unchanged file={}", file);
+		} else {
+			try {
+				localFile = new LocalFile(lastModified, size, readContent(schema.source.getFile()));
+			} catch(Exception e) {
+				localFiles.remove(key);
+				return new LocalSchema(file, schema, e);
+			} finally {
+				localFilesRead.incrementAndGet();
+			}
+			localFiles.put(key, localFile);
+		}
+		
+		return new LocalSchema(file, schema, schema.parse(localFile.content));
+	}
+	
+	private static int getLocalSourcesParallelism() {
+		String value = Config.getString(LOCAL_SOURCES_PARALLELISM);
+		try {
+			int res = value.isEmpty() ? DEFAULT_LOCAL_SOURCES_PARALLELISM : Integer.parseInt(value);
+			return res>0 ? res : DEFAULT_LOCAL_SOURCES_PARALLELISM;
+		} catch(NumberFormatException e) {
+			LOG.debug("getLocalSourcesParallelism: invalid {}={}", LOCAL_SOURCES_PARALLELISM, value);
+			return DEFAULT_LOCAL_SOURCES_PARALLELISM;
+		}
+	}
+	
+	/*
+	 * the number of local schema files read (not skipped as unchanged) by loadLocalSources
+	 */
+	public static long getLocalFilesRead() {
+		return localFilesRead.get();
 	}
 
 	public static List<Schema> loadAllFromSwagger(JSONObject swagger, String swaggerFile) {
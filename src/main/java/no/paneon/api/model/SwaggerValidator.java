@@ -0,0 +1,226 @@
+package no.paneon.api.model;
+
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/*
+ * Validation of an API specification: local references that do not resolve, properties that are not camel
+ * case and null values.
+ *
+ * The document is traversed once. The objects three levels down (e.g. each schema of components/schemas
+ * or each path item of paths) are validated in parallel, the findings are returned in document order.
+ * Each distinct reference is resolved once.
+ */
+public class SwaggerValidator {
+
+	static final Logger LOG = LogManager.getLogger(SwaggerValidator.class);
+
+	static final String REF = "$ref";
+	static final String PROPERTIES = "properties";
+
+	static final String ROOT = "#/";
+
+	static final int PARALLEL_DEPTH = 3;
+
+	private static final Pattern CAMEL_CASE = Pattern.compile("^[@]?[a-z]+[A-Za-z0-9]+");
+
+	public enum Severity {
+		ERROR,
+		WARNING,
+		INFO
+	}
+
+	public static class Finding {
+		public final Severity severity;
+		public final String path;
+		public final String message;
+
+		Finding(Severity severity, String path, String format, Object ...args) {
+			this.severity = severity;
+			this.path = path;
+			this.message = new ParameterizedMessage(format, args).getFormattedMessage();
+		}
+
+		static Finding restore(Severity severity, String path, String message) {
+			return new Finding(severity, path, "{}", message);
+		}
+
+		@Override
+		public String toString() {
+			return this.message;
+		}
+	}
+
+	private enum Resolution {
+		FOUND,
+		NOT_FOUND,
+		INVALID
+	}
+
+	private final JSONObject api;
+	private final boolean camelCaseWarning;
+
+	private final Map<String,Resolution> references = new ConcurrentHashMap<>();
+
+	private SwaggerValidator(JSONObject api, boolean camelCaseWarning) {
+		this.api = api;
+		this.camelCaseWarning = camelCaseWarning;
+	}
+
+	/*
+	 * the findings in document order
+	 */
+	public static List<Finding> validate(JSONObject api, boolean camelCaseWarning) {
+		SwaggerValidator validator = new SwaggerValidator(api, camelCaseWarning);
+
+		List<Supplier<List<Finding>>> parts = new LinkedList<>();
+		validator.split(api, ROOT, PARALLEL_DEPTH, parts);
+
+		List<Finding> res = parts.parallelStream()
+								.map(Supplier::get)
+								.flatMap(List::stream)
+								.collect(Collectors.toList());
+
+		LOG.debug("validate: parts={} references={} findings={}", parts.size(), validator.references.size(), res.size());
+
+		return Collections.unmodifiableList(res);
+	}
+
+	public static boolean hasErrors(List<Finding> findings) {
+		return findings.stream().anyMatch(finding -> finding.severity==Severity.ERROR);
+	}
+
+	/*
+	 * the parts in the order of the sequential traversal: the checks of each key followed by its object and array values
+	 */
+	private void split(JSONObject obj, String path, int depth, List<Supplier<List<Finding>>> parts) {
+		if(obj==null || depth==0) {
+			parts.add(() -> check(obj, path));
+			return;
+		}
+
+		for(String key : obj.keySet()) {
+			parts.add(() -> {
+				List<Finding> res = new LinkedList<>();
+				checkKey(obj, key, path, res);
+				return res;
+			});
+
+			if(obj.optJSONObject(key)!=null) {
+				split(obj.optJSONObject(key), nextPath(path,key), depth-1, parts);
+			}
+
+			JSONArray array = obj.optJSONArray(key);
+			if(array!=null) {
+				parts.add(() -> {
+					List<Finding> res = new LinkedList<>();
+					checkArray(array, key, path, res);
+					return res;
+				});
+			}
+		}
+	}
+
+	private List<Finding> check(JSONObject obj, String path) {
+		List<Finding> res = new LinkedList<>();
+		check(obj, path, res);
+		return res;
+	}
+
+	private void check(JSONObject obj, String path, List<Finding> res) {
+		if(obj == null) {
+			res.add(new Finding(Severity.ERROR, path, "... ERROR: Found null value in the OAS (swagger)"));
+			return;
+		}
+
+		for(String key : obj.keySet()) {
+			checkKey(obj, key, path, res);
+
+			if(obj.optJSONObject(key)!=null) {
+				check(obj.optJSONObject(key), nextPath(path,key), res);
+			}
+
+			JSONArray array = obj.optJSONArray(key);
+			if(array!=null) {
+				checkArray(array, key, path, res);
+			}
+		}
+	}
+
+	private void checkArray(JSONArray array, String key, String path, List<Finding> res) {
+		for(int i=0; i<array.length(); i++) {
+			if(array.optJSONObject(i)!=null) {
+				check(array.optJSONObject(i), nextPath(path,key+"/["+i+"]"), res);
+			}
+		}
+	}
+
+	private void checkKey(JSONObject obj, String key, String path, List<Finding> res) {
+		if(key.contentEquals(REF)) {
+			String ref = obj.getString(REF);
+
+			if(!ref.startsWith("#")) {
+				res.add(new Finding(Severity.INFO, path, "... not checking reference {}", ref));
+			} else {
+				Resolution resolution = resolve(ref);
+				if(resolution==Resolution.NOT_FOUND) {
+					res.add(new Finding(Severity.ERROR, path, "... ERROR: Reference {} not found in the OAS/swagger", ref));
+				} else if(resolution==Resolution.INVALID) {
+					res.add(new Finding(Severity.ERROR, path, "... ERROR: invalid reference {} in object {}", ref, obj));
+				}
+			}
+		}
+
+		if(key.contentEquals(PROPERTIES)) {
+			JSONObject properties = obj.optJSONObject(key);
+			if(properties==null) {
+				res.add(new Finding(Severity.WARNING, path, "... possible issue: found {} in {} - should be a JSONObject if modelling resource properties", key, path));
+			} else if(this.camelCaseWarning) {
+				for(String property : properties.keySet()) {
+					String propertyPath = nextPath( nextPath(path,key), property);
+
+					if(!CAMEL_CASE.matcher(property).matches() && !propertyPath.contains("Header") && !propertyPath.contains("X-")) {
+						res.add(new Finding(Severity.WARNING, propertyPath, "... possible issue: found property '{}' in {} - expecting camelcase", property, propertyPath));
+					}
+				}
+			}
+		}
+	}
+
+	/*
+	 * not computeIfAbsent, resolving may be slow and is safe to repeat
+	 */
+	private Resolution resolve(String ref) {
+		Resolution res = this.references.get(ref);
+		if(res==null) {
+			try {
+				res = this.api.optQuery(ref)!=null ? Resolution.FOUND : Resolution.NOT_FOUND;
+			} catch(Exception e) {
+				res = Resolution.INVALID;
+			}
+			this.references.put(ref, res);
+		}
+		return res;
+	}
+
+	private static String nextPath(String p1, String p2) {
+		if(p1.contentEquals(ROOT)) {
+			return p1 + p2;
+		} else {
+			return p1 + "/" + p2;
+		}
+	}
+
+}
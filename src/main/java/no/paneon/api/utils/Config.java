@@ -3,6 +3,7 @@ package no.paneon.api.utils;
 import static java.util.stream.Collectors.toList;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
@@ -13,7 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -170,6 +171,8 @@ public class Config {
 			
 			if(LOG.isDebugEnabled() && rules!=null)
 				LOG.debug("setRulesSource: rules={}", rules.toString(2));
+			
+			rulesIndex = new RulesIndex(rules);
 
 		} catch(Exception e) {
 			if(LOG.isDebugEnabled())
@@ -203,43 +206,81 @@ public class Config {
 	    for(String key : deltaJSON.keySet()) {	    	
 	    	json.put(key, deltaJSON.get(key));
 	    }	   	
+	    changed();
+	}
+	
+	private static final AtomicInteger version = new AtomicInteger();
+
+	//
+	// incremented whenever the configuration is changed through Config, values derived from the
+	// configuration can be kept until the version changes
+	//
+	public static int getVersion() {
+		return version.get();
+	}
+	
+	private static void changed() {
+		version.incrementAndGet();
+	}
+	
+	private static volatile ConfigSnapshot snapshot = null;
+	
+	//
+	// the configuration compiled for the current version, all the typed accessors read the snapshot
+	//
+	static ConfigSnapshot snapshot() {
+		int current = getVersion();
+		ConfigSnapshot res = snapshot;
+		if(res==null || res.version!=current) {
+			res = new ConfigSnapshot(current, json);
+			snapshot = res;
+		}
+		return res;
+	}
+	
+	private static JSONObject current() {
+		return snapshot().json;
 	}
 	
+	//
+	// the current configuration, read-only - changes through addConfiguration, removeConfiguration and the setters
+	//
 	@LogMethod(level=LogLevel.TRACE)
 	public static JSONObject getConfiguration() {  	 		
-		return json;   	
+		return snapshot().getReadOnly();   	
+	}
+
+	@LogMethod(level=LogLevel.TRACE)
+	public static void removeConfiguration(String property) {
+		json.remove(property);
+		changed();
 	}
 	
 	public static boolean has(String property) {
 		init();
-		return json!=null && json.has(property);
+		return current().has(property);
 	}
 	
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> get(String property) {
-		try {
-			JSONArray array = json.optJSONArray(property);
-			return array.toList().stream().map(Object::toString).collect(Collectors.toList());
-		} catch(Exception e) {
-			return new LinkedList<>();
-		}
+		return new LinkedList<>(snapshot().getList(property));
 	}
 	
 	@LogMethod(level=LogLevel.TRACE)
 	public static boolean getBoolean(String property) {
-		return json.optBoolean(property);
+		return current().optBoolean(property);
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static String getString(String property) {
-		return json.optString(property);
+		return current().optString(property);
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static Map<String,String> getStringMap(String property) {
 		Map<String,String> res = new HashMap<>();
 
-		JSONObject obj = json.optJSONObject(property);			
+		JSONObject obj = current().optJSONObject(property);			
 		if(obj != null) {
 			obj.keySet().forEach(key -> res.put(key, obj.get(key).toString()) );
 		}
@@ -249,12 +290,12 @@ public class Config {
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static JSONObject getObject(String property) {
-		return json.optJSONObject(property);
+		return current().optJSONObject(property);
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static JSONArray getArray(String property) {
-		return json.optJSONArray(property);
+		return current().optJSONArray(property);
 	}
 
 	private static String rulesSource=null;
@@ -277,6 +318,18 @@ public class Config {
 		if(rules==null && rulesSource!=null) readRules();
 		return rules;
 	}
+	
+	private static volatile RulesIndex rulesIndex = null;
+	
+	private static RulesIndex getRulesIndex() {
+		JSONObject current = getRules();
+		RulesIndex res = rulesIndex;
+		if(res==null || !res.isIndexOf(current)) {
+			res = new RulesIndex(current);
+			rulesIndex = res;
+		}
+		return res;
+	}
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> getStrings(String ... args) {
@@ -310,7 +363,7 @@ public class Config {
 		List<String> res = new LinkedList<>();
 				
 		try {
-			Object o = getObjectByPath(getConfiguration(),path);
+			Object o = getObjectByPath(current(),path);
 			if(o instanceof JSONObject) {
 				JSONObject jo = (JSONObject)o;
 				if(jo.optJSONArray(element)!=null) {
@@ -390,9 +443,10 @@ public class Config {
 			LOG.log(Level.TRACE, "getConfig: key={} model={}", key, json.toString(2));
 		}
 	
-		if(json==null || !json.has(key)) return new JSONObject();
+		JSONObject config = current();
+		if(!config.has(key)) return new JSONObject();
 		
-		return json.optJSONObject(key);
+		return config.optJSONObject(key);
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
@@ -420,21 +474,22 @@ public class Config {
 	
 	public static void setBoolean(String key, boolean value) {
 		json.put(key, value);
+		changed();
 	}
 
 	public static Map<String, String> getTypeMapping() {
-		return getMap("typeMapping");
+		return new HashMap<>(snapshot().typeMapping);
 	}
 
 	public static Map<String, String> getFormatToType() {
-		return getMap("formatToType");
+		return new HashMap<>(snapshot().formatToType);
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static Map<String,String> getMap(String property) {
 		Map<String,String> res = new HashMap<>();
 		
-		JSONObject obj = json.optJSONObject(property);
+		JSONObject obj = current().optJSONObject(property);
 		
 		if(obj!=null) obj.keySet().stream().forEach(key -> res.put(key,  obj.opt(key).toString()));
 
@@ -442,45 +497,69 @@ public class Config {
 	
 	}
 	
+	@LogMethod(level=LogLevel.TRACE)
+	public static String getMappedType(String type) {
+		return snapshot().typeMapping.get(type);
+	}
+
+	@LogMethod(level=LogLevel.TRACE)
+	public static String getMappedFormat(String format) {
+		return snapshot().formatToType.get(format);
+	}
+
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> getSimpleTypes() {
-		if(has("simpleTypes")) {
-			return get("simpleTypes");
-		} else {
-			return new LinkedList<>( List.of("TimePeriod", "Money", "Quantity", "Tax", 
-								 	 "Value", "Any", "object", "Number", "Date") );
-		}
+		init();
+		return new LinkedList<>(snapshot().simpleTypes);
+	}
+	
+	@LogMethod(level=LogLevel.TRACE)
+	public static boolean isSimpleType(String type) {
+		init();
+		return snapshot().simpleTypeSet.contains(type);
 	}
 	
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> getCustomSimpleTypes() {
-		List<String> res = new LinkedList<>();;
-		if(has("customSimpleTypes")) {
-			res.addAll( get("customSimpleTypes") );
-		} 
-		
-		LOG.debug("getCustomSimpleTypes: res={}", res);
-
-		return res;
+		init();
+		return new LinkedList<>(snapshot().getList("customSimpleTypes"));
+	}
+	
+	@LogMethod(level=LogLevel.TRACE)
+	public static boolean isCustomSimpleType(String type) {
+		init();
+		return snapshot().customSimpleTypes.contains(type);
 	}
 	
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> getSimpleEndings() {
-		if(has("simpleEndings")) {
-			return get("simpleEndings");
-		} else {
-			return List.of("Type", "Error");
+		init();
+		return snapshot().simpleEndings;
+	}
+
+	@LogMethod(level=LogLevel.TRACE)
+	public static boolean hasSimpleEnding(String type) {
+		init();
+		for(String ending : snapshot().simpleEndings) {
+			if(type.endsWith(ending)) return true;
 		}
+		return false;
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> getNonSimpleEndings() {
-		if(has("nonSimpleEndings")) {
-			return get("nonSimpleEndings");
-		} else {
-			return List.of("RefType", "TypeRef");
-		}
+		init();
+		return snapshot().nonSimpleEndings;
 	}  
+
+	@LogMethod(level=LogLevel.TRACE)
+	public static boolean hasNonSimpleEnding(String type) {
+		init();
+		for(String ending : snapshot().nonSimpleEndings) {
+			if(type.endsWith(ending)) return true;
+		}
+		return false;
+	}
 	
 	
 	private static String prefix = "";
@@ -515,22 +594,7 @@ public class Config {
 	
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> getBaseTypesForResource(String resource) {
-		List<String> res = new LinkedList<>();
-		JSONObject baseTypeConfig = getJSONObject("baseTypes");
-		
-		JSONArray config = null;
-		if(baseTypeConfig.has(resource)) {
-			config = baseTypeConfig.optJSONArray(resource);
-		} else {
-			config = baseTypeConfig.optJSONArray("common");
-		}
-	
-		if(config!=null) {
-			res.addAll(config.toList().stream().map(Object::toString).toList());
-		}
-		
-		return res;
-	
+		return new LinkedList<>(snapshot().getBaseTypes(resource));
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
@@ -540,8 +604,9 @@ public class Config {
 
 	@LogMethod(level=LogLevel.TRACE)
 	private static JSONObject getJSONObject(String label) {
-		if(json.optJSONObject(label)!=null) 
-			return json.optJSONObject(label);
+		JSONObject config = current();
+		if(config.optJSONObject(label)!=null) 
+			return config.optJSONObject(label);
 		else
 			return new JSONObject();
 	}
@@ -624,11 +689,8 @@ public class Config {
 
 	@LogMethod(level=LogLevel.TRACE)
 	public static List<String> getOrphanEnums() {
-		List<String> res = new LinkedList<>();
-		if(has("orphan-enums")) {
-			res = get("orphan-enums");
-		}
-		return res;
+		init();
+		return new LinkedList<>(snapshot().getList("orphan-enums"));
 	}
 	
 	@LogMethod(level=LogLevel.TRACE)
@@ -674,6 +736,7 @@ public class Config {
 				JSONObject config = enum_config.optJSONObject("orphan-enums-by-resource");
 				if(config!=null) {
 					json.put("orphan-enums-by-resource", config);
+					changed();
 					resources.addAll( config.keySet().stream()
 										.filter(item -> !resources.contains(item))
 										.toList());
@@ -681,6 +744,7 @@ public class Config {
 				}
 
 				if(!resources.isEmpty()) json.put("orphan-enums", resources);
+				changed();
 
 			}
 			
@@ -730,12 +794,12 @@ public class Config {
 		try {
 			String path = fileName.replaceFirst("^~", System.getProperty("user.home"));
 	        File file = new File(path);
-	        String yaml = FileUtils.readFileToString(file, "utf-8");
-	        if(yaml.isEmpty()) {
+	        if(file.isFile() && file.length()==0) {
 	        	return new JSONObject();
 	        } else {
-		        String json = convertYamlToJson(yaml);
-		        return new JSONObject(json); 
+	        	try(InputStream is = new FileInputStream(file)) {
+	        		return JSONTreeReader.readYaml(is);
+	        	}
 	        }
 		} catch(Exception ex) {
 			if(!errorOK) throw(ex);
@@ -773,15 +837,6 @@ public class Config {
         
 	}
 	
-	@LogMethod(level=LogLevel.TRACE)
-    static String convertYamlToJson(String yaml) throws Exception {
-	    ObjectMapper yamlReader = new ObjectMapper(new YAMLFactory());
-	    Object obj = yamlReader.readValue(yaml, Object.class);
-
-	    ObjectMapper jsonWriter = new ObjectMapper();
-	    return jsonWriter.writeValueAsString(obj);
-	}
-
 	@LogMethod(level=LogLevel.TRACE)
 	public static boolean getFloatingEnums() {
 		boolean res=false;
@@ -806,6 +861,7 @@ public class Config {
 			 for(String key : args.keySet() ) {
 				 json.put(key, args.get(key));
 			 }
+			 changed();
 		}
 	}
 
@@ -886,7 +942,7 @@ public class Config {
 	public static int getMaxLineLength() {
 		int res=80;
 		if(has("maxLineLength")) {
-			res=json.getInt("maxLineLength");
+			res=current().getInt("maxLineLength");
 		}
 		return res;
 	}
@@ -930,6 +986,7 @@ public class Config {
 	@LogMethod(level=LogLevel.TRACE)
 	private static void set(String label, Object value) {
 		json.put(label,value);
+		changed();
 	}
 
 	@LogMethod(level=LogLevel.TRACE)
@@ -956,10 +1013,21 @@ public class Config {
 		return get("coreInheritanceRegexp");
 	}
 	
+	//
+	// coreInheritanceTypes and the coreInheritanceRegexp patterns, compiled once per configuration version
+	//
+	public static boolean isFlattenInheritance(String type) {
+		return snapshot().isFlattenInheritance(type);
+	}
+	
 	public static List<String> getSubClassesExcludeRegexp() {
 		return get("subClassExcludeRegexp");
 	}
 
+	public static boolean isExcludedSubClass(String type) {
+		return snapshot().isExcludedSubClass(type);
+	}
+
 	public static int getInteger(String property) {
 		try {
 			String s = getString(property);
@@ -987,26 +1055,9 @@ public class Config {
 			
 			LOG.debug("getResourcesFromRules: checkForExamples={}", checkForExamples);
 
-			Predicate<JSONObject> includeResource = obj -> obj.has("name") && 
-					(!checkForExamples || checkForExamples && (obj.has("example") || obj.has("examples")));
-			
-			JSONArray resourcesRules = rules.optJSONArray("resources");
-			Iterator<Object> iter = resourcesRules.iterator();
-			while(iter.hasNext()) {
-				Object o = iter.next();
-				if(o instanceof JSONObject) {
-					JSONObject rule = (JSONObject)o;
-					if(includeResource.test(rule)) res.add(rule.optString("name"));
-					
-					LOG.debug("getResourcesFromRules: rule={}", rule.toString(2));
-
-				}
-			
-			}
+			res = getRulesIndex().getResources(checkForExamples);
 
 		}
-				
-		res = res.stream().distinct().collect(Collectors.toList());
 		
 		LOG.debug("#0 getResourcesFromRules: {}", res);
 
@@ -1028,30 +1079,17 @@ public class Config {
 				return resourceRules;
 			}
 			
-			JSONArray resourcesRules = rules.optJSONArray("resources");
-			if(resourcesRules!=null) {		
-
-				Iterator<Object> iter = resourcesRules.iterator();
-				while(iter.hasNext()) {
-					Object o = iter.next();
-					if(o instanceof JSONObject) {
-						JSONObject resourceRules = (JSONObject)o;
-						
-						LOG.debug("getRulesForResource: resource={} rules={}", resource, rules);	
-
-						if(resourceRules.has("name") && resourceRules.optString("name").contentEquals(resource)) {
-							LOG.debug("getRulesForResource: resource={} rules={}", resource, rules);	
-							return resourceRules;
-						}
-					}
-				}				
-			}
+			return getRulesIndex().getResourceRules(resource);
 		}
 		
 		return null;
 	}
 
 	public static JSONObject getRulesForOperation(JSONObject rulesForResource, String op) {
+		if(rulesForResource !=null && getRulesIndex().hasOperations(rulesForResource)) {
+			return getRulesIndex().getOperationRules(rulesForResource, op);
+		}
+		
 		if(rulesForResource !=null) {
 
 			JSONArray operationRules = rulesForResource.optJSONArray("supportedHttpMethods");
@@ -0,0 +1,162 @@
+package no.paneon.api.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import no.paneon.api.model.FrozenJSON;
+
+/*
+ * Immutable view of one version of the configuration: the list properties as lists of strings, the
+ * type lists as hash sets, the regular expressions compiled and the mappings as maps.
+ *
+ * Built by Config when the configuration has changed (see Config.getVersion) and shared by all threads.
+ */
+final class ConfigSnapshot {
+
+	static final Logger LOG = LogManager.getLogger(ConfigSnapshot.class);
+
+	static final List<String> DEFAULT_SIMPLE_TYPES = List.of("TimePeriod", "Money", "Quantity", "Tax",
+																"Value", "Any", "object", "Number", "Date");
+	static final List<String> DEFAULT_SIMPLE_ENDINGS = List.of("Type", "Error");
+	static final List<String> DEFAULT_NON_SIMPLE_ENDINGS = List.of("RefType", "TypeRef");
+
+	final int version;
+
+	final JSONObject json;
+
+	private volatile JSONObject readOnly = null;
+
+	private final Map<String,List<String>> lists = new HashMap<>();
+
+	final List<String> simpleTypes;
+	final Set<String> simpleTypeSet;
+	final Set<String> customSimpleTypes;
+	final List<String> simpleEndings;
+	final List<String> nonSimpleEndings;
+
+	final Set<String> flattenInheritanceTypes;
+	final List<Pattern> flattenInheritancePatterns;
+	final List<Pattern> subClassExcludePatterns;
+
+	final Map<String,String> typeMapping;
+	final Map<String,String> formatToType;
+
+	private final Map<String,List<String>> baseTypes = new HashMap<>();
+	private final List<String> commonBaseTypes;
+
+	ConfigSnapshot(int version, JSONObject json) {
+		this.version = version;
+		this.json = new JSONObject(json.toString());
+
+		for(String key : json.keySet()) {
+			this.lists.put(key, toList(json.optJSONArray(key)));
+		}
+
+		this.simpleTypes = this.lists.getOrDefault("simpleTypes", DEFAULT_SIMPLE_TYPES);
+		this.simpleTypeSet = Set.copyOf(this.simpleTypes);
+		this.customSimpleTypes = Set.copyOf(getList("customSimpleTypes"));
+		this.simpleEndings = this.lists.getOrDefault("simpleEndings", DEFAULT_SIMPLE_ENDINGS);
+		this.nonSimpleEndings = this.lists.getOrDefault("nonSimpleEndings", DEFAULT_NON_SIMPLE_ENDINGS);
+
+		this.flattenInheritanceTypes = Set.copyOf(getList("coreInheritanceTypes"));
+		this.flattenInheritancePatterns = compile(getList("coreInheritanceRegexp"));
+		this.subClassExcludePatterns = compile(getList("subClassExcludeRegexp"));
+
+		this.typeMapping = toMap(json.optJSONObject("typeMapping"));
+		this.formatToType = toMap(json.optJSONObject("formatToType"));
+
+		JSONObject baseTypeConfig = json.optJSONObject("baseTypes");
+		if(baseTypeConfig!=null) {
+			for(String resource : baseTypeConfig.keySet()) {
+				this.baseTypes.put(resource, toList(baseTypeConfig.optJSONArray(resource)));
+			}
+		}
+		this.commonBaseTypes = this.baseTypes.getOrDefault("common", Collections.emptyList());
+
+		LOG.debug("ConfigSnapshot: version={} lists={}", version, this.lists.size());
+	}
+
+	/*
+	 * read-only copy of the configuration, made on first use
+	 */
+	JSONObject getReadOnly() {
+		JSONObject res = this.readOnly;
+		if(res==null) {
+			res = FrozenJSON.freeze(this.json);
+			this.readOnly = res;
+		}
+		return res;
+	}
+
+	/*
+	 * the list property, empty if not set or not a list
+	 */
+	List<String> getList(String property) {
+		return this.lists.getOrDefault(property, Collections.emptyList());
+	}
+
+	boolean hasList(String property) {
+		return this.lists.containsKey(property);
+	}
+
+	List<String> getBaseTypes(String resource) {
+		return this.baseTypes.getOrDefault(resource, this.commonBaseTypes);
+	}
+
+	boolean isFlattenInheritance(String type) {
+		return this.flattenInheritanceTypes.contains(type) || matchesAny(this.flattenInheritancePatterns, type);
+	}
+
+	boolean isExcludedSubClass(String type) {
+		return matchesAny(this.subClassExcludePatterns, type);
+	}
+
+	static boolean matchesAny(List<Pattern> patterns, String value) {
+		for(Pattern pattern : patterns) {
+			if(pattern.matcher(value).matches()) return true;
+		}
+		return false;
+	}
+
+	/*
+	 * as Config.get, empty if not an array or with null elements
+	 */
+	private static List<String> toList(JSONArray array) {
+		try {
+			return Collections.unmodifiableList(array.toList().stream().map(Object::toString).collect(Collectors.toList()));
+		} catch(Exception e) {
+			return Collections.emptyList();
+		}
+	}
+
+	private static Map<String,String> toMap(JSONObject obj) {
+		Map<String,String> res = new HashMap<>();
+		if(obj!=null) obj.keySet().forEach(key -> res.put(key, obj.opt(key).toString()));
+		return Collections.unmodifiableMap(res);
+	}
+
+	private static List<Pattern> compile(List<String> regexps) {
+		List<Pattern> res = new LinkedList<>();
+		for(String regexp : regexps) {
+			try {
+				res.add(Pattern.compile(regexp));
+			} catch(PatternSyntaxException e) {
+				Out.printOnce("... invalid regular expression '{}' in the configuration", regexp);
+			}
+		}
+		return Collections.unmodifiableList(res);
+	}
+
+}
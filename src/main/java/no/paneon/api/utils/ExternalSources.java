@@ -0,0 +1,229 @@
+package no.paneon.api.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONObject;
+
+/*
+ * Reads the external sources (files and URLs) referenced by the specifications.
+ *
+ * prefetch reads a set of sources concurrently, bounded by the configuration property externalParallelism,
+ * ahead of their use. The content is returned to the caller, which keeps it with the model it belongs to.
+ *
+ * Web sources are read with connect and read timeouts (externalTimeout, in milliseconds). If the configuration
+ * property externalCacheDirectory is set, the content is stored in this directory and revalidated by conditional
+ * requests (ETag / Last-Modified) when read again, also by later runs.
+ */
+public class ExternalSources {
+
+	static final Logger LOG = LogManager.getLogger(ExternalSources.class);
+
+	static final String PARALLELISM = "externalParallelism";
+	static final String TIMEOUT = "externalTimeout";
+	static final String CACHE_DIRECTORY = "externalCacheDirectory";
+
+	static final int DEFAULT_PARALLELISM = 8;
+	static final int DEFAULT_TIMEOUT = 30000;
+
+	static final String ETAG = "etag";
+	static final String LAST_MODIFIED = "lastModified";
+	static final String SOURCE = "source";
+
+	private static final AtomicLong requests = new AtomicLong();
+	private static final AtomicLong notModified = new AtomicLong();
+
+	private ExternalSources() {
+	}
+
+	/*
+	 * reads the sources concurrently and returns the content by source, a source which cannot be read is
+	 * left out (to be read and reported when used)
+	 */
+	public static Map<String,byte[]> prefetch(Collection<String> sources) {
+		Map<String,byte[]> prefetched = new ConcurrentHashMap<>();
+
+		List<String> pending = sources.stream()
+				.filter(Objects::nonNull)
+				.distinct()
+				.collect(Collectors.toList());
+
+		if(pending.isEmpty()) return prefetched;
+
+		int parallelism = Math.min(pending.size(), getPositive(PARALLELISM, DEFAULT_PARALLELISM));
+
+		LOG.debug("ExternalSources::prefetch sources={} parallelism={}", pending.size(), parallelism);
+
+		List<Callable<Void>> tasks = pending.stream().map(source -> (Callable<Void>) () -> {
+			try {
+				prefetched.put(source, read(source));
+			} catch(Exception e) {
+				LOG.debug("ExternalSources::prefetch source={} exception={}", source, e.getLocalizedMessage());
+			}
+			return null;
+		}).collect(Collectors.toList());
+
+		ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+		try {
+			executor.invokeAll(tasks);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return prefetched;
+	}
+
+	public static long getRequests() {
+		return requests.get();
+	}
+
+	public static long getNotModified() {
+		return notModified.get();
+	}
+
+	static byte[] read(String source) throws Exception {
+		if(Utils.isWebSource(source)) {
+			return readWebSource(source);
+		} else {
+			String path = source.replaceFirst("^~", System.getProperty("user.home"));
+			try(InputStream in = new FileInputStream(path)) {
+				return in.readAllBytes();
+			}
+		}
+	}
+
+	public static byte[] readWebSource(String source) throws Exception {
+		URI uri = new URI(source.replace("\\", "/"));
+
+		Path cacheFile = getCacheFile(source);
+		JSONObject cached = cacheFile!=null ? readCacheEntry(cacheFile) : null;
+
+		int timeout = getPositive(TIMEOUT, DEFAULT_TIMEOUT);
+
+		URLConnection conn = uri.toURL().openConnection();
+		conn.setConnectTimeout(timeout);
+		conn.setReadTimeout(timeout);
+
+		if(cached!=null) {
+			if(!cached.optString(ETAG).isEmpty()) conn.setRequestProperty("If-None-Match", cached.optString(ETAG));
+			if(!cached.optString(LAST_MODIFIED).isEmpty()) conn.setRequestProperty("If-Modified-Since", cached.optString(LAST_MODIFIED));
+		}
+
+		requests.incrementAndGet();
+
+		if(cached!=null && conn instanceof HttpURLConnection
+				&& ((HttpURLConnection) conn).getResponseCode()==HttpURLConnection.HTTP_NOT_MODIFIED) {
+
+			notModified.incrementAndGet();
+			LOG.debug("ExternalSources::readWebSource not modified source={}", source);
+
+			try(InputStream in = conn.getInputStream()) {
+				in.readAllBytes();
+			}
+			return Files.readAllBytes(getContentFile(cacheFile));
+		}
+
+		byte[] content;
+		try(InputStream in = conn.getInputStream()) {
+			content = in.readAllBytes();
+		}
+
+		if(cacheFile!=null) {
+			writeCacheEntry(cacheFile, source, content, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"));
+		}
+
+		return content;
+	}
+
+	private static Path getCacheFile(String source) {
+		String directory = Config.getString(CACHE_DIRECTORY);
+		if(directory.isEmpty()) return null;
+
+		directory = directory.replaceFirst("^~", System.getProperty("user.home"));
+
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.getBytes(StandardCharsets.UTF_8));
+			return Path.of(directory, HexFormat.of().formatHex(digest) + ".json");
+		} catch(NoSuchAlgorithmException e) {
+			LOG.debug("ExternalSources: no cache exception={}", e.getLocalizedMessage());
+			return null;
+		}
+	}
+
+	private static Path getContentFile(Path cacheFile) {
+		return cacheFile.resolveSibling(cacheFile.getFileName().toString().replace(".json", ".content"));
+	}
+
+	private static JSONObject readCacheEntry(Path cacheFile) {
+		try {
+			if(!Files.exists(cacheFile) || !Files.exists(getContentFile(cacheFile))) return null;
+			return new JSONObject(Files.readString(cacheFile));
+		} catch(Exception e) {
+			LOG.debug("ExternalSources::readCacheEntry file={} exception={}", cacheFile, e.getLocalizedMessage());
+			return null;
+		}
+	}
+
+	private static void writeCacheEntry(Path cacheFile, String source, byte[] content, String etag, String lastModified) {
+		if(etag==null && lastModified==null) return;
+
+		JSONObject entry = new JSONObject();
+		entry.put(SOURCE, source);
+		if(etag!=null) entry.put(ETAG, etag);
+		if(lastModified!=null) entry.put(LAST_MODIFIED, lastModified);
+
+		try {
+			Files.createDirectories(cacheFile.getParent());
+			write(getContentFile(cacheFile), content);
+			write(cacheFile, entry.toString(2).getBytes(StandardCharsets.UTF_8));
+		} catch(IOException e) {
+			LOG.debug("ExternalSources::writeCacheEntry source={} exception={}", source, e.getLocalizedMessage());
+		}
+	}
+
+	/*
+	 * written to a temporary file and moved in place, concurrent readers never see a partial file
+	 */
+	private static void write(Path file, byte[] content) throws IOException {
+		Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+		Files.write(tmp, content);
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static int getPositive(String property, int defaultValue) {
+		String value = Config.getString(property);
+		try {
+			int res = value.isEmpty() ? defaultValue : Integer.parseInt(value);
+			return res>0 ? res : defaultValue;
+		} catch(NumberFormatException e) {
+			LOG.debug("ExternalSources: invalid {}={}", property, value);
+			return defaultValue;
+		}
+	}
+
+}
@@ -0,0 +1,168 @@
+package no.paneon.api.utils;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadFeature;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/*
+ * Reads JSON and YAML documents directly into JSONObject / JSONArray trees.
+ *
+ * The parser tokens are added to the tree as they are read, i.e. there is no intermediate string or
+ * Jackson object tree. The result is the same as parsing the document with org.json (JSON), or converting
+ * the YAML document to a JSON string and parsing that with org.json (YAML): the values are converted
+ * with JSONObject.stringToValue, null values are JSONObject.NULL, and duplicated keys are an error in JSON
+ * while the last value is used in YAML.
+ *
+ * The factories are shared, a parser is created per document. The input streams are not closed.
+ */
+public class JSONTreeReader {
+
+	static final Logger LOG = LogManager.getLogger(JSONTreeReader.class);
+
+	private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+			.disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+			.enable(JsonReadFeature.ALLOW_JAVA_COMMENTS)
+			.enable(JsonReadFeature.ALLOW_SINGLE_QUOTES)
+			.enable(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES)
+			.build();
+
+	private static final YAMLFactory YAML_FACTORY = YAMLFactory.builder()
+			.disable(StreamReadFeature.AUTO_CLOSE_SOURCE)
+			.build();
+
+	private static final int UTF8_BOM = 0xEF;
+	private static final int DETECT_LIMIT = 1024;
+
+	private JSONTreeReader() {
+	}
+
+	/*
+	 * JSON if the first non-whitespace character is { or [, otherwise YAML
+	 */
+	public static JSONObject read(InputStream is) throws IOException {
+		InputStream in = is.markSupported() ? is : new BufferedInputStream(is);
+		return isJSON(in) ? readJSON(in) : readYaml(in);
+	}
+
+	public static JSONObject readJSON(InputStream is) throws IOException {
+		try(JsonParser parser = JSON_FACTORY.createParser(is)) {
+			return readDocument(parser, false);
+		}
+	}
+
+	public static JSONObject readYaml(InputStream is) throws IOException {
+		try(JsonParser parser = YAML_FACTORY.createParser(is)) {
+			return readDocument(parser, true);
+		}
+	}
+
+	public static JSONObject readYaml(String yaml) throws IOException {
+		try(JsonParser parser = YAML_FACTORY.createParser(yaml)) {
+			return readDocument(parser, true);
+		}
+	}
+
+	static boolean isJSON(InputStream in) throws IOException {
+		in.mark(DETECT_LIMIT + 4);
+		try {
+			int c = in.read();
+			if(c==UTF8_BOM) {
+				in.skip(2);
+				c = in.read();
+			}
+			for(int i=0; i<DETECT_LIMIT && Character.isWhitespace(c); i++) {
+				c = in.read();
+			}
+			return c=='{' || c=='[';
+		} finally {
+			in.reset();
+		}
+	}
+
+	private static JSONObject readDocument(JsonParser parser, boolean isYaml) throws IOException {
+		JsonToken token = parser.nextToken();
+		if(token!=JsonToken.START_OBJECT) {
+			throw new JSONException("A JSONObject text must begin with '{' (found " + token + ")");
+		}
+		return readObject(parser, isYaml);
+	}
+
+	private static JSONObject readObject(JsonParser parser, boolean isYaml) throws IOException {
+		JSONObject res = new JSONObject();
+		JsonToken token;
+		while((token=parser.nextToken())==JsonToken.FIELD_NAME) {
+			String key = parser.currentName();
+			Object value = readValue(parser, parser.nextToken(), isYaml);
+			if(!isYaml && res.has(key)) {
+				throw new JSONException("Duplicate key \"" + key + "\"");
+			}
+			res.put(key, value);
+		}
+		if(token==null) throw new JSONException("Unexpected end of document");
+		return res;
+	}
+
+	private static JSONArray readArray(JsonParser parser, boolean isYaml) throws IOException {
+		JSONArray res = new JSONArray();
+		JsonToken token;
+		while((token=parser.nextToken())!=JsonToken.END_ARRAY) {
+			res.put(readValue(parser, token, isYaml));
+		}
+		return res;
+	}
+
+	private static Object readValue(JsonParser parser, JsonToken token, boolean isYaml) throws IOException {
+		if(token==null) throw new JSONException("Unexpected end of document");
+
+		switch(token) {
+		case START_OBJECT:
+			return readObject(parser, isYaml);
+
+		case START_ARRAY:
+			return readArray(parser, isYaml);
+
+		case VALUE_STRING:
+			return parser.getText();
+
+		case VALUE_NUMBER_INT:
+			return JSONObject.stringToValue(isYaml ? parser.getNumberValue().toString() : parser.getText());
+
+		case VALUE_NUMBER_FLOAT:
+			if(!isYaml) return JSONObject.stringToValue(parser.getText());
+			double value = parser.getDoubleValue();
+			return Double.isFinite(value) ? JSONObject.stringToValue(Double.toString(value)) : Double.toString(value);
+
+		case VALUE_TRUE:
+			return Boolean.TRUE;
+
+		case VALUE_FALSE:
+			return Boolean.FALSE;
+
+		case VALUE_NULL:
+			return JSONObject.NULL;
+
+		case VALUE_EMBEDDED_OBJECT:
+			Object embedded = parser.getEmbeddedObject();
+			if(embedded instanceof byte[]) return Base64.getEncoder().encodeToString((byte[]) embedded);
+			return embedded!=null ? embedded.toString() : JSONObject.NULL;
+
+		default:
+			throw new JSONException("Unexpected token " + token);
+		}
+	}
+
+}
@@ -1,7 +1,7 @@
 package no.paneon.api.utils;
 
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -50,12 +50,11 @@ public class Out {
 		LOG.log(AspectLogger.VERBOSE, format, args);
 	}
 
-	static Set<String> printedOnce = new HashSet<>();
+	static Set<String> printedOnce = ConcurrentHashMap.newKeySet();
 	public static void printOnce(String format,  Object ...args) {
 		format = format.replace("{}", "%s");		
 		String res = String.format(format,args);
-		if(!printedOnce.contains(res)) {
-			printedOnce.add(res);
+		if(printedOnce.add(res)) {
 			printAlways(res);
 		}
 	}
@@ -0,0 +1,122 @@
+package no.paneon.api.utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+/*
+ * Index of a rules document: resource name -> rules of the resource (the first entry of the resources array
+ * with that name), and rules of a resource -> operation -> rules of the operation (supportedHttpMethods).
+ *
+ * Built once when the rules are read (see Config.readRules), the lookups of Config are map lookups.
+ */
+final class RulesIndex {
+
+	static final Logger LOG = LogManager.getLogger(RulesIndex.class);
+
+	static final String RESOURCES = "resources";
+	static final String NAME = "name";
+	static final String SUPPORTED_HTTP_METHODS = "supportedHttpMethods";
+	static final String RULES_PREFIX = "rules ";
+
+	private final JSONObject rules;
+
+	private final Map<String,JSONObject> resources = new LinkedHashMap<>();
+	private final List<String> resourcesWithExamples = new LinkedList<>();
+
+	private final Map<JSONObject,Map<String,JSONObject>> operations = new IdentityHashMap<>();
+
+	RulesIndex(JSONObject rules) {
+		this.rules = rules;
+
+		if(rules==null) return;
+
+		for(String key : rules.keySet()) {
+			if(key.startsWith(RULES_PREFIX) && rules.optJSONObject(key)!=null) {
+				indexOperations(rules.optJSONObject(key));
+			}
+		}
+
+		JSONArray resourcesRules = rules.optJSONArray(RESOURCES);
+		if(resourcesRules!=null) {
+			for(Object o : resourcesRules) {
+				if(!(o instanceof JSONObject)) continue;
+
+				JSONObject rule = (JSONObject) o;
+				indexOperations(rule);
+
+				if(!rule.has(NAME)) continue;
+
+				String name = rule.optString(NAME);
+				this.resources.putIfAbsent(name, rule);
+
+				if((rule.has("example") || rule.has("examples")) && !this.resourcesWithExamples.contains(name)) {
+					this.resourcesWithExamples.add(name);
+				}
+			}
+		}
+
+		LOG.debug("RulesIndex: resources={} operations={}", this.resources.size(), this.operations.size());
+	}
+
+	boolean isIndexOf(JSONObject rules) {
+		return this.rules==rules;
+	}
+
+	/*
+	 * the rules of the first entry of the resources array with the name, null if none
+	 */
+	JSONObject getResourceRules(String resource) {
+		return this.resources.get(resource);
+	}
+
+	/*
+	 * the distinct names of the resources array, in order, optionally only those with examples
+	 */
+	List<String> getResources(boolean withExamples) {
+		return withExamples ? new LinkedList<>(this.resourcesWithExamples) : new LinkedList<>(this.resources.keySet());
+	}
+
+	boolean hasOperations(JSONObject rulesForResource) {
+		return this.operations.containsKey(rulesForResource);
+	}
+
+	JSONObject getOperationRules(JSONObject rulesForResource, String op) {
+		return this.operations.getOrDefault(rulesForResource, Collections.emptyMap()).get(op);
+	}
+
+	/*
+	 * as Config.getRulesForOperation: the first element of a supportedHttpMethods array with the operation,
+	 * or the operation of a supportedHttpMethods object
+	 */
+	private void indexOperations(JSONObject rulesForResource) {
+		Map<String,JSONObject> res = new HashMap<>();
+
+		JSONArray operationRules = rulesForResource.optJSONArray(SUPPORTED_HTTP_METHODS);
+		if(operationRules!=null) {
+			for(Object o : operationRules) {
+				if(o instanceof JSONObject) {
+					JSONObject rulesForOperation = (JSONObject) o;
+					rulesForOperation.keySet().forEach(op -> res.putIfAbsent(op, rulesForOperation));
+				}
+			}
+		} else if(rulesForResource.optJSONObject(SUPPORTED_HTTP_METHODS)!=null) {
+			JSONObject operationRulesObject = rulesForResource.optJSONObject(SUPPORTED_HTTP_METHODS);
+			operationRulesObject.keySet().forEach(op -> res.put(op, operationRulesObject.optJSONObject(op)));
+		} else {
+			return;
+		}
+
+		this.operations.put(rulesForResource, res);
+	}
+
+}
@@ -1,5 +1,7 @@
 package no.paneon.api.utils;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -8,8 +10,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
-import java.net.URL;
-import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.CopyOption;
 import java.nio.file.Files;
@@ -45,7 +45,6 @@ import java.awt.Dimension;
 
 import org.apache.commons.io.Charsets;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.springframework.core.io.ClassPathResource;
@@ -100,24 +99,16 @@ public class Utils {
 	@LogMethod(level=LogLevel.TRACE)
 	public static boolean isSimpleType(String type) {
 		boolean res=false;
-	    List<String> simpleTypes = Config.getSimpleTypes(); 
     	    
         if(APIModel.isEnumType(type)) {
         	res=true;
         }
-        else if(simpleTypes.contains(type)) {
+        else if(Config.isSimpleType(type)) {
 	        res=true;
+	    } else if(Config.hasNonSimpleEnding(type)) {
+	    	res=false;
 	    } else {
-		    List<String> nonSimpleEndings = Config.getNonSimpleEndings();
-
-	        boolean nonSimple=nonSimpleEndings.stream().anyMatch(type::endsWith);
-	        if(nonSimple) {
-	        	res=false;
-	        } else {
-	    	    List<String> simpleEndings = Config.getSimpleEndings();       
-
-	        	res=simpleEndings.stream().anyMatch(type::endsWith);
-	        }
+	    	res=Config.hasSimpleEnding(type);
 	    }
         
         LOG.debug("isSimpleType: type={} res={}", type, res);
@@ -200,24 +191,33 @@ public class Utils {
 		return res;
 	}
 	
+	/*
+	 * as readJSONOrYaml(source, failIfNotFound), from the content already read for the source if not null
+	 */
+	@LogMethod(level=LogLevel.TRACE)
+	public static JSONObject readJSONOrYaml(String source, byte[] content, boolean failIfNotFound) {
+		if(content==null) return readJSONOrYaml(source, failIfNotFound);
+		
+		try(InputStream in = new ByteArrayInputStream(content)) {
+			if(source.endsWith(".yaml") || source.endsWith(".yml")) {
+				return JSONTreeReader.readYaml(in);
+			} else {
+				return JSONTreeReader.readJSON(in);
+			}
+		} catch(Exception e) {
+			Out.println("... unable to read source " + getBaseFileName(source) + " (error: " + e.getLocalizedMessage() + ")");
+			if(failIfNotFound) e.printStackTrace();
+			if(failIfNotFound) System.exit(0);
+			return new JSONObject();
+		}
+	}
+	
 	
 	@LogMethod(level=LogLevel.TRACE)
 	public static JSONObject readJSONOrYaml(InputStream file) {
 		JSONObject res = null;
 		try {
-	        String content = IOUtils.toString(file, StandardCharsets.UTF_8); 
-	        
-			LOG.debug("content={} isYaml={}", content, isYaml(content));
-
-	        if(!content.isEmpty()) {
-	        	LOG.debug("readJSONOrYaml: content={}", content.subSequence(0, Math.min(30,  content.length()-1)));
-	        }
-	        
-	        if(isYaml(content)) {
-	        	res = convertYamlAsJSON(content,false);
-	        } else {
-				res = convertJSON(content,false);
-	        }
+			res = JSONTreeReader.read(file);
 	        
 		} catch(Exception e) {
 			Out.println("... unable to read source: : error: " + e.getLocalizedMessage() );
@@ -225,16 +225,11 @@ public class Utils {
 			System.exit(0);
 		}
 		
-		LOG.debug("readJSONOrYaml:: res={}", res);
+		if(LOG.isDebugEnabled()) LOG.debug("readJSONOrYaml:: res={}", res);
 
 		return res;
 	}
 	
-	private static boolean isYaml(String content) {
-		String prefix = content.substring(0, Math.min(300, content.length())).replaceAll(" ", "");
-		return !prefix.startsWith("{") && !content.startsWith("[");
-	} 
-
 	@LogMethod(level=LogLevel.TRACE)
 	public static String getBaseFileName(String file) {
 		File f = new File(file);
@@ -258,8 +253,7 @@ public class Utils {
 	@LogMethod(level=LogLevel.TRACE)
 	public static JSONObject convertYamlAsJSON(String yaml, boolean errorOK) throws Exception {
 		try {
-	        String json = convertYamlToJson(yaml);
-	        return new JSONObject(json); 
+	        return JSONTreeReader.readYaml(yaml); 
 		} catch(Exception ex) {
 			if(!errorOK) throw(ex);
 			return new JSONObject();
@@ -831,12 +825,9 @@ public class Utils {
 			URI uri = new URI(source);
 			boolean isWeb = uri.getScheme()!=null && List.of("HTTP", "HTTPS").contains(uri.getScheme().toUpperCase());
 			if(isWeb) {
-				URL url = uri.toURL(); 
-				URLConnection con = url.openConnection();   
-
 				LOG.debug("getSource::isWeb={} url={}",  isWeb, source);
 
-				res = con.getInputStream();		   
+				res = new ByteArrayInputStream(ExternalSources.readWebSource(source));
 			} else {
 				res = new FileInputStream(source);
 			}
@@ -1155,29 +1146,10 @@ public class Utils {
 	@LogMethod(level=LogLevel.TRACE)
 	public static JSONObject readJSON(String source, boolean errorOK) throws AppException {
 		
-		String content;
+		InputStream is;
 
 		try {
-						
-			if(isWebSource(source)) {
-				LOG.debug("isWebSource readJSON::source={}", source );
-
-				source = source.replace("\\", "/");
-	
-				URI uri = new URI(source);
-				URL url = uri.toURL(); 
-				URLConnection conn = url.openConnection();
-				InputStream is = conn.getInputStream();
-			    content = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-		        		        
-			} else {
-				LOG.debug("fileSource readJSON::source={}", source );
-
-				String path = source.replaceFirst("^~", System.getProperty("user.home"));
-		        File file = new File(path);
-		        content = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
-
-			}
+			is = openSource(source);
 	        
 		} catch(Exception ex) {
 			if(LOG.isDebugEnabled()) LOG.log(Level.DEBUG, EXCEPTION_MESSAGE, ex.getLocalizedMessage() );
@@ -1186,8 +1158,8 @@ public class Utils {
 			return new JSONObject();
 		}
 		
-		try {
-			return new JSONObject(content); 
+		try(InputStream in = is) {
+			return JSONTreeReader.readJSON(in); 
 			
 		} catch(Exception ex) {
 			Out.printAlways("... error when reading JSON: {}", ex.getLocalizedMessage() );
@@ -1198,27 +1170,8 @@ public class Utils {
 	
 	@LogMethod(level=LogLevel.TRACE)
 	public static JSONObject readYamlAsJSON(String source, boolean errorOK) throws AppException {
-		try {
-			String yaml;
-			
-			if(isWebSource(source)) {
-				LOG.debug("readYamlAsJSON::source={}", source );
-
-				URI uri = new URI(source);
-				URL url = uri.toURL(); 
-				URLConnection conn = url.openConnection();
-				InputStream is = conn.getInputStream();
-			    yaml = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-		        		        
-			} else {
-				String path = source.replaceFirst("^~", System.getProperty("user.home"));
-		        File file = new File(path);
-		        yaml = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
-
-			}
-			
-	        String json = convertYamlToJson(yaml);
-	        return new JSONObject(json); 
+		try(InputStream is = openSource(source)) {
+	        return JSONTreeReader.readYaml(is); 
 
 		} catch(Exception ex) {
 			Out.debug("readYamlAsJSON::source={} exception={}", source, ex.getLocalizedMessage() );
@@ -1229,7 +1182,21 @@ public class Utils {
 		}
     }
 	
-	private static boolean isWebSource(String source) {
+	private static InputStream openSource(String source) throws Exception {
+		if(isWebSource(source)) {
+			LOG.debug("isWebSource openSource::source={}", source );
+
+			return new ByteArrayInputStream(ExternalSources.readWebSource(source));
+	        		        
+		} else {
+			LOG.debug("fileSource openSource::source={}", source );
+
+			String path = source.replaceFirst("^~", System.getProperty("user.home"));
+			return new BufferedInputStream(new FileInputStream(path));
+		}
+	}
+	
+	public static boolean isWebSource(String source) {
 		boolean res=false;
 		try {
 			String src=source.toUpperCase();
@@ -1271,16 +1238,16 @@ public class Utils {
 		        
 	}
 	
+	private static final ObjectMapper YAML_READER = new ObjectMapper(new YAMLFactory());
+	private static final ObjectMapper JSON_WRITER = new ObjectMapper();
+
 	@LogMethod(level=LogLevel.TRACE)
     public static String convertYamlToJson(String yaml) throws AppException {
 				
 		try {
-		    ObjectMapper yamlReader = new ObjectMapper(new YAMLFactory());
-		    Object obj = yamlReader.readValue(yaml, Object.class);
+		    Object obj = YAML_READER.readValue(yaml, Object.class);
 			    
-		    ObjectMapper jsonWriter = new ObjectMapper();
-	
-		    return jsonWriter.writeValueAsString(obj);		    
+		    return JSON_WRITER.writeValueAsString(obj);		    
 		    			
 		} catch(Exception ex) {
 			if(LOG.isDebugEnabled()) LOG.log(Level.DEBUG, EXCEPTION_MESSAGE, ex.getLocalizedMessage() );
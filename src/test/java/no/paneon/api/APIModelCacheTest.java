@@ -0,0 +1,82 @@
+package no.paneon.api;
+
+import java.util.Set;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+import no.paneon.api.model.APIModelCache;
+
+public class APIModelCacheTest  {
+
+	public APIModelCacheTest() {
+	}
+
+	@Test
+	public void leastRecentlyUsedIsEvicted() {
+		APIModelCache cache = new APIModelCache(2);
+
+		cache.addPropertiesForResource("A", Set.of("a"));
+		cache.addPropertiesForResource("B", Set.of("b"));
+		assert(cache.findPropertiesForResource("A")!=null);
+
+		cache.addPropertiesForResource("C", Set.of("c"));
+
+		assert(cache.getEvictions()==1);
+		assert(cache.findPropertiesForResource("B")==null);
+		assert(cache.findPropertiesForResource("A").equals(Set.of("a")));
+		assert(cache.getHits()==2);
+		assert(cache.getMisses()==1);
+
+		boolean immutable = false;
+		try {
+			cache.findPropertiesForResource("C").add("x");
+		} catch(UnsupportedOperationException e) {
+			immutable = true;
+		}
+		assert(immutable);
+	}
+
+	@Test
+	public void referencedTypeKeys() {
+		APIModelCache cache = new APIModelCache();
+
+		cache.addReferencedType("A_b", "c", "X");
+		cache.addReferencedType("A", "b_c", "Y");
+
+		assert(cache.findReferencedType("A_b", "c").equals("X"));
+		assert(cache.findReferencedType("A", "b_c").equals("Y"));
+		assert(cache.findReferencedType("A", "b")==null);
+	}
+
+	@Test
+	public void cachedNullIsFound() {
+		APIModelCache cache = new APIModelCache();
+
+		cache.addResourceExpanded("A", null);
+		cache.addReferencedType("A", "b", null);
+
+		assert(cache.hasExpandedResource("A"));
+		assert(cache.hasReferencedType("A", "b"));
+
+		assert(cache.findExpandedResource("A").isEmpty());
+		assert(cache.findReferencedType("A", "b").isEmpty());
+		assert(cache.getHits()==2);
+		assert(cache.getMisses()==0);
+
+		assert(!cache.hasExpandedResource("B"));
+		assert(cache.findExpandedResource("B")==null);
+		assert(cache.getMisses()==1);
+	}
+
+	@Test
+	public void clearedByClean() {
+		APIModel.getCache().addResourceExpanded("CachedResource", new JSONObject());
+		APIModel.clean();
+
+		assert(APIModel.getCache().size()==0);
+		assert(APIModel.getCache().findExpandedResource("CachedResource")==null);
+	}
+
+}
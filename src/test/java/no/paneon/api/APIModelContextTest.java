@@ -0,0 +1,62 @@
+package no.paneon.api;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+import no.paneon.api.model.APIModelContext;
+
+public class APIModelContextTest  {
+
+	public APIModelContextTest() {
+	}
+
+    static String oas2 = "./src/test/resources/TMF620-ProductCatalog-v4.1.0.swagger.json";
+    static String oas3 = "./src/test/resources/Quote_Management_5.0.0_oas.yaml";
+
+    @AfterClass
+    public static void runOnceAfterClass() {
+        APIModel.unbindContext();
+    }
+
+    private static List<String> loadInContext(APIModelContext ctx, String file) {
+    	return APIModel.withContext(ctx, () -> {
+	        APIModel.setSwaggerSource(file);
+	        APIModel.loadAPI(file);
+	        return APIModel.getAllDefinitions();
+    	});
+    }
+
+    @Test
+    public void concurrentModels() throws Exception {
+    	APIModelContext ctx2 = new APIModelContext();
+    	APIModelContext ctx3 = new APIModelContext();
+
+    	ExecutorService executor = Executors.newFixedThreadPool(2);
+    	try {
+	    	Future<List<String>> defs2 = executor.submit(() -> loadInContext(ctx2, oas2));
+	    	Future<List<String>> defs3 = executor.submit(() -> loadInContext(ctx3, oas3));
+
+	    	assert(defs2.get().contains("ProductOffering"));
+	    	assert(!defs2.get().contains("Quote"));
+
+	    	assert(defs3.get().contains("Quote"));
+	    	assert(!defs3.get().contains("ProductOffering"));
+    	} finally {
+    		executor.shutdown();
+    	}
+
+    	assert(ctx2.getSource().contentEquals(oas2));
+    	assert(ctx3.getSource().contentEquals(oas3));
+
+    	List<String> resources = APIModel.withContext(ctx3, APIModel::getResources);
+    	assert(resources.contains("Quote"));
+
+    }
+
+
+}
@@ -0,0 +1,75 @@
+package no.paneon.api;
+
+import org.apache.logging.log4j.Level;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.runtime.reflect.Factory;
+
+import no.paneon.api.logging.AspectLogger;
+import no.paneon.api.logging.AspectLogger.LogLevel;
+import no.paneon.api.logging.LogMethod;
+
+/*
+ * Measures the per call overhead of the @LogMethod advice.
+ *
+ * The join points are created in the same way as in woven code, and the advice is invoked directly,
+ * i.e. the numbers do not depend on the aspectj-maven-plugin weaving being enabled.
+ *
+ * Not part of the test suite, run the main method after mvn test-compile with target/test-classes,
+ * target/classes and the test dependencies on the classpath.
+ */
+public class AspectLoggerBenchmark {
+
+	private static final int WARMUP = 200_000;
+	private static final int ITERATIONS = 2_000_000;
+
+	@LogMethod(level=LogLevel.DEBUG)
+	public static String target(String arg) {
+		return arg;
+	}
+
+	public static void main(String[] args) throws Throwable {
+
+		Factory factory = new Factory("AspectLoggerBenchmark.java", AspectLoggerBenchmark.class);
+
+		MethodSignature signature = factory.makeMethodSig(
+				java.lang.reflect.Modifier.PUBLIC | java.lang.reflect.Modifier.STATIC,
+				"target", AspectLoggerBenchmark.class,
+				new Class<?>[] { String.class }, new String[] { "arg" }, new Class<?>[0], String.class);
+
+		JoinPoint.StaticPart staticPart = factory.makeSJP(JoinPoint.METHOD_EXECUTION, signature, 1);
+
+		AspectLogger advice = new AspectLogger();
+
+		Level level = AspectLogger.getGlobalDebugLevel();
+
+		AspectLogger.setGlobalDebugLevel(Level.OFF);
+		run(advice, staticPart, WARMUP);
+		report("disabled", run(advice, staticPart, ITERATIONS));
+
+		AspectLogger.setGlobalDebugLevel(level);
+		run(advice, staticPart, WARMUP);
+		report("enabled ", run(advice, staticPart, ITERATIONS));
+
+	}
+
+	private static long[] run(AspectLogger advice, JoinPoint.StaticPart staticPart, int iterations) throws Throwable {
+		Object[] arg = { "ProductOffering" };
+		long sink = 0;
+		long start = System.nanoTime();
+		for(int i=0; i<iterations; i++) {
+			ProceedingJoinPoint joinPoint = (ProceedingJoinPoint) Factory.makeJP(staticPart, null, null, arg);
+			Object res = advice.around(joinPoint);
+			if(res!=null) sink++;
+		}
+		long time = System.nanoTime() - start;
+		return new long[] { time, iterations, sink };
+	}
+
+	private static void report(String label, long[] measured) {
+		double nsPerCall = (double) measured[0] / measured[1];
+		System.out.println(String.format("%s : %8.1f ns/call (%d calls)", label, nsPerCall, measured[1]));
+	}
+
+}
@@ -0,0 +1,102 @@
+package no.paneon.api;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.runtime.reflect.Factory;
+import org.junit.*;
+
+import no.paneon.api.logging.AspectLogger;
+import no.paneon.api.logging.AspectLogger.LogLevel;
+import no.paneon.api.logging.LogMethod;
+
+/*
+ * The join point is created in the same way as in woven code and the advice is invoked directly
+ */
+public class AspectLoggerTest  {
+
+	public AspectLoggerTest() {
+	}
+
+	static final String LOGGER = AspectLoggerTest.class.getName();
+
+	static class CountingArg {
+		int toStringCount = 0;
+
+		@Override
+		public String toString() {
+			toStringCount++;
+			return "CountingArg";
+		}
+	}
+
+	@LogMethod(level=LogLevel.DEBUG)
+	public static Object target(CountingArg arg) {
+		return arg;
+	}
+
+	Level level;
+	Level globalLevel;
+
+	JoinPoint.StaticPart staticPart;
+
+	@Before
+	public void runBeforeTestMethod() {
+		level = LogManager.getLogger(LOGGER).getLevel();
+		globalLevel = AspectLogger.getGlobalDebugLevel();
+
+		Factory factory = new Factory("AspectLoggerTest.java", AspectLoggerTest.class);
+
+		MethodSignature signature = factory.makeMethodSig(
+				java.lang.reflect.Modifier.PUBLIC | java.lang.reflect.Modifier.STATIC,
+				"target", AspectLoggerTest.class,
+				new Class<?>[] { CountingArg.class }, new String[] { "arg" }, new Class<?>[0], Object.class);
+
+		staticPart = factory.makeSJP(JoinPoint.METHOD_EXECUTION, signature, 1);
+	}
+
+	@After
+	public void runAfterTestMethod() {
+		Configurator.setLevel(LOGGER, level);
+		AspectLogger.setGlobalDebugLevel(globalLevel);
+	}
+
+	private CountingArg invoke() throws Throwable {
+		CountingArg arg = new CountingArg();
+		ProceedingJoinPoint joinPoint = (ProceedingJoinPoint) Factory.makeJP(staticPart, null, null, new Object[] { arg });
+		new AspectLogger().around(joinPoint);
+		return arg;
+	}
+
+	@Test
+	public void loggedWithDefaultGlobalLevel() throws Throwable {
+		assert(AspectLogger.getGlobalDebugLevel()==AspectLogger.VERBOSE);
+
+		Configurator.setLevel(LOGGER, Level.DEBUG);
+
+		assert(invoke().toStringCount>0);
+	}
+
+	@Test
+	public void notLoggedWhenLoggerDisabled() throws Throwable {
+		Configurator.setLevel(LOGGER, Level.INFO);
+
+		assert(invoke().toStringCount==0);
+	}
+
+	@Test
+	public void notLoggedWhenGlobalLevelOff() throws Throwable {
+		Configurator.setLevel(LOGGER, Level.DEBUG);
+		AspectLogger.setGlobalDebugLevel(Level.OFF);
+
+		assert(invoke().toStringCount==0);
+
+		AspectLogger.setGlobalDebugLevel(AspectLogger.VERBOSE);
+
+		assert(invoke().toStringCount>0);
+	}
+
+}
@@ -0,0 +1,84 @@
+package no.paneon.api;
+
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import com.jayway.jsonpath.JsonPath;
+
+import no.paneon.api.model.AsyncAPIIndex;
+import no.paneon.api.model.AsyncResourceInfo;
+
+public class AsyncAPIIndexTest  {
+
+	public AsyncAPIIndexTest() {
+	}
+
+	static final String API = "{"
+			+ "'asyncapi': '3.0.0',"
+			+ "'channels': {"
+			+ "  'quoteCreate': {"
+			+ "    'tags': [ {'name': 'quote'} ],"
+			+ "    'messages': { 'quoteCreate': {'$ref': '#/components/messages/QuoteCreateEvent'} },"
+			+ "    'message': { 'oneOf': [ {'$ref': '#/components/messages/QuoteCreateEvent'}, {'$ref': '#/components/messages/400'} ] }"
+			+ "  },"
+			+ "  'quoteCreateReply': {"
+			+ "    'tags': [ {'name': 'quote'} ],"
+			+ "    'messages': { 'quoteCreateReply': {'$ref': '#/components/messages/QuoteCreateReply'} }"
+			+ "  },"
+			+ "  'orderEvent': {"
+			+ "    'tags': [ {'name': 'order'}, {'name': 'quote'} ],"
+			+ "    'message': {'$ref': '#/components/messages/OrderEvent'}"
+			+ "  }"
+			+ "},"
+			+ "'operations': {"
+			+ "  'createQuote': {"
+			+ "    'operationId': 'createQuote',"
+			+ "    'channel': {'$ref': '#/channels/quoteCreate'},"
+			+ "    'reply': {"
+			+ "      'channel': {'$ref': '#/channels/quoteCreateReply'},"
+			+ "      'messages': [ {'$ref': '#/channels/quoteCreateReply/messages/quoteCreateReply'} ]"
+			+ "    }"
+			+ "  },"
+			+ "  'listenOrder': {"
+			+ "    'operationId': 'listenOrder',"
+			+ "    'channel': {'$ref': '#/channels/orderEvent'}"
+			+ "  }"
+			+ "}"
+			+ "}";
+
+	@Test
+	public void sameAsJsonPath() {
+		JSONObject api = new JSONObject(API);
+		String json = api.toString();
+
+		AsyncAPIIndex index = new AsyncAPIIndex(api);
+
+		List<String> tags = JsonPath.read(json, "$..tags..name");
+		assert(index.getTagNames().equals(tags));
+
+		List<String> messages = JsonPath.read(json, "$.channels..message..['$ref']");
+		assert(index.getChannelMessages().equals(messages));
+
+		for(String op : List.of("createQuote", "listenOrder", "unknown")) {
+			List<String> refs = JsonPath.read(json, "$..[?(@.operationId=='" + op + "')]..['$ref']");
+			assert(index.getOperationMessages(op).equals(refs));
+		}
+	}
+
+	@Test
+	public void resources() {
+		AsyncAPIIndex index = new AsyncAPIIndex(new JSONObject(API));
+
+		assert(index.getResources().keySet().equals(Set.of("Quote", "Order")));
+
+		AsyncResourceInfo quote = index.getResources().get("Quote");
+		assert(quote.operations.keySet().contains("createQuote"));
+		assert(index.getResources().get("Order").operations.keySet().contains("listenOrder"));
+
+		assert(new AsyncAPIIndex(new JSONObject()).getResources().isEmpty());
+	}
+
+}
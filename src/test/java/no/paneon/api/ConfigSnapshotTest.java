@@ -0,0 +1,103 @@
+package no.paneon.api;
+
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.utils.Config;
+
+public class ConfigSnapshotTest  {
+
+	public ConfigSnapshotTest() {
+	}
+
+	static final String SIMPLE_TYPES = "simpleTypes";
+	static final String EXCLUDE = "subClassExcludeRegexp";
+
+	Object simpleTypes;
+	Object exclude;
+
+	@Before
+	public void runBeforeTestMethod() {
+		Config.getConfig();
+		simpleTypes = Config.getConfiguration().opt(SIMPLE_TYPES);
+		exclude = Config.getConfiguration().opt(EXCLUDE);
+	}
+
+	@After
+	public void runAfterTestMethod() {
+		restore(SIMPLE_TYPES, simpleTypes);
+		restore(EXCLUDE, exclude);
+	}
+
+	private static void restore(String property, Object value) {
+		if(value!=null) {
+			Config.addConfiguration(new JSONObject().put(property, value));
+		} else {
+			Config.removeConfiguration(property);
+		}
+	}
+
+	@Test
+	public void rebuiltWhenChanged() {
+		Config.addConfiguration(new JSONObject().put(SIMPLE_TYPES, new JSONArray().put("SnapshotMoney")));
+		assert(Config.isSimpleType("SnapshotMoney"));
+
+		Config.addConfiguration(new JSONObject().put(SIMPLE_TYPES, new JSONArray().put("SnapshotQuantity")));
+		assert(!Config.isSimpleType("SnapshotMoney"));
+		assert(Config.isSimpleType("SnapshotQuantity"));
+
+		List<String> types = Config.getSimpleTypes();
+		types.add("SnapshotTax");
+		assert(!Config.isSimpleType("SnapshotTax"));
+		assert(Config.get(SIMPLE_TYPES).equals(List.of("SnapshotQuantity")));
+	}
+
+	@Test
+	public void readOnlyConfiguration() {
+		Config.addConfiguration(new JSONObject().put(SIMPLE_TYPES, new JSONArray().put("SnapshotDirect")));
+
+		int version = Config.getVersion();
+		JSONObject configuration = Config.getConfiguration();
+
+		assert(Config.getVersion()==version);
+		assert(Config.getConfiguration()==configuration);
+		assert(configuration.getJSONArray(SIMPLE_TYPES).similar(new JSONArray().put("SnapshotDirect")));
+
+		try {
+			configuration.put(SIMPLE_TYPES, new JSONArray());
+			assert(false);
+		} catch(UnsupportedOperationException e) {
+			// expected
+		}
+
+		try {
+			configuration.getJSONArray(SIMPLE_TYPES).put("SnapshotOther");
+			assert(false);
+		} catch(UnsupportedOperationException e) {
+			// expected
+		}
+
+		assert(Config.isSimpleType("SnapshotDirect"));
+		assert(!Config.isSimpleType("SnapshotOther"));
+		assert(Config.getVersion()==version);
+
+		Config.removeConfiguration(SIMPLE_TYPES);
+
+		assert(Config.getVersion()!=version);
+		assert(!Config.has(SIMPLE_TYPES));
+		assert(!Config.isSimpleType("SnapshotDirect"));
+		assert(!Config.getConfiguration().has(SIMPLE_TYPES));
+	}
+
+	@Test
+	public void compiledPatterns() {
+		Config.addConfiguration(new JSONObject().put(EXCLUDE, new JSONArray().put("Snapshot.*_FVO").put("[invalid")));
+
+		assert(Config.isExcludedSubClass("SnapshotQuote_FVO"));
+		assert(!Config.isExcludedSubClass("SnapshotQuote"));
+	}
+
+}
@@ -0,0 +1,127 @@
+package no.paneon.api;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.jgrapht.Graph;
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.graph.APIGraph;
+import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.IndexedGraph;
+import no.paneon.api.graph.Node;
+import no.paneon.api.graph.complexity.CycleEnumerator;
+import no.paneon.api.model.APIModel;
+import no.paneon.api.utils.Config;
+
+public class CycleEnumeratorTest  {
+
+	public CycleEnumeratorTest() {
+	}
+
+	static final String ENUMERATE_ALL_CYCLES = "enumerateAllCycles";
+
+	static Node a = new Node("CycleA");
+	static Node b = new Node("CycleB");
+	static Node c = new Node("CycleC");
+	static Node d = new Node("CycleD");
+
+	private static void addEdge(Graph<Node,Edge> graph, Node from, Node to) {
+		graph.addEdge(from, to, new Edge(from, "rel", to, "1", false, false, ""));
+	}
+
+	/*
+	 * square a-b-c-d with the diagonal a-c: two triangles and the square
+	 */
+	private static Graph<Node,Edge> square() {
+		Graph<Node,Edge> graph = new IndexedGraph();
+		List.of(a,b,c,d).forEach(graph::addVertex);
+		addEdge(graph, a, b);
+		addEdge(graph, b, c);
+		addEdge(graph, c, d);
+		addEdge(graph, d, a);
+		addEdge(graph, a, c);
+		addEdge(graph, c, a);
+		addEdge(graph, a, a);
+		return graph;
+	}
+
+	@Test
+	public void allCycles() {
+		List<List<Node>> cycles = new CycleEnumerator(0, 0).enumerate(square(), a);
+
+		assert(cycles.size()==3);
+		assert(cycles.get(0).size()==4);
+		assert(cycles.get(1).size()==4);
+		assert(cycles.get(2).size()==5);
+		assert(cycles.stream().allMatch(cycle -> cycle.get(0).equals(cycle.get(cycle.size()-1))));
+	}
+
+	@Test
+	public void defaultBounds() {
+		CycleEnumerator enumerator = new CycleEnumerator();
+		assert(enumerator.enumerate(square(), a).size()==3);
+		assert(!enumerator.isTruncated());
+	}
+
+	/*
+	 * the circles of the depth first search before CycleEnumerator was added
+	 */
+	static final List<String> QUOTE_CIRCLES = List.of(
+			"Quote,Authorization,QuoteItem,Quote",
+			"QuotePrice,PriceAlteration,ProductOfferingPriceRef,QuotePrice",
+			"Note,Quote,Authorization,QuoteItem,Note",
+			"PriceAlteration,QuotePrice,Quote,Authorization,QuoteItem,ProductOfferingRef,Product,ProductPrice,PriceAlteration",
+			"BillingAccountRef,Quote,Authorization,QuoteItem,QuotePrice,PriceAlteration,ProductOfferingPriceRef,ProductPrice,Product,BillingAccountRef",
+			"Authorization,Quote,QuotePrice,PriceAlteration,ProductOfferingPriceRef,ProductPrice,Product,ProductOfferingRef,QuoteItem,Authorization",
+			"Price,PriceAlteration,QuotePrice,Quote,Authorization,QuoteItem,ProductOfferingRef,Product,ProductPrice,Price",
+			"ProductRefOrValue,QuoteItem,Authorization,Quote,QuotePrice,PriceAlteration,ProductOfferingPriceRef,ProductPrice,Product,ProductRefOrValue",
+			"RelatedParty,Authorization,Quote,QuotePrice,PriceAlteration,ProductOfferingPriceRef,ProductPrice,Product,ProductOfferingRef,QuoteItem,RelatedParty");
+
+	static final List<String> QUOTE_ITEM_CIRCLES = List.of(
+			"QuoteItem,Authorization,RelatedParty,QuoteItem",
+			"QuotePrice,PriceAlteration,ProductOfferingPriceRef,QuotePrice",
+			"ProductPrice,PriceAlteration,QuotePrice,ProductOfferingPriceRef,ProductPrice",
+			"ProductRefOrValue,QuoteItem,Authorization,RelatedParty,Product,ProductRefOrValue",
+			"ProductOfferingRef,QuoteItem,Authorization,RelatedParty,Product,ProductOfferingRef",
+			"Price,PriceAlteration,QuotePrice,ProductOfferingPriceRef,ProductPrice,Price",
+			"Authorization,QuoteItem,QuotePrice,PriceAlteration,ProductOfferingPriceRef,ProductPrice,Product,RelatedParty,Authorization");
+
+	private static List<String> circles(String resource) {
+		return new APIGraph(resource).getCircles().stream()
+				.map(circle -> circle.stream().map(Node::getName).collect(Collectors.joining(",")))
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	public void baselineCircles() {
+		String file = "./src/test/resources/Quote_Management_5.0.0_oas.yaml";
+		Config.init();
+		APIModel.setSwaggerSource(file);
+		APIModel.loadAPI(file);
+
+		try {
+			assert(circles("Quote").equals(QUOTE_CIRCLES));
+			assert(circles("QuoteItem").equals(QUOTE_ITEM_CIRCLES));
+
+			Config.addConfiguration(new JSONObject().put(ENUMERATE_ALL_CYCLES, true));
+			assert(circles("Quote").size()>QUOTE_CIRCLES.size());
+		} finally {
+			Config.removeConfiguration(ENUMERATE_ALL_CYCLES);
+			APIModel.clean();
+		}
+	}
+
+	@Test
+	public void boundedCycles() {
+		CycleEnumerator shortest = new CycleEnumerator(3, 0);
+		assert(shortest.enumerate(square(), a).size()==2);
+		assert(shortest.isTruncated());
+
+		CycleEnumerator limited = new CycleEnumerator(0, 1);
+		assert(limited.enumerate(square(), a).size()==1);
+		assert(limited.isTruncated());
+	}
+
+}
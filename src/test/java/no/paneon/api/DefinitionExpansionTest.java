@@ -0,0 +1,74 @@
+package no.paneon.api;
+
+import java.util.Set;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+import no.paneon.api.utils.Config;
+
+public class DefinitionExpansionTest  {
+
+	public DefinitionExpansionTest() {
+	}
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {},"
+			+ "'components': { 'schemas': {"
+			+ "  'SampleQuote':      { 'allOf': [ {'$ref': '#/components/schemas/SampleEntity'}, {'$ref': '#/components/schemas/SampleExtensible'},"
+			+ "                             { 'properties': { 'state': {'type': 'string'} }, 'required': ['state'] } ] },"
+			+ "  'SampleEntity':     { 'allOf': [ {'$ref': '#/components/schemas/SampleAddressable'}, {'$ref': '#/components/schemas/SampleExtensible'} ] },"
+			+ "  'SampleAddressable':{ 'properties': { 'id': {'type': 'string'}, 'href': {'type': 'string'} }, 'required': ['id'] },"
+			+ "  'SampleExtensible': { 'properties': { '@type': {'type': 'string'} } },"
+			+ "  'SampleDangling':       { 'allOf': [ {'$ref': '#/components/schemas/SampleMissing'} ], 'properties': { 'x': {'type': 'string'} } }"
+			+ "} }"
+			+ "}";
+
+	static final String LAZY_EXPANSION = "lazyExpansion";
+	static final String PARALLEL_EXPANSION = "parallelExpansion";
+
+	@After
+	public void runAfterTestMethod() {
+		Config.removeConfiguration(LAZY_EXPANSION);
+		Config.removeConfiguration(PARALLEL_EXPANSION);
+		APIModel.clean();
+	}
+
+	@Test
+	public void superiorsExpandedFirst() {
+		APIModel.setSwagger(new JSONObject(API));
+
+		assert(APIModel.getPropertiesExpanded("SampleQuote").equals(Set.of("id", "href", "@type", "state")));
+		assert(APIModel.getPropertiesExpanded("SampleEntity").equals(Set.of("id", "href", "@type")));
+		assert(APIModel.getPropertiesExpanded("SampleAddressable").equals(Set.of("id", "href")));
+		assert(APIModel.getPropertiesExpanded("SampleDangling").equals(Set.of("x")));
+	}
+
+	@Test
+	public void parallelExpansion() {
+		Config.addConfiguration(new JSONObject().put(PARALLEL_EXPANSION, true));
+
+		APIModel.setSwagger(new JSONObject(API.replace("Sample", "Parallel")));
+
+		assert(APIModel.getPropertiesExpanded("ParallelQuote").equals(Set.of("id", "href", "@type", "state")));
+		assert(APIModel.getPropertiesExpanded("ParallelEntity").equals(Set.of("id", "href", "@type")));
+		assert(APIModel.getPropertiesExpanded("ParallelDangling").equals(Set.of("x")));
+	}
+
+	@Test
+	public void lazyExpansion() {
+		Config.getConfig();
+		Config.addConfiguration(new JSONObject().put(LAZY_EXPANSION, true));
+
+		APIModel.setSwagger(new JSONObject(API.replace("Sample", "Lazy")));
+
+		assert(!APIModel.getCache().hasExpandedResource("LazyQuote"));
+
+		assert(APIModel.getPropertiesExpandedByRequestBody("LazyQuote").equals(Set.of("id", "href", "@type", "state")));
+		assert(APIModel.getCache().hasExpandedResource("LazyEntity"));
+		assert(!APIModel.getCache().hasExpandedResource("LazyDangling"));
+	}
+
+}
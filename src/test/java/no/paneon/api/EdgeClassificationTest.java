@@ -0,0 +1,46 @@
+package no.paneon.api;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.graph.AllOf;
+import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.Node;
+import no.paneon.api.graph.OneOf;
+import no.paneon.api.utils.Config;
+
+public class EdgeClassificationTest  {
+
+	public EdgeClassificationTest() {
+	}
+
+	static final String REGEXP = "coreInheritanceRegexp";
+
+	@Test
+	public void flattenedInheritanceFollowsConfig() {
+		Config.getConfig();
+		Object previous = Config.getConfiguration().opt(REGEXP);
+
+		Node node = new Node("ClassifiedEdge");
+		Edge allOf = new AllOf(node, new Node("ClassifiedBase"));
+		Edge oneOf = new OneOf(node, new Node("ClassifiedChoice"));
+
+		try {
+			Config.addConfiguration(new JSONObject().put(REGEXP, new JSONArray()));
+			assert(allOf.isInheritance());
+			assert(oneOf.isOneOf());
+
+			Config.addConfiguration(new JSONObject().put(REGEXP, new JSONArray().put("Classified.*")));
+			assert(!allOf.isInheritance());
+			assert(allOf.isAllOf());
+			assert(!oneOf.isOneOf());
+
+		} finally {
+			Config.addConfiguration(new JSONObject().put(REGEXP, previous!=null ? previous : new JSONArray()));
+		}
+
+		assert(allOf.isInheritance());
+	}
+
+}
@@ -0,0 +1,173 @@
+package no.paneon.api;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.DefaultServlet;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+import no.paneon.api.model.APIModelContext;
+import no.paneon.api.utils.Config;
+import no.paneon.api.utils.ExternalSources;
+import no.paneon.api.utils.Utils;
+
+public class ExternalSourcesTest  {
+
+	public ExternalSourcesTest() {
+	}
+
+	static final String CACHE_DIRECTORY = "externalCacheDirectory";
+	static final String MODEL_CACHE_DIRECTORY = "modelCacheDirectory";
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {},"
+			+ "'components': { 'schemas': {"
+			+ "  'PricedQuote': { 'allOf': [ {'$ref': 'Common.json#/components/schemas/Money'} ] }"
+			+ "} }"
+			+ "}";
+
+	static final String COMMON = "{"
+			+ "'components': { 'schemas': {"
+			+ "  'Money': { 'properties': { 'value': {'type': 'number'}, 'unit': {'type': 'string'} } }"
+			+ "} }"
+			+ "}";
+
+	static Server server;
+	static Path documents;
+	static Path cache;
+	static String base;
+
+	@BeforeClass
+	static public void setUp() throws Exception {
+		documents = Files.createTempDirectory("external");
+		cache = Files.createTempDirectory("externalCache");
+
+		Files.writeString(documents.resolve("api.json"), new JSONObject(API).toString());
+		Files.writeString(documents.resolve("Common.json"), new JSONObject(COMMON).toString());
+
+		server = new Server(0);
+		ServletContextHandler context = new ServletContextHandler();
+		ServletHolder defaultServ = new ServletHolder("default", DefaultServlet.class);
+		defaultServ.setInitParameter("resourceBase", documents.toString());
+		defaultServ.setInitParameter("etags", "true");
+		context.addServlet(defaultServ, "/");
+		server.setHandler(context);
+
+		server.start();
+
+		base = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/";
+	}
+
+	@AfterClass
+	static public void tearDown() throws Exception {
+		server.stop();
+	}
+
+	@After
+	public void runAfterTestMethod() {
+		Config.removeConfiguration(CACHE_DIRECTORY);
+		Config.removeConfiguration(MODEL_CACHE_DIRECTORY);
+		APIModel.clean();
+	}
+
+	@Test
+	public void conditionalRequests() throws Exception {
+		Config.addConfiguration(new JSONObject().put(CACHE_DIRECTORY, cache.toString()));
+
+		String source = base + "Common.json";
+
+		long notModified = ExternalSources.getNotModified();
+
+		byte[] first = ExternalSources.readWebSource(source);
+		byte[] second = ExternalSources.readWebSource(source);
+
+		assert(new String(second).equals(new String(first)));
+		assert(ExternalSources.getNotModified()==notModified+1);
+	}
+
+	@Test
+	public void prefetched() throws Exception {
+		String source = base + "Common.json";
+
+		Map<String,byte[]> first = ExternalSources.prefetch(List.of(source, base + "Missing.json"));
+		Map<String,byte[]> second = ExternalSources.prefetch(List.of(source));
+
+		assert(first.keySet().equals(Set.of(source)));
+		assert(new JSONObject(new String(first.get(source))).similar(new JSONObject(COMMON)));
+		assert(second.keySet().equals(Set.of(source)));
+	}
+
+	@Test
+	public void prefetchedPerContext() throws Exception {
+		String source = base + "api.json";
+		InputStream is = Utils.getSource(source, new LinkedList<>());
+
+		long requests = ExternalSources.getRequests();
+
+		APIModelContext other = new APIModelContext();
+		JSONObject definitions = APIModel.withContext(other, () -> {
+			APIModel.loadAPI(source, is);
+			return APIModel.getDefinitions();
+		});
+
+		assert(definitions.has("PricedQuote"));
+		assert(ExternalSources.getRequests()==requests+1);
+		assert(other.getPrefetched().isEmpty());
+		assert(APIModel.getContext().getPrefetched().isEmpty());
+	}
+
+	@Test
+	public void externalReferencesPrefetched() throws Exception {
+		String source = base + "api.json";
+
+		long requests = ExternalSources.getRequests();
+
+		InputStream is = Utils.getSource(source, new LinkedList<>());
+		APIModel.loadAPI(source, is);
+
+		assert(APIModel.getDefinitions()!=null);
+		assert(ExternalSources.getRequests()==requests+2);
+		assert(APIModel.getContext().getPrefetched().isEmpty());
+	}
+
+	@Test
+	public void notFetchedOnModelCacheHit() throws Exception {
+		Path models = Files.createTempDirectory("models");
+		Config.addConfiguration(new JSONObject().put(MODEL_CACHE_DIRECTORY, models.toString()));
+
+		String source = base + "api.json";
+
+		InputStream is = Utils.getSource(source, new LinkedList<>());
+
+		long requests = ExternalSources.getRequests();
+
+		APIModel.loadAPI(source, is);
+		JSONObject definitions = APIModel.getDefinitions();
+
+		assert(ExternalSources.getRequests()==requests+1);
+		assert(models.toFile().list().length==1);
+
+		APIModel.clean();
+		is = Utils.getSource(source, new LinkedList<>());
+
+		requests = ExternalSources.getRequests();
+
+		APIModel.loadAPI(source, is);
+
+		assert(ExternalSources.getRequests()==requests);
+		assert(APIModel.getDefinitions().similar(definitions));
+	}
+
+}
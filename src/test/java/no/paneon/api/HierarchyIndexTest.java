@@ -0,0 +1,65 @@
+package no.paneon.api;
+
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+
+public class HierarchyIndexTest  {
+
+	public HierarchyIndexTest() {
+	}
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {},"
+			+ "'components': { 'schemas': {"
+			+ "  'TreeLeaf':   { 'allOf': [ {'$ref': '#/components/schemas/TreeBranch'} ] },"
+			+ "  'TreeBranch': { 'allOf': [ {'$ref': '#/components/schemas/TreeRoot'} ], "
+			+ "                  'discriminator': { 'propertyName': '@type', 'mapping': { 'TreeBranch': '#/components/schemas/TreeBranch', 'TreeLeaf': '#/components/schemas/TreeLeaf' } } },"
+			+ "  'TreeRoot':   { 'type': 'object', 'properties': { 'id': {'type': 'string'} }, "
+			+ "                  'discriminator': { 'propertyName': '@type', 'mapping': { 'TreeRoot': '#/components/schemas/TreeRoot', 'TreeBranch': '#/components/schemas/TreeBranch' } } },"
+			+ "  'TreeOther':  { 'type': 'object', 'properties': { 'name': {'type': 'string'} } }"
+			+ "} }"
+			+ "}";
+
+	@After
+	public void runAfterTestMethod() {
+		APIModel.clean();
+	}
+
+	@Test
+	public void lookups() {
+		APIModel.setSwagger(new JSONObject(API));
+
+		assert(APIModel.getInheritanceParents("TreeLeaf").equals(List.of("TreeBranch")));
+		assert(APIModel.getInheritanceChildren("TreeRoot").equals(List.of("TreeBranch")));
+		assert(APIModel.getInheritanceAncestors("TreeLeaf").equals(Set.of("TreeBranch", "TreeRoot")));
+		assert(APIModel.getInheritanceDescendants("TreeRoot").equals(Set.of("TreeBranch", "TreeLeaf")));
+		assert(APIModel.getInheritanceDescendants("TreeOther").isEmpty());
+
+		List<String> order = APIModel.getInheritanceOrder();
+		assert(order.size()==4);
+		assert(order.indexOf("TreeRoot") < order.indexOf("TreeBranch"));
+		assert(order.indexOf("TreeBranch") < order.indexOf("TreeLeaf"));
+
+		assert(APIModel.getDiscriminatorMapping("TreeBranch").equals(Set.of("TreeRoot", "TreeBranch")));
+		assert(APIModel.getSuperiorResources(List.of("TreeRoot")).get("TreeBranch").equals(List.of("TreeRoot")));
+	}
+
+	@Test
+	public void clearedWithDefinitions() {
+		APIModel.setSwagger(new JSONObject(API));
+		assert(APIModel.getInheritanceChildren("TreeRoot").equals(List.of("TreeBranch")));
+
+		APIModel.clean();
+		APIModel.setSwagger(new JSONObject(API.replace("'allOf': [ {'$ref': '#/components/schemas/TreeRoot'} ], ", "")));
+
+		assert(APIModel.getInheritanceChildren("TreeRoot").isEmpty());
+		assert(APIModel.getInheritanceAncestors("TreeLeaf").equals(Set.of("TreeBranch")));
+	}
+
+}
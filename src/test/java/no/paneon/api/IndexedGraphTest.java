@@ -0,0 +1,47 @@
+package no.paneon.api;
+
+import java.util.Set;
+
+import org.jgrapht.Graph;
+import org.junit.*;
+
+import no.paneon.api.graph.CoreAPIGraph;
+import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.IndexedGraph;
+import no.paneon.api.graph.IndexedSubgraph;
+import no.paneon.api.graph.Node;
+
+public class IndexedGraphTest  {
+
+	public IndexedGraphTest() {
+	}
+
+	@Test
+	public void nodeByName() {
+		Node a = new Node("IndexedA");
+		Node b = new Node("IndexedB");
+		Node c = new Node("IndexedC");
+
+		Graph<Node,Edge> graph = new IndexedGraph();
+		graph.addVertex(a);
+		graph.addVertex(b);
+		graph.addVertex(c);
+
+		assert(CoreAPIGraph.getNodeByName(graph, "IndexedB").get()==b);
+
+		Graph<Node,Edge> subGraph = new IndexedSubgraph(graph, Set.of(a,b));
+		assert(CoreAPIGraph.getNodeByName(subGraph, "IndexedA").get()==a);
+		assert(!CoreAPIGraph.getNodeByName(subGraph, "IndexedC").isPresent());
+
+		subGraph.removeVertex(a);
+		assert(!CoreAPIGraph.getNodeByName(subGraph, "IndexedA").isPresent());
+		assert(CoreAPIGraph.getNodeByName(graph, "IndexedA").isPresent());
+
+		subGraph.addVertex(c);
+		assert(CoreAPIGraph.getNodeByName(subGraph, "IndexedC").get()==c);
+
+		graph.removeVertex(b);
+		assert(!CoreAPIGraph.getNodeByName(graph, "IndexedB").isPresent());
+	}
+
+}
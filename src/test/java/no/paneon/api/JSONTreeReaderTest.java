@@ -0,0 +1,55 @@
+package no.paneon.api;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.utils.JSONTreeReader;
+import no.paneon.api.utils.Utils;
+
+public class JSONTreeReaderTest  {
+
+	public JSONTreeReaderTest() {
+	}
+
+    static String jsonFile = "./src/test/resources/TMF620-ProductCatalog-v4.1.0.swagger.json";
+    static String yamlFile = "./src/test/resources/Quote_Management_5.0.0_oas.yaml";
+
+    private static JSONObject read(String file) throws Exception {
+    	try(InputStream is = new FileInputStream(file)) {
+    		return JSONTreeReader.read(is);
+    	}
+    }
+
+    @Test
+    public void sameAsStringParsing() throws Exception {
+    	String json = Files.readString(Paths.get(jsonFile));
+    	assert(read(jsonFile).similar(new JSONObject(json)));
+
+    	String yaml = Files.readString(Paths.get(yamlFile));
+    	assert(read(yamlFile).similar(new JSONObject(Utils.convertYamlToJson(yaml))));
+    }
+
+    @Test
+    public void values() throws Exception {
+    	String yaml = "a: 1\nb: 1.5\nc: 12345678901\nd: ~\ne: 'true'\nf: [x, 2]\n";
+    	JSONObject res = JSONTreeReader.read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)));
+
+    	assert(res.similar(new JSONObject(Utils.convertYamlToJson(yaml))));
+    	assert(res.get("a") instanceof Integer);
+    	assert(res.get("c") instanceof Long);
+    	assert(res.get("d")==JSONObject.NULL);
+    	assert(res.get("e") instanceof String);
+
+    	String json = " \n {\"a\": 1, \"b\": 1.50, \"d\": null}";
+    	res = JSONTreeReader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    	assert(res.similar(new JSONObject(json)));
+    }
+
+}
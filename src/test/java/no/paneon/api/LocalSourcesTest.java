@@ -0,0 +1,90 @@
+package no.paneon.api;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+import no.paneon.api.model.Schema;
+import no.paneon.api.utils.Config;
+
+public class LocalSourcesTest  {
+
+	public LocalSourcesTest() {
+	}
+
+	static final String API = "{ 'openapi': '3.0.1', 'paths': {}, 'components': { 'schemas': {} } }";
+
+	Path dir;
+
+	@Before
+	public void runBeforeTestMethod() throws Exception {
+		dir = Files.createTempDirectory("local");
+		Files.createDirectories(dir.resolve("sub"));
+
+		write("LocalA.schema.json", "LocalA");
+		write("sub/LocalB.schema.json", "LocalB");
+		Files.writeString(dir.resolve("LocalC.json"), "not a schema");
+
+		Config.setLocalSources(List.of(dir.toString()));
+		APIModel.setSwagger(new JSONObject(API));
+	}
+
+	@After
+	public void runAfterTestMethod() throws Exception {
+		Config.getLocalSources().remove(dir.toString());
+		APIModel.clean();
+
+		for(String file : List.of("LocalA.schema.json", "sub/LocalB.schema.json", "LocalC.json", "sub")) {
+			Files.deleteIfExists(dir.resolve(file));
+		}
+		Files.deleteIfExists(dir);
+	}
+
+	private void write(String file, String title) throws Exception {
+		JSONObject schema = new JSONObject()
+				.put("title", title)
+				.put("definitions", new JSONObject().put(title, new JSONObject().put("type", "object")));
+		Files.writeString(dir.resolve(file), schema.toString());
+	}
+
+	@Test
+	public void skipUnchanged() throws Exception {
+		long read = Schema.getLocalFilesRead();
+
+		assert(Schema.loadLocalSources().isEmpty());
+		assert(Schema.getLocalFilesRead()==read+2);
+		assert(Schema.getSchemaByKey("LocalA.schema.json").getTitle().equals("LocalA"));
+		assert(Schema.getSchemaByKey("LocalB.schema.json").getTitle().equals("LocalB"));
+		assert(Schema.getSchemaByKey("LocalC.json")==null);
+
+		Schema first = Schema.getSchemaByKey("LocalA.schema.json");
+		first.getDefinitions().put("LocalChanged", new JSONObject());
+
+		assert(Schema.loadLocalSources().isEmpty());
+		assert(Schema.getLocalFilesRead()==read+2);
+		assert(Schema.getSchemaByKey("LocalA.schema.json")!=first);
+		assert(!Schema.getSchemaByKey("LocalA.schema.json").getDefinitions().has("LocalChanged"));
+
+		write("sub/LocalB.schema.json", "LocalBChanged");
+		new File(dir.resolve("sub/LocalB.schema.json").toString()).setLastModified(System.currentTimeMillis()+2000);
+
+		assert(Schema.loadLocalSources().isEmpty());
+		assert(Schema.getLocalFilesRead()==read+3);
+		assert(Schema.getSchemaByKey("LocalB.schema.json").getTitle().equals("LocalBChanged"));
+	}
+
+	@Test
+	public void errorsReported() throws Exception {
+		Files.writeString(dir.resolve("LocalA.schema.json"), "{ not json");
+
+		List<String> errors = Schema.loadLocalSources();
+		assert(errors.size()==1);
+		assert(errors.get(0).contains("LocalA.schema.json"));
+	}
+
+}
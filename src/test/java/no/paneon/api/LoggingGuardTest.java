@@ -0,0 +1,117 @@
+package no.paneon.api;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.jgrapht.Graph;
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.graph.AllOf;
+import no.paneon.api.graph.CoreAPIGraph;
+import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.IndexedGraph;
+import no.paneon.api.graph.Node;
+import no.paneon.api.model.APIModel;
+
+public class LoggingGuardTest  {
+
+	public LoggingGuardTest() {
+	}
+
+	static final String GRAPH_LOGGER = "no.paneon.api.graph";
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {},"
+			+ "'components': { 'schemas': {"
+			+ "  'LoggingGuardOrder':   { 'type': 'object', 'properties': { 'item': {'$ref': '#/components/schemas/LoggingGuardItem'} } },"
+			+ "  'LoggingGuardItem':    { 'allOf': [ {'$ref': '#/components/schemas/LoggingGuardProduct'} ] },"
+			+ "  'LoggingGuardProduct': { 'type': 'object', 'properties': { 'name': {'type': 'string'} } }"
+			+ "} }"
+			+ "}";
+
+	static class CountingNode extends Node {
+		int toStringCount = 0;
+
+		CountingNode(String resource) {
+			super(resource);
+		}
+
+		@Override
+		public String toString() {
+			toStringCount++;
+			return super.toString();
+		}
+	}
+
+	Level level;
+
+	CountingNode order;
+	CountingNode item;
+	CountingNode product;
+
+	Graph<Node,Edge> graph;
+
+	@Before
+	public void runBeforeTestMethod() {
+		level = LogManager.getLogger(GRAPH_LOGGER).getLevel();
+
+		APIModel.setSwagger(new JSONObject(API));
+
+		order = new CountingNode("LoggingGuardOrder");
+		item = new CountingNode("LoggingGuardItem");
+		product = new CountingNode("LoggingGuardProduct");
+
+		graph = new IndexedGraph();
+		graph.addVertex(order);
+		graph.addVertex(item);
+		graph.addVertex(product);
+		graph.addEdge(order, item, new Edge(order, "item", item, "0..*", false, false));
+		graph.addEdge(item, product, new AllOf(item, product));
+	}
+
+	@After
+	public void runAfterTestMethod() {
+		Configurator.setLevel(GRAPH_LOGGER, level);
+		APIModel.clean();
+	}
+
+	private int toStringCount() {
+		return order.toStringCount + item.toStringCount + product.toStringCount;
+	}
+
+	private void traverse() {
+		Set<Node> nodes = new HashSet<>();
+		for(int i=0; i<100; i++) {
+			nodes.add(order);
+			assert(nodes.contains(order));
+		}
+
+		assert(CoreAPIGraph.getNodesOfSubGraph(graph, order).size()==3);
+		assert(CoreAPIGraph.getSubGraphWithInheritance(List.of(order.getName()), graph, order, order).edgeSet().size()==2);
+	}
+
+	@Test
+	public void argumentsNotFormattedWhenOff() {
+		Configurator.setLevel(GRAPH_LOGGER, Level.OFF);
+
+		traverse();
+
+		assert(toStringCount()==0);
+	}
+
+	@Test
+	public void argumentsFormattedWhenEnabled() {
+		Configurator.setLevel(GRAPH_LOGGER, Level.TRACE);
+
+		traverse();
+
+		assert(toStringCount()>0);
+	}
+
+}
@@ -1,7 +1,10 @@
 package no.paneon.api;
 
+import java.util.Iterator;
 import java.util.List;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
 import org.junit.*;
 import org.junit.rules.TemporaryFolder;
 
@@ -42,6 +45,55 @@ public class OAS2Test  {
     	    	
     	assert(resources.contains("Catalog"));
     }
+
+    @Test
+    public void checkDefinitionView() {
+    	JSONObject view = APIModel.getDefinitionView("Catalog");
+
+    	assert(view==APIModel.getDefinitionView("Catalog"));
+
+    	boolean readOnly = false;
+    	try {
+    		view.put("x-test", true);
+    	} catch(UnsupportedOperationException ex) {
+    		readOnly = true;
+    	}
+    	assert(readOnly);
+
+    	readOnly = false;
+    	try {
+    		view.keySet().remove("properties");
+    	} catch(UnsupportedOperationException ex) {
+    		readOnly = true;
+    	}
+    	assert(readOnly);
+    	assert(view.has("properties"));
+
+    	JSONArray required = APIModel.getDefinitionView("Catalog_Create").getJSONArray("required");
+    	int length = required.length();
+
+    	readOnly = false;
+    	try {
+    		Iterator<Object> iterator = required.iterator();
+    		iterator.next();
+    		iterator.remove();
+    	} catch(UnsupportedOperationException ex) {
+    		readOnly = true;
+    	}
+    	assert(readOnly);
+    	assert(required.length()==length);
+
+    	JSONObject create = APIModel.getDefinition("Catalog_Create");
+    	create.getJSONArray("required").remove(0);
+    	assert(create.getJSONArray("required").length()==length-1);
+    	assert(APIModel.getDefinitionView("Catalog_Create").getJSONArray("required").length()==length);
+
+    	JSONObject copy = APIModel.getDefinition("Catalog");
+    	copy.put("x-test", true);
+
+    	assert(!APIModel.getDefinitionView("Catalog").has("x-test"));
+    	assert(copy.similar(new JSONObject(view.toString()).put("x-test", true)));
+    }
 	
 	
 }
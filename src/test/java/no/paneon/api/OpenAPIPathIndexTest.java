@@ -0,0 +1,62 @@
+package no.paneon.api;
+
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.OpenAPIPathIndex;
+
+public class OpenAPIPathIndexTest  {
+
+	public OpenAPIPathIndexTest() {
+	}
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {"
+			+ "  '/quote': {"
+			+ "    'get':  { 'responses': { '200': {'resource': 'Quote'} } },"
+			+ "    'post': { 'responses': { '201': {'resource': 'Quote'}, '400': {} } }"
+			+ "  },"
+			+ "  '/quote/{id}': {"
+			+ "    'parameters': [],"
+			+ "    'get':    { 'responses': { '200': {'resource': 'Quote'} } },"
+			+ "    'delete': { 'responses': { '204': {}, '202': {} } }"
+			+ "  },"
+			+ "  '/quote/{id}/item/{itemId}': {"
+			+ "    'get': { 'responses': { '200': {'resource': 'QuoteItem'} } }"
+			+ "  }"
+			+ "}"
+			+ "}";
+
+	private static List<String> resources(JSONObject operation) {
+		return operation.getJSONObject("responses").keySet().stream()
+				.filter(code -> code.startsWith("2"))
+				.map(code -> operation.getJSONObject("responses").getJSONObject(code).optString("resource"))
+				.filter(resource -> !resource.isEmpty())
+				.toList();
+	}
+
+	@Test
+	public void lookups() {
+		OpenAPIPathIndex index = new OpenAPIPathIndex(new JSONObject(API), OpenAPIPathIndexTest::resources);
+
+		assert(index.getOperations().size()==5);
+
+		assert(index.getPathsByName("quote").containsAll(List.of("/quote", "/quote/{id}")));
+		assert(index.getPathsByName("quote").size()==2);
+		assert(index.getPathsBySegment("Item").equals(List.of("/quote/{id}/item/{itemId}")));
+
+		assert(index.getPathsByResponseResource("Quote").size()==3);
+		assert(index.getResponseResources("/quote/{id}").equals(List.of("Quote")));
+
+		List<String> operations = index.getOperationsByResource("Quote");
+		assert(operations.containsAll(List.of("GET", "POST", "DELETE", "PARAMETERS")));
+		assert(operations.size()==4);
+
+		assert(index.getOperation("/quote/{id}", "delete").getSuccessCodes().size()==2);
+		assert(index.getOperation("/quote", "put")==null);
+	}
+
+}
@@ -0,0 +1,65 @@
+package no.paneon.api;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jgrapht.Graph;
+import org.junit.*;
+
+import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.IndexedGraph;
+import no.paneon.api.graph.Node;
+import no.paneon.api.graph.complexity.PathAlgorithms;
+
+public class PathAlgorithmsTest  {
+
+	public PathAlgorithmsTest() {
+	}
+
+	static Node r = new Node("PathR");
+	static Node a = new Node("PathA");
+	static Node b = new Node("PathB");
+	static Node c = new Node("PathC");
+	static Node x = new Node("PathX");
+
+	private static void addEdge(Graph<Node,Edge> graph, Node from, Node to) {
+		graph.addEdge(from, to, new Edge(from, "rel", to, "1", false, false, ""));
+	}
+
+	/*
+	 * r -> a -> b -> c, r -> c, with the cycle a <-> b, and x not reachable
+	 */
+	private static Graph<Node,Edge> graph() {
+		Graph<Node,Edge> graph = new IndexedGraph();
+		List.of(r,a,b,c,x).forEach(graph::addVertex);
+		addEdge(graph, r, a);
+		addEdge(graph, a, b);
+		addEdge(graph, b, a);
+		addEdge(graph, b, c);
+		addEdge(graph, r, c);
+		addEdge(graph, x, r);
+		return graph;
+	}
+
+	@Test
+	public void shortestPath() {
+		Map<Node,Integer> shortest = PathAlgorithms.shortestPathLengths(graph(), r);
+
+		assert(shortest.get(r)==0);
+		assert(shortest.get(b)==2);
+		assert(shortest.get(c)==1);
+		assert(shortest.get(x)==Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void longestPath() {
+		Map<Node,Integer> longest = PathAlgorithms.longestPathLengths(graph(), r);
+
+		assert(longest.get(r)==0);
+		assert(longest.get(a)==1);
+		assert(longest.get(b)==1);
+		assert(longest.get(c)==2);
+		assert(!longest.containsKey(x));
+	}
+
+}
@@ -0,0 +1,129 @@
+package no.paneon.api;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.json.JSONObject;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import no.paneon.api.model.APIModel;
+import no.paneon.api.model.SwaggerValidator;
+import no.paneon.api.utils.Config;
+
+public class PreparedModelCacheTest  {
+
+	public PreparedModelCacheTest() {
+	}
+
+    static String file = "./src/test/resources/Quote_Management_5.0.0_oas.yaml";
+
+    static final String MODEL_CACHE_DIRECTORY = "modelCacheDirectory";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void runAfterTestMethod() {
+        Config.removeConfiguration(MODEL_CACHE_DIRECTORY);
+        APIModel.clean();
+    }
+
+    private static Map<String,Set<String>> load() {
+        APIModel.clean();
+        APIModel.setSwaggerSource(file);
+        APIModel.loadAPI(file);
+
+        Map<String,Set<String>> res = new TreeMap<>();
+        for(String definition : APIModel.getAllDefinitions()) {
+            res.put(definition, APIModel.getPropertiesExpanded(definition));
+        }
+        return res;
+    }
+
+    @Test
+    public void preparedModelIsReused() throws Exception {
+        Config.getConfig();
+        Map<String,Set<String>> expected = load();
+        List<String> resources = APIModel.getResources();
+
+        File directory = folder.newFolder("models");
+        Config.addConfiguration(new JSONObject().put(MODEL_CACHE_DIRECTORY, directory.getPath()));
+
+        assert(load().equals(expected));
+        assert(directory.list().length==1);
+
+        assert(load().equals(expected));
+        assert(APIModel.getResources().equals(resources));
+
+        Config.addConfiguration(new JSONObject().put("preparedModelCacheTest", true));
+        load();
+        Config.removeConfiguration("preparedModelCacheTest");
+
+        assert(directory.list().length==2);
+    }
+
+    static final String API = "{"
+            + "'openapi': '3.0.1',"
+            + "'paths': {},"
+            + "'components': { 'schemas': {"
+            + "  'CachedQuote': { 'allOf': [ {'$ref': 'Common.json#/components/schemas/CachedMoney'} ],"
+            + "                   'properties': { 'other': {'$ref': '#/components/schemas/CachedMissing'} } }"
+            + "} }"
+            + "}";
+
+    static final String COMMON = "{ 'components': { 'schemas': { 'CachedMoney': { 'properties': { 'value': {'type': 'number'} } } } } }";
+
+    private static void loadExternal(String source) {
+        APIModel.clean();
+        APIModel.setSwaggerSource(source);
+        APIModel.loadAPI(source);
+    }
+
+    @Test
+    public void externalInputsAndFindings() throws Exception {
+        File documents = folder.newFolder("documents");
+        File copy = folder.newFolder("copy");
+        File directory = folder.newFolder("cached");
+
+        File api = new File(documents, "api.json");
+        File common = new File(documents, "Common.json");
+        Files.writeString(api.toPath(), new JSONObject(API).toString());
+        Files.writeString(common.toPath(), new JSONObject(COMMON).toString());
+        Files.copy(api.toPath(), new File(copy, "api.json").toPath());
+        Files.copy(common.toPath(), new File(copy, "Common.json").toPath());
+
+        Config.addConfiguration(new JSONObject().put(MODEL_CACHE_DIRECTORY, directory.getPath()));
+
+        loadExternal(api.getPath());
+        List<String> findings = messages(APIModel.getValidationFindings());
+
+        assert(!findings.isEmpty());
+        assert(directory.list().length==1);
+
+        File entry = directory.listFiles()[0];
+        assert(entry.setLastModified(0));
+
+        loadExternal(api.getPath());
+        assert(entry.lastModified()==0);
+        assert(messages(APIModel.getValidationFindings()).equals(findings));
+
+        Files.writeString(common.toPath(), new JSONObject(COMMON.replace("'value'", "'amount'")).toString());
+
+        loadExternal(api.getPath());
+        assert(entry.lastModified()!=0);
+
+        loadExternal(new File(copy, "api.json").getPath());
+        assert(directory.list().length==2);
+    }
+
+    private static List<String> messages(List<SwaggerValidator.Finding> findings) {
+        return findings.stream().map(finding -> finding.message).collect(Collectors.toList());
+    }
+
+}
@@ -0,0 +1,67 @@
+package no.paneon.api;
+
+import java.util.List;
+import java.util.Set;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.graph.CoreAPIGraph;
+import no.paneon.api.model.APIModel;
+import no.paneon.api.utils.Config;
+
+public class ReferenceIndexTest  {
+
+	public ReferenceIndexTest() {
+	}
+
+	static final String PRUNE = "pruneUnreachableDefinitions";
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {},"
+			+ "'components': { 'schemas': {"
+			+ "  'RefOrder':     { 'type': 'object', 'properties': { 'items': { 'type': 'array', 'items': {'$ref': '#/components/schemas/RefItem'} } } },"
+			+ "  'RefItem':      { 'type': 'object', 'properties': { 'product': {'$ref': '#/components/schemas/RefProduct'} } },"
+			+ "  'RefProduct':   { 'oneOf': [ {'$ref': '#/components/schemas/RefOffering'} ], "
+			+ "                    'discriminator': { 'propertyName': '@type', 'mapping': { 'RefBundle': '#/components/schemas/RefBundle' } } },"
+			+ "  'RefOffering':  { 'type': 'object', 'properties': { 'name': {'type': 'string'} } },"
+			+ "  'RefBundle':    { 'allOf': [ {'$ref': '#/components/schemas/RefOffering'} ] },"
+			+ "  'RefUnused':    { 'type': 'object', 'properties': { 'item': {'$ref': '#/components/schemas/RefItem'} } }"
+			+ "} }"
+			+ "}";
+
+	@After
+	public void runAfterTestMethod() {
+		Config.removeConfiguration(PRUNE);
+		APIModel.clean();
+	}
+
+	@Test
+	public void references() {
+		APIModel.setSwagger(new JSONObject(API));
+
+		assert(APIModel.getReferencedBy("RefItem").equals(Set.of("RefOrder", "RefUnused")));
+		assert(APIModel.getReferencedBy("RefOffering").equals(Set.of("RefProduct", "RefBundle")));
+		assert(APIModel.getReferencedBy("RefOrder").isEmpty());
+
+		assert(APIModel.getReachableDefinitions(List.of("RefOrder"))
+				.equals(Set.of("RefOrder", "RefItem", "RefProduct", "RefOffering", "RefBundle")));
+
+		assert(Set.copyOf(APIModel.getAllReferenced()).equals(Set.of("RefItem", "RefProduct")));
+	}
+
+	@Test
+	public void pruned() {
+		APIModel.setSwagger(new JSONObject(API));
+		Config.addConfiguration(new JSONObject().put(PRUNE, true));
+
+		CoreAPIGraph graph = new CoreAPIGraph(List.of("RefOrder"));
+		List<String> nodes = CoreAPIGraph.getNodeNames(graph.getCompleteGraph());
+
+		assert(nodes.contains("RefOrder"));
+		assert(nodes.contains("RefBundle"));
+		assert(!nodes.contains("RefUnused"));
+	}
+
+}
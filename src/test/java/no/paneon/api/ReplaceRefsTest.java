@@ -0,0 +1,76 @@
+package no.paneon.api;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.Schema;
+
+public class ReplaceRefsTest  {
+
+	public ReplaceRefsTest() {
+	}
+
+	static final int CHAIN = 2000;
+
+	Path dir;
+
+	@Before
+	public void runBeforeTestMethod() throws Exception {
+		dir = Files.createTempDirectory("refs");
+	}
+
+	@After
+	public void runAfterTestMethod() throws Exception {
+		try(var files = Files.list(dir)) {
+			files.forEach(file -> file.toFile().delete());
+		}
+		Files.deleteIfExists(dir);
+	}
+
+	private File write(String title, String ref) throws Exception {
+		JSONObject properties = new JSONObject();
+		if(ref!=null) properties.put("next", new JSONObject().put("$ref", ref));
+
+		JSONObject schema = new JSONObject()
+				.put("title", title)
+				.put("definitions", new JSONObject().put(title, new JSONObject().put("type", "object").put("properties", properties)));
+
+		Path file = dir.resolve(title + ".schema.json");
+		Files.writeString(file, schema.toString());
+		return file.toFile();
+	}
+
+	private static String ref(String title) {
+		return title + ".schema.json#/definitions/" + title;
+	}
+
+	@Test
+	public void deepChain() throws Exception {
+		for(int i=1; i<CHAIN; i++) {
+			write("RefsChain" + i, ref("RefsChain" + (i+1)));
+		}
+		write("RefsChain" + CHAIN, null);
+		File root = write("RefsChainRoot", ref("RefsChain1"));
+
+		List<String> errors = new Schema(root).loadSchema();
+
+		assert(errors.isEmpty());
+		assert(Schema.getSchemaByKey("RefsChain" + CHAIN + ".schema.json")!=null);
+	}
+
+	@Test
+	public void missingReference() throws Exception {
+		File root = write("RefsMissingRoot", ref("RefsMissing"));
+
+		List<String> errors = new Schema(root).loadSchema();
+
+		assert(errors.size()==1);
+		assert(errors.get(0).contains(ref("RefsMissing")));
+	}
+
+}
@@ -0,0 +1,62 @@
+package no.paneon.api;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.utils.Config;
+
+public class RulesIndexTest  {
+
+	public RulesIndexTest() {
+	}
+
+	static final String RULES = ""
+			+ "api:\n"
+			+ "  name: RulesIndex\n"
+			+ "  resources:\n"
+			+ "    - name: RulesQuote\n"
+			+ "      examples: []\n"
+			+ "      supportedHttpMethods:\n"
+			+ "        - GET: { required: true }\n"
+			+ "        - POST: { required: true }\n"
+			+ "        - GET: { required: false }\n"
+			+ "    - name: RulesItem\n"
+			+ "      supportedHttpMethods:\n"
+			+ "        PATCH: { required: false }\n"
+			+ "    - name: RulesQuote\n"
+			+ "      supportedHttpMethods: []\n"
+			+ "  rules RulesOverride:\n"
+			+ "    supportedHttpMethods:\n"
+			+ "      DELETE: { required: true }\n";
+
+	@Test
+	public void lookups() throws Exception {
+		File file = File.createTempFile("rules", ".yaml");
+		file.deleteOnExit();
+		Files.writeString(file.toPath(), RULES);
+
+		Config.setRulesSource(file.getPath());
+
+		JSONObject quote = Config.getRulesForResource("RulesQuote");
+		assert(quote.has("examples"));
+		assert(Config.getRulesForResource("RulesMissing")==null);
+
+		JSONObject get = Config.getRulesForOperation(quote, "GET");
+		assert(get.getJSONObject("GET").getBoolean("required"));
+		assert(Config.getRulesForOperation(quote, "POST").has("POST"));
+		assert(Config.getRulesForOperation(quote, "DELETE")==null);
+
+		JSONObject item = Config.getRulesForResource("RulesItem");
+		assert(!Config.getRulesForOperation(item, "PATCH").getBoolean("required"));
+
+		JSONObject override = Config.getRulesForResource("RulesOverride");
+		assert(Config.getRulesForOperation(override, "DELETE").getBoolean("required"));
+
+		assert(Config.getResourcesFromRules().equals(List.of("RulesQuote", "RulesItem")));
+	}
+
+}
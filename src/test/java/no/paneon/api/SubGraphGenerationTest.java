@@ -0,0 +1,71 @@
+package no.paneon.api;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.jgrapht.Graph;
+import org.junit.*;
+
+import no.paneon.api.graph.CoreAPIGraph;
+import no.paneon.api.graph.Edge;
+import no.paneon.api.graph.Node;
+import no.paneon.api.graph.complexity.ComplexityAdjustedAPIGraph;
+import no.paneon.api.model.APIModel;
+
+public class SubGraphGenerationTest  {
+
+	public SubGraphGenerationTest() {
+	}
+
+    static String file = "./src/test/resources/TMF620-ProductCatalog-v4.1.0.swagger.json";
+
+    @BeforeClass
+    public static void runOnceBeforeClass() {
+        APIModel.clean();
+        APIModel.setSwaggerSource(file);
+        APIModel.loadAPI(file);
+    }
+
+    @AfterClass
+    public static void runOnceAfterClass() {
+        APIModel.clean();
+    }
+
+    private static Map<String,String> summary(Map<String,Graph<Node,Edge>> graphs) {
+    	Map<String,String> res = new TreeMap<>();
+    	graphs.forEach((pivot,graph) -> res.put(pivot, graph.vertexSet().stream().map(Node::getName).sorted().collect(Collectors.joining(","))
+    															+ "/" + graph.edgeSet().size()));
+    	return res;
+    }
+
+    @Test
+    public void parallelSubGraphs() {
+    	List<String> resources = APIModel.getResources();
+    	CoreAPIGraph core = new CoreAPIGraph(resources);
+
+    	Map<String,Map<String,String>> sequential = new TreeMap<>();
+    	for(String resource : resources) {
+    		ComplexityAdjustedAPIGraph graph = new ComplexityAdjustedAPIGraph(core, false);
+    		graph.generateSubGraphsForResource(resources, resource);
+    		sequential.put(resource, summary(graph.getGraphsForResource(resource)));
+    	}
+
+    	ForkJoinPool pool = new ForkJoinPool(4);
+    	try {
+    		ComplexityAdjustedAPIGraph graph = new ComplexityAdjustedAPIGraph(core, false);
+    		Map<String,Map<String,Graph<Node,Edge>>> all = graph.generateSubGraphsForResources(resources, resources, pool);
+
+    		assert(all.keySet().equals(sequential.keySet()));
+    		for(String resource : resources) {
+    			assert(summary(all.get(resource)).equals(sequential.get(resource))) : resource;
+    			assert(graph.getSubGraphLabels(resource).containsAll(sequential.get(resource).keySet()));
+    		}
+    	} finally {
+    		pool.shutdown();
+    	}
+    }
+
+}
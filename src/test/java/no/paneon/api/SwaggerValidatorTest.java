@@ -0,0 +1,69 @@
+package no.paneon.api;
+
+import java.util.List;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+import no.paneon.api.model.SwaggerValidator;
+import no.paneon.api.model.SwaggerValidator.Finding;
+import no.paneon.api.model.SwaggerValidator.Severity;
+
+public class SwaggerValidatorTest  {
+
+	public SwaggerValidatorTest() {
+	}
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {},"
+			+ "'components': { 'schemas': {"
+			+ "  'CheckA': { 'type': 'object', 'properties': { 'other': {'$ref': '#/components/schemas/CheckB'}, 'Missing': {'$ref': '#/components/schemas/CheckMissing'} } },"
+			+ "  'CheckB': { 'type': 'object', 'properties': { 'other': {'$ref': '#/components/schemas/CheckA'}, 'again': {'$ref': '#/components/schemas/CheckMissing'} } },"
+			+ "  'CheckC': { 'allOf': [ {'$ref': 'Common.json#/CheckExternal'} ], 'properties': [] }"
+			+ "} }"
+			+ "}";
+
+	@After
+	public void runAfterTestMethod() {
+		APIModel.clean();
+	}
+
+	@Test
+	public void findingsInDocumentOrder() {
+		List<Finding> findings = SwaggerValidator.validate(new JSONObject(API), true);
+
+		assert(SwaggerValidator.hasErrors(findings));
+		assert(findings.size()==5);
+		assert(findings.stream().filter(finding -> finding.severity==Severity.ERROR).count()==2);
+		assert(findings.stream().filter(finding -> finding.severity==Severity.INFO).count()==1);
+
+		int warning = indexOf(findings, Severity.WARNING, "#/components/schemas/CheckA/properties/Missing");
+		int error = indexOf(findings, Severity.ERROR, "#/components/schemas/CheckA/properties/Missing");
+		assert(warning>=0 && warning<error);
+		assert(findings.get(error).message.contains("#/components/schemas/CheckMissing"));
+
+		assert(indexOf(findings, Severity.ERROR, "#/components/schemas/CheckB/properties/again")>=0);
+		assert(indexOf(findings, Severity.WARNING, "#/components/schemas/CheckC")>=0);
+
+		assert(SwaggerValidator.validate(new JSONObject(API), false).size()==4);
+	}
+
+	@Test
+	public void kept() {
+		APIModel.setSwagger(new JSONObject(API.replace("Common.json#/CheckExternal", "#/components/schemas/CheckA")));
+		assert(APIModel.getValidationFindings().size()==4);
+
+		APIModel.clean();
+		assert(APIModel.getValidationFindings().isEmpty());
+	}
+
+	private static int indexOf(List<Finding> findings, Severity severity, String path) {
+		for(int i=0; i<findings.size(); i++) {
+			if(findings.get(i).severity==severity && findings.get(i).path.equals(path)) return i;
+		}
+		return -1;
+	}
+
+}
@@ -0,0 +1,65 @@
+package no.paneon.api;
+
+import org.json.JSONObject;
+import org.junit.*;
+
+import no.paneon.api.model.APIModel;
+
+public class TypeClassificationTest  {
+
+	public TypeClassificationTest() {
+	}
+
+	static final String API = "{"
+			+ "'openapi': '3.0.1',"
+			+ "'paths': {},"
+			+ "'components': { 'schemas': {"
+			+ "  'KindState':   { 'type': 'string', 'enum': ['open', 'closed'] },"
+			+ "  'KindChoice':  { 'oneOf': [ {'$ref': '#/components/schemas/KindItem'}, {'$ref': '#/components/schemas/KindState'} ] },"
+			+ "  'KindItem':    { 'type': 'object', 'properties': { 'a': {'type': 'string'}, 'b': {'type': 'string'} } },"
+			+ "  'KindItems':   { 'type': 'array', 'items': {'$ref': '#/components/schemas/KindItem'} },"
+			+ "  'KindStates':  { 'type': 'array', 'items': {'$ref': '#/components/schemas/KindState'} },"
+			+ "  'KindName':    { 'type': 'string' }"
+			+ "} }"
+			+ "}";
+
+	@After
+	public void runAfterTestMethod() {
+		APIModel.clean();
+	}
+
+	@Test
+	public void classification() {
+		APIModel.setSwagger(new JSONObject(API));
+
+		for(int i=0; i<2; i++) {
+			assert(APIModel.isEnumType("KindState"));
+			assert(!APIModel.isEnumType("KindName"));
+
+			assert(APIModel.isOneOfType("KindChoice"));
+			assert(!APIModel.isOneOfType("KindItem"));
+
+			assert(APIModel.isArrayType("KindItems"));
+			assert(!APIModel.isArrayType("KindItem"));
+
+			assert(APIModel.isSimpleType("KindName"));
+			assert(!APIModel.isSimpleType("KindItem"));
+
+			assert(APIModel.isCustomSimple("KindStates"));
+			assert(!APIModel.isCustomSimple("KindItems"));
+		}
+	}
+
+	@Test
+	public void clearedWithDefinitions() {
+		APIModel.setSwagger(new JSONObject(API));
+		assert(APIModel.isEnumType("KindState"));
+
+		APIModel.clean();
+		APIModel.setSwagger(new JSONObject(API.replace("'enum': ['open', 'closed']", "'format': 'state'")));
+
+		assert(!APIModel.isEnumType("KindState"));
+		assert(APIModel.isSimpleType("KindState"));
+	}
+
+}